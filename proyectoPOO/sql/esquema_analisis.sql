@@ -0,0 +1,55 @@
+-- Tablas de apoyo del análisis de tickets para la base pooproyecto.
+-- HelpDeskDao las usa además de Usuarios, Departamentos, Tickets,
+-- Diccionarios y Palabras. El script se puede ejecutar varias veces: solo
+-- crea las tablas que todavía no existen.
+
+USE pooproyecto;
+GO
+
+-- Versión de los diccionarios. Cada alta, cambio o baja de un diccionario
+-- o de sus palabras la incrementa en la misma transacción; sin esta tabla
+-- esos cambios se revierten.
+IF OBJECT_ID(N'dbo.VersionDiccionarios', N'U') IS NULL
+    CREATE TABLE dbo.VersionDiccionarios (
+        id      INT    NOT NULL PRIMARY KEY,
+        version BIGINT NOT NULL
+    );
+GO
+
+-- Stopwords por idioma o inquilino, ya normalizadas.
+IF OBJECT_ID(N'dbo.Stopwords', N'U') IS NULL
+    CREATE TABLE dbo.Stopwords (
+        idioma  NVARCHAR(50)  NOT NULL,
+        palabra NVARCHAR(100) NOT NULL,
+        CONSTRAINT PK_Stopwords PRIMARY KEY (idioma, palabra)
+    );
+GO
+
+-- Frecuencia de documentos por término del corpus de tickets. La fila con
+-- término vacío guarda el total de documentos.
+IF OBJECT_ID(N'dbo.FrecuenciaDocumentos', N'U') IS NULL
+    CREATE TABLE dbo.FrecuenciaDocumentos (
+        termino    NVARCHAR(450) NOT NULL PRIMARY KEY,
+        documentos BIGINT        NOT NULL
+    );
+GO
+
+-- Coincidencias acumuladas por término de cada tipo de diccionario.
+IF OBJECT_ID(N'dbo.CoincidenciasTermino', N'U') IS NULL
+    CREATE TABLE dbo.CoincidenciasTermino (
+        tipo          NVARCHAR(50)  NOT NULL,
+        termino       NVARCHAR(400) NOT NULL,
+        coincidencias BIGINT        NOT NULL,
+        CONSTRAINT PK_CoincidenciasTermino PRIMARY KEY (tipo, termino)
+    );
+GO
+
+-- Coincidencias acumuladas por categoría de cada tipo de diccionario.
+IF OBJECT_ID(N'dbo.CoincidenciasCategoria', N'U') IS NULL
+    CREATE TABLE dbo.CoincidenciasCategoria (
+        tipo          NVARCHAR(50)  NOT NULL,
+        categoria     NVARCHAR(100) NOT NULL,
+        coincidencias BIGINT        NOT NULL,
+        CONSTRAINT PK_CoincidenciasCategoria PRIMARY KEY (tipo, categoria)
+    );
+GO
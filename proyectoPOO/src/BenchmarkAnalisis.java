@@ -0,0 +1,68 @@
+import cr.ac.ucenfotec.bl.entities.Diccionario;
+import cr.ac.ucenfotec.bl.entities.Palabra;
+import cr.ac.ucenfotec.bl.logic.AnalisisBow;
+import cr.ac.ucenfotec.bl.logic.ResultadoAnalisis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mide el tiempo de análisis de una descripción según el tamaño de los
+ * diccionarios, sin base de datos. Por cada tamaño arma un diccionario
+ * técnico y uno emocional de {@code n} palabras, calienta el analizador y
+ * luego mide el promedio por análisis y por token.
+ *
+ * <p>Uso: {@code java BenchmarkAnalisis [n1 n2 ...]}; sin argumentos mide
+ * 100, 1000, 10000 y 100000 palabras.</p>
+ */
+public class BenchmarkAnalisis {
+
+    private static final String DESCRIPCION = "Hola, la impresora del laboratorio no imprime y la red wifi "
+            + "se cae cada cinco minutos, estoy muy frustrado con el sistema de correo y la contraseña";
+
+    public static void main(String[] args) {
+        int[] tamanos = {100, 1000, 10000, 100000};
+        if (args.length > 0) {
+            tamanos = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                tamanos[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int n : tamanos) {
+            AnalisisBow analizador = new AnalisisBow(diccionario("tecnico", "termino", "Cat", 20, n,
+                    new Palabra("impresora", "Impresoras")),
+                    diccionario("emocional", "emocion", "Emo", 8, n,
+                            new Palabra("frustrado", "Frustracion")));
+
+            long iteraciones = Math.max(50, 2_000_000L / n);
+            ResultadoAnalisis resultado = null;
+            for (long i = 0; i < iteraciones; i++) {
+                resultado = analizador.analizar(DESCRIPCION);
+            }
+            long inicio = System.nanoTime();
+            for (long i = 0; i < iteraciones; i++) {
+                resultado = analizador.analizar(DESCRIPCION);
+            }
+            long transcurrido = System.nanoTime() - inicio;
+
+            int tokens = resultado.getTf().size();
+            System.out.printf("n=%6d  %8.1f us/análisis  %7.1f ns/token  %s / %s%n",
+                    n, transcurrido / 1e3 / iteraciones, transcurrido / (double) iteraciones / tokens,
+                    resultado.getCategoriaTecnica(), resultado.getEstadoAnimo());
+        }
+    }
+
+    private static Diccionario diccionario(String tipo, String prefijo, String categoria,
+                                           int categorias, int n, Palabra extra) {
+        List<Palabra> palabras = new ArrayList<>(n + 1);
+        for (int i = 0; i < n; i++) {
+            palabras.add(new Palabra(prefijo + i, categoria + (i % categorias)));
+        }
+        palabras.add(extra);
+
+        Diccionario d = new Diccionario(tipo);
+        d.setPalabras(palabras);
+        return d;
+    }
+}
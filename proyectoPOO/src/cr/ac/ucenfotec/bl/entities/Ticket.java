@@ -57,6 +57,16 @@ public class Ticket {
         return id;
     }
 
+    /**
+     * Establece el identificador del ticket, por ejemplo el asignado por la
+     * base de datos al consultarlo.
+     *
+     * @param id identificador a asignar
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Obtiene el asunto del ticket.
      *
@@ -1,40 +1,305 @@
 package cr.ac.ucenfotec.bl.logic;
 
 import cr.ac.ucenfotec.bl.entities.Diccionario;
-import cr.ac.ucenfotec.bl.entities.Palabra;
 
-import java.text.Normalizer;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Clase de apoyo para análisis de texto mediante un enfoque Bag of Words (BoW)
- * utilizando diccionarios técnicos y emocionales.
+ * utilizando diccionarios técnicos, emocionales o de cualquier otro tipo.
  *
  * <p>Permite normalizar texto, generar mapas de frecuencias y sugerir
  * estado de ánimo y categoría técnica a partir de los diccionarios
- * configurados.</p>
+ * configurados. Cada tipo de diccionario adicional (urgencia, producto,
+ * idioma...) se puntúa en el mismo recorrido del texto.</p>
+ *
+ * <p>Una instancia no cambia después de construida, por lo que puede
+ * compartirse entre hilos. Lo único que cambia son sus contadores de
+ * coincidencias, que registran cuántas veces suma cada palabra y cada
+ * categoría de los diccionarios.</p>
  */
 public class AnalisisBow {
 
-    /** Diccionario técnico utilizado para sugerir categorías técnicas. */
-    private Diccionario tecnico;
+    /** Tipo del diccionario de emociones. */
+    public static final String DICCIONARIO_EMOCIONAL = "emocional";
+
+    /** Tipo del diccionario de categorías técnicas. */
+    public static final String DICCIONARIO_TECNICO = "tecnico";
+
+    /** Términos y categorías de los diccionarios, con identificadores enteros. */
+    private final Vocabulario vocabulario;
+
+    /** Stopwords que se descartan antes de clasificar los tokens. */
+    private final ConjuntoStopwords stopwords;
+
+    /** Stemmer de los tokens, o {@code null} si se comparan tal como aparecen. */
+    private final StemmerEspanol stemmer;
+
+    /**
+     * Peso TF-IDF de cada patrón, por identificador de patrón, o
+     * {@code null} si cada coincidencia suma 1.
+     */
+    private final double[] pesos;
+
+    /** Índice de corrección de errores de tipeo, o {@code null} sin corrección. */
+    private final IndiceDifuso indiceDifuso;
+
+    /** Peso de una coincidencia que incluye una palabra corregida. */
+    private final double pesoDifuso;
 
-    /** Diccionario emocional utilizado para estimar estado de ánimo. */
-    private Diccionario emocional;
+    /** Coincidencias por palabra y categoría; compartidas con las copias de este analizador. */
+    private final ContadoresCoincidencias contadores;
 
     /**
      * Crea una nueva instancia de {@code AnalisisBow} con los diccionarios
-     * necesarios para el análisis.
+     * necesarios para el análisis y las stopwords por defecto.
      *
      * @param tecnico   diccionario técnico
      * @param emocional diccionario emocional
      */
     public AnalisisBow(Diccionario tecnico, Diccionario emocional) {
-        this.tecnico = tecnico;
-        this.emocional = emocional;
+        this(tecnico, emocional, Stopwords.obtener(Stopwords.IDIOMA_POR_DEFECTO));
+    }
+
+    /**
+     * Crea una nueva instancia de {@code AnalisisBow} con los diccionarios
+     * y el conjunto de stopwords indicados. Las palabras y frases de cada
+     * diccionario se compilan en un {@link Vocabulario} con la misma
+     * normalización que se aplica a las descripciones, de modo que todas se
+     * encuentran en un solo recorrido sin importar el tamaño del
+     * diccionario.
+     *
+     * @param tecnico   diccionario técnico
+     * @param emocional diccionario emocional
+     * @param stopwords stopwords a descartar
+     */
+    public AnalisisBow(Diccionario tecnico, Diccionario emocional, ConjuntoStopwords stopwords) {
+        this(tecnico, emocional, stopwords, false);
+    }
+
+    /**
+     * Crea una nueva instancia de {@code AnalisisBow} indicando además si
+     * las palabras se reducen a su raíz antes de clasificarlas. Con
+     * stemming, "conectar", "conectado" y "conectados" coinciden con una
+     * sola entrada del diccionario; la raíz de cada palabra distinta se
+     * calcula una vez y se memoriza en una caché acotada compartida.
+     *
+     * @param tecnico   diccionario técnico
+     * @param emocional diccionario emocional
+     * @param stopwords stopwords a descartar
+     * @param stemming  {@code true} para comparar por raíces
+     */
+    public AnalisisBow(Diccionario tecnico,
+                       Diccionario emocional,
+                       ConjuntoStopwords stopwords,
+                       boolean stemming) {
+        this(Arrays.asList(comoTipo(emocional, DICCIONARIO_EMOCIONAL), comoTipo(tecnico, DICCIONARIO_TECNICO)),
+                stopwords, stemming);
+    }
+
+    /**
+     * Crea una nueva instancia de {@code AnalisisBow} con cualquier cantidad
+     * de diccionarios. Cada tipo de diccionario distinto, sin importar
+     * mayúsculas, es una dimensión con sus propias categorías; los tipos
+     * {@value #DICCIONARIO_EMOCIONAL} y {@value #DICCIONARIO_TECNICO}
+     * alimentan el estado de ánimo y la categoría técnica. Las palabras de
+     * todos los diccionarios se compilan en un solo {@link Vocabulario}, así
+     * que agregar un diccionario no agrega otro recorrido del texto.
+     *
+     * @param diccionarios diccionarios a usar; los {@code null} se ignoran
+     * @param stopwords    stopwords a descartar
+     * @param stemming     {@code true} para comparar por raíces
+     */
+    public AnalisisBow(List<Diccionario> diccionarios, ConjuntoStopwords stopwords, boolean stemming) {
+        this.stopwords = stopwords != null ? stopwords : ConjuntoStopwords.VACIO;
+        this.stemmer = stemming ? StemmerEspanol.COMPARTIDO : null;
+        this.vocabulario = new Vocabulario(diccionarios, this.stopwords, this.stemmer);
+        this.pesos = null;
+        this.indiceDifuso = null;
+        this.pesoDifuso = 1.0;
+        this.contadores = new ContadoresCoincidencias(vocabulario);
+    }
+
+    /**
+     * Crea un analizador que comparte el vocabulario de otro y usa los pesos
+     * y la corrección indicados.
+     */
+    private AnalisisBow(AnalisisBow base, double[] pesos, IndiceDifuso indiceDifuso, double pesoDifuso) {
+        this.vocabulario = base.vocabulario;
+        this.stopwords = base.stopwords;
+        this.stemmer = base.stemmer;
+        this.pesos = pesos;
+        this.indiceDifuso = indiceDifuso;
+        this.pesoDifuso = pesoDifuso;
+        this.contadores = base.contadores;
+    }
+
+    /**
+     * Crea un analizador con el mismo vocabulario que pondera cada
+     * coincidencia por la frecuencia inversa de documento (IDF) del término,
+     * según las estadísticas actuales del corpus. Así una palabra técnica que
+     * aparece en casi todos los tickets pesa menos que una que distingue a
+     * pocos. Para una frase se usa el IDF de su palabra más rara, sin contar
+     * stopwords.
+     *
+     * <p>Los pesos se calculan una vez por patrón a partir de los contadores
+     * del corpus, sin recorrer los tickets; durante el análisis solo se
+     * consulta un arreglo.</p>
+     *
+     * @param corpus estadísticas del corpus
+     * @return analizador con ponderación TF-IDF
+     */
+    AnalisisBow conPesosIdf(EstadisticasCorpus corpus) {
+        String[] patrones = vocabulario.getPatrones();
+        double[] nuevos = new double[patrones.length];
+        long documentos = corpus.getDocumentos();
+
+        for (int id = 0; id < patrones.length; id++) {
+            double peso = 0.0;
+            for (String termino : patrones[id].split(" ")) {
+                if (!stopwords.contiene(termino)) {
+                    peso = Math.max(peso, corpus.idf(termino, documentos));
+                }
+            }
+            nuevos[id] = peso > 0.0 ? peso : 1.0;
+        }
+        return new AnalisisBow(this, nuevos, indiceDifuso, pesoDifuso);
+    }
+
+    /**
+     * Crea un analizador con el mismo vocabulario que tolera errores de
+     * tipeo. Una palabra de la descripción que no aparece en ningún
+     * diccionario se reemplaza por la palabra de diccionario más cercana a
+     * una distancia de edición de hasta {@code distanciaMaxima} letras
+     * borradas, agregadas, cambiadas o intercambiadas, por ejemplo
+     * "conecsion" por "conexion". El índice de borrados simétricos se
+     * construye aquí, una sola vez, y cada corrección cuesta casi lo mismo
+     * sin importar el tamaño de los diccionarios.
+     *
+     * <p>Una coincidencia que incluye una palabra corregida suma
+     * {@code pesoDifuso} en lugar de 1 a los pesos del resultado (o su peso
+     * IDF multiplicado por {@code pesoDifuso} con TF-IDF), y la categoría
+     * predominante se elige por esos pesos. Los puntajes enteros siguen
+     * contando cada coincidencia.</p>
+     *
+     * @param distanciaMaxima distancia de edición máxima, 1 o 2
+     * @param pesoDifuso      peso de una coincidencia corregida, mayor que 0
+     *                        y hasta 1
+     * @return analizador con corrección de errores de tipeo
+     * @throws IllegalArgumentException si algún parámetro está fuera de rango
+     */
+    public AnalisisBow conCorreccionDifusa(int distanciaMaxima, double pesoDifuso) {
+        if (distanciaMaxima < 1 || distanciaMaxima > 2) {
+            throw new IllegalArgumentException("La distancia debe ser 1 o 2: " + distanciaMaxima);
+        }
+        if (!(pesoDifuso > 0.0 && pesoDifuso <= 1.0)) {
+            throw new IllegalArgumentException("El peso debe estar entre 0 (exclusivo) y 1: " + pesoDifuso);
+        }
+        return new AnalisisBow(this, pesos, new IndiceDifuso(vocabulario, distanciaMaxima, stemmer), pesoDifuso);
+    }
+
+    /**
+     * Obtiene la distancia de edición máxima que se corrige.
+     *
+     * @return distancia máxima, o 0 si no se corrigen errores de tipeo
+     */
+    public int getDistanciaDifusa() {
+        return indiceDifuso != null ? indiceDifuso.getDistanciaMaxima() : 0;
+    }
+
+    /**
+     * Obtiene el peso de una coincidencia que incluye una palabra corregida.
+     *
+     * @return peso entre 0 y 1; 1 si no se corrigen errores de tipeo
+     */
+    public double getPesoDifuso() {
+        return pesoDifuso;
+    }
+
+    /**
+     * Indica si las coincidencias se ponderan con TF-IDF.
+     *
+     * @return {@code true} si se usan pesos IDF
+     */
+    public boolean isTfIdf() {
+        return pesos != null;
+    }
+
+    /**
+     * Obtiene los tipos de diccionario que puntúa este analizador, en el
+     * orden en que se cargaron.
+     *
+     * @return lista de solo lectura de tipos
+     */
+    public List<String> getTiposDiccionario() {
+        return Collections.unmodifiableList(Arrays.asList(vocabulario.getTipos()));
+    }
+
+    /**
+     * Obtiene cuántas veces sumó al puntaje cada palabra o frase de un tipo
+     * de diccionario desde que se construyó este analizador, incluidas las
+     * que nunca coincidieron. Los analizadores creados con
+     * {@link #conCorreccionDifusa(int, double)} comparten estos contadores.
+     *
+     * @param tipo tipo de diccionario, sin importar mayúsculas
+     * @return término normalizado -&gt; coincidencias; vacío si no existe un
+     *         diccionario de ese tipo
+     */
+    public Map<String, Long> getCoincidenciasPorTermino(String tipo) {
+        return Collections.unmodifiableMap(contadores.porTermino(tipo, false));
+    }
+
+    /**
+     * Obtiene cuántas veces sumó cada categoría de un tipo de diccionario
+     * desde que se construyó este analizador, incluidas las que nunca
+     * coincidieron.
+     *
+     * @param tipo tipo de diccionario, sin importar mayúsculas
+     * @return categoría -&gt; coincidencias; vacío si no existe un
+     *         diccionario de ese tipo
+     */
+    public Map<String, Long> getCoincidenciasPorCategoria(String tipo) {
+        return Collections.unmodifiableMap(contadores.porCategoria(tipo, false));
+    }
+
+    /**
+     * Obtiene los contadores de coincidencias de este analizador.
+     *
+     * @return contadores compartidos
+     */
+    ContadoresCoincidencias getContadores() {
+        return contadores;
+    }
+
+    /**
+     * Vuelve a contar las coincidencias de un resultado de este analizador,
+     * por ejemplo cuando se entrega desde una caché en lugar de analizar la
+     * descripción otra vez. Los resultados de otros vocabularios se ignoran.
+     *
+     * @param resultado resultado de un análisis anterior
+     */
+    void contarCoincidencias(ResultadoAnalisis resultado) {
+        if (resultado.getVocabulario() != vocabulario) return;
+
+        int[] asignaciones = resultado.getAsignaciones();
+        contadores.sumar(asignaciones, resultado.getVeces(), asignaciones.length);
+    }
+
+    /**
+     * Indica si las palabras se reducen a su raíz antes de clasificarlas.
+     *
+     * @return {@code true} si se aplica stemming
+     */
+    public boolean isStemming() {
+        return stemmer != null;
     }
 
     /**
@@ -46,30 +311,55 @@ public class AnalisisBow {
      *     <li>Compactación de espacios</li>
      * </ul>
      *
+     * <p>Todo se resuelve en una sola pasada con {@link Tokenizador}.</p>
+     *
      * @param texto texto original
      * @return texto normalizado o cadena vacía si el texto es {@code null}
      */
     public String normalizar(String texto) {
-        if (texto == null) return "";
-
-        String s = texto.toLowerCase();
-        s = Normalizer.normalize(s, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "");
-        s = s.replaceAll("[^a-z0-9\\s]", " ");
-        s = s.replaceAll("\\s+", " ").trim();
-
-        return s;
+        return Tokenizador.normalizar(texto);
     }
 
     /**
-     * Divide el texto en tokens separados por espacios.
+     * Divide el texto en tokens separados por espacios. Conserva el
+     * comportamiento de {@code texto.split("\\s+")}: un espacio inicial
+     * produce un primer token vacío y los espacios finales se descartan.
      *
      * @param texto texto a tokenizar
      * @return arreglo de tokens o arreglo vacío si el texto es nulo o vacío
      */
     public String[] tokenizar(String texto) {
         if (texto == null || texto.isEmpty()) return new String[0];
-        return texto.split("\\s+");
+
+        List<String> tokens = new ArrayList<>();
+        int n = texto.length();
+        int inicio = 0;
+        int i = 0;
+        while (i < n) {
+            if (esEspacio(texto.charAt(i))) {
+                int fin = i;
+                while (i < n && esEspacio(texto.charAt(i))) i++;
+                tokens.add(texto.substring(inicio, fin));
+                inicio = i;
+            } else {
+                i++;
+            }
+        }
+        if (inicio < n) {
+            tokens.add(texto.substring(inicio));
+        }
+
+        int tamano = tokens.size();
+        while (tamano > 0 && tokens.get(tamano - 1).isEmpty()) tamano--;
+        return tokens.subList(0, tamano).toArray(new String[0]);
+    }
+
+    /**
+     * Indica si un carácter pertenece a la clase {@code \s} de las
+     * expresiones regulares de Java.
+     */
+    private static boolean esEspacio(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     /**
@@ -83,13 +373,31 @@ public class AnalisisBow {
         if (tokens == null) return resultado;
 
         for (String t : tokens) {
-            if (!Stopwords.esStopword(t)) {
+            if (!stopwords.contiene(t)) {
                 resultado.add(t);
             }
         }
         return resultado;
     }
 
+    /**
+     * Reduce cada token a su raíz, si esta instancia aplica stemming. Es la
+     * etapa que sigue a {@link #quitarStopwords(String[])}; el mapa de
+     * frecuencias conserva las palabras tal como aparecen.
+     *
+     * @param tokens tokens normalizados
+     * @return lista de raíces, o de los mismos tokens si no se aplica stemming
+     */
+    public List<String> reducirRaices(List<String> tokens) {
+        List<String> resultado = new ArrayList<>();
+        if (tokens == null) return resultado;
+
+        for (String t : tokens) {
+            resultado.add(stemmer != null ? stemmer.raiz(t) : t);
+        }
+        return resultado;
+    }
+
     /**
      * Construye un mapa de frecuencias (TF) a partir de un texto.
      *
@@ -98,18 +406,13 @@ public class AnalisisBow {
      */
     public Map<String, Integer> vectorizarTFMap(String texto) {
         Map<String, Integer> tf = new HashMap<>();
+        if (texto == null) return tf;
 
-        String normal = normalizar(texto);
-        String[] tokens = tokenizar(normal);
-        List<String> filtrados = quitarStopwords(tokens);
-
-        for (String palabra : filtrados) {
-            if (tf.containsKey(palabra)) {
-                tf.put(palabra, tf.get(palabra) + 1);
-            } else {
-                tf.put(palabra, 1);
+        Tokenizador.delHilo().recorrer(texto, (buffer, longitud) -> {
+            if (!stopwords.contiene(buffer, longitud)) {
+                tf.merge(new String(buffer, 0, longitud), 1, Integer::sum);
             }
-        }
+        });
 
         return tf;
     }
@@ -132,22 +435,111 @@ public class AnalisisBow {
     }
 
     /**
-     * Busca la categoría asociada a un término dentro de un diccionario.
+     * Analiza una descripción en una sola pasada: la normaliza y tokeniza
+     * una vez, cuenta la frecuencia de cada término y, en el mismo
+     * recorrido, avanza el autómata de patrones para encontrar las palabras
+     * y frases de todos los diccionarios.
+     *
+     * <p>Cuando dos coincidencias de un mismo tipo de diccionario se
+     * traslapan gana la que empieza primero y, si empiezan en el mismo token,
+     * la más larga. Por ejemplo, con los patrones {@code "pantalla"} y
+     * {@code "pantalla azul"} el texto "pantalla azul" cuenta solo la frase.
+     * Cada tipo se resuelve por separado, así que una frase técnica no impide
+     * que una de sus palabras cuente como emoción.</p>
+     *
+     * <p>Las frecuencias y los puntajes se acumulan en arreglos de enteros
+     * sobre un espacio de trabajo reutilizable por hilo, por lo que el
+     * análisis no crea objetos envueltos; solo reserva los arreglos que
+     * guarda el resultado. Las coincidencias se resuelven a medida que
+     * avanzan los tokens, recordando solo las últimas posiciones que puede
+     * abarcar el patrón más largo, así que la memoria depende del
+     * vocabulario y no del largo del texto.</p>
+     *
+     * @param descripcion texto a analizar
+     * @return resultado con estado de ánimo, categoría, puntajes, TF y
+     *         términos detectados
+     */
+    public ResultadoAnalisis analizar(String descripcion) {
+        EspacioAnalisis espacio = ESPACIO.get();
+        espacio.iniciar(this, Integer.MAX_VALUE);
+        if (descripcion != null && !descripcion.isBlank()) {
+            Tokenizador.delHilo().recorrer(descripcion, espacio);
+        }
+        return espacio.resultado();
+    }
+
+    /**
+     * Analiza un texto por tramos y se detiene al alcanzar una cantidad
+     * máxima de tokens, contando también las stopwords. Acepta cualquier
+     * {@link CharSequence}, como un {@link StringBuilder}, sin copiarlo a un
+     * {@code String}.
+     *
+     * @param texto        texto a analizar
+     * @param maximoTokens cantidad máxima de tokens a procesar, al menos 1
+     * @return resultado del análisis; {@link ResultadoAnalisis#isTruncado()}
+     *         indica si quedó texto sin analizar
+     * @throws IllegalArgumentException si {@code maximoTokens} es menor que 1
+     */
+    public ResultadoAnalisis analizar(CharSequence texto, int maximoTokens) {
+        EspacioAnalisis espacio = iniciarEspacio(maximoTokens);
+        if (texto != null) {
+            Tokenizador tokenizador = Tokenizador.delHilo();
+            int n = texto.length();
+            for (int desde = 0; desde < n; desde += TAMANO_TRAMO) {
+                if (espacio.completo()) {
+                    espacio.truncar();
+                    break;
+                }
+                tokenizador.procesar(texto, desde, Math.min(n, desde + TAMANO_TRAMO), espacio);
+            }
+            tokenizador.terminar(espacio);
+        }
+        return espacio.resultado();
+    }
+
+    /**
+     * Analiza el texto de un {@link Reader} sin cargarlo completo en
+     * memoria, por ejemplo un registro pegado de varios MB. Equivale a
+     * {@link #analizar(Reader, int)} sin límite de tokens.
      *
-     * @param diccionario diccionario a consultar
-     * @param termino     término normalizado a buscar
-     * @return categoría asociada o {@code null} si no hay coincidencias
+     * @param lector fuente del texto; no se cierra
+     * @return resultado del análisis
+     * @throws IOException si ocurre un error al leer
      */
-    private String buscarEnDiccionario(Diccionario diccionario, String termino) {
-        if (diccionario == null || diccionario.getPalabras() == null) return null;
+    public ResultadoAnalisis analizar(Reader lector) throws IOException {
+        return analizar(lector, Integer.MAX_VALUE);
+    }
 
-        for (Palabra p : diccionario.getPalabras()) {
-            if (p.getTexto() != null &&
-                    p.getTexto().equalsIgnoreCase(termino)) {
-                return p.getCategoria();
+    /**
+     * Analiza el texto de un {@link Reader} por tramos de
+     * {@value #TAMANO_TRAMO} caracteres. Los tokens partidos entre dos
+     * tramos se unen y las frecuencias y puntajes se actualizan a medida que
+     * se lee, de modo que la memoria usada depende del vocabulario y no del
+     * tamaño del texto. Deja de leer al alcanzar la cantidad máxima de
+     * tokens, contando también las stopwords.
+     *
+     * @param lector       fuente del texto; no se cierra
+     * @param maximoTokens cantidad máxima de tokens a procesar, al menos 1
+     * @return resultado del análisis; {@link ResultadoAnalisis#isTruncado()}
+     *         indica si quedó texto sin leer
+     * @throws IOException              si ocurre un error al leer
+     * @throws IllegalArgumentException si {@code maximoTokens} es menor que 1
+     */
+    public ResultadoAnalisis analizar(Reader lector, int maximoTokens) throws IOException {
+        EspacioAnalisis espacio = iniciarEspacio(maximoTokens);
+        if (lector != null) {
+            Tokenizador tokenizador = Tokenizador.delHilo();
+            int leidos;
+            while ((leidos = lector.read(espacio.tramo, 0, TAMANO_TRAMO)) != -1) {
+                if (espacio.completo()) {
+                    espacio.truncar();
+                    break;
+                }
+                tokenizador.procesar(espacio.vistaTramo, 0, leidos, espacio);
             }
+            tokenizador.terminar(espacio);
         }
-        return null;
+        return espacio.resultado();
     }
 
     /**
@@ -158,79 +550,425 @@ public class AnalisisBow {
      * @return emoción predominante o {@code "Neutralidad"} si no hay coincidencias
      */
     public String detectarEstadoAnimo(String descripcion) {
-        if (descripcion == null || descripcion.isBlank() || emocional == null) {
-            return "Neutralidad";
+        return analizar(descripcion).getEstadoAnimo();
+    }
+
+    /**
+     * Sugiere la categoría técnica predominante en una descripción utilizando
+     * el diccionario técnico.
+     *
+     * @param descripcion texto a analizar
+     * @return categoría técnica sugerida o {@code "General"} si no hay coincidencias
+     */
+    public String sugerirCategoriaTecnica(String descripcion) {
+        return analizar(descripcion).getCategoriaTecnica();
+    }
+
+    /**
+     * Sugiere la categoría predominante de un tipo de diccionario en una
+     * descripción.
+     *
+     * @param tipo        tipo de diccionario, sin importar mayúsculas
+     * @param descripcion texto a analizar
+     * @return categoría predominante o {@code null} si no hay coincidencias
+     *         o no existe un diccionario de ese tipo
+     */
+    public String sugerirCategoria(String tipo, String descripcion) {
+        return analizar(descripcion).getPredominante(tipo);
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Presenta un diccionario con el tipo indicado, para los constructores
+     * que reciben el diccionario técnico y el emocional por posición.
+     */
+    private static Diccionario comoTipo(Diccionario diccionario, String tipo) {
+        if (diccionario == null) return null;
+
+        Diccionario copia = new Diccionario(tipo);
+        copia.setId(diccionario.getId());
+        copia.setPalabras(diccionario.getPalabras());
+        return copia;
+    }
+
+    /** Cantidad de caracteres que se procesan por tramo en el análisis por flujo. */
+    private static final int TAMANO_TRAMO = 8192;
+
+    /** Espacio de trabajo del análisis, uno por hilo. */
+    private static final ThreadLocal<EspacioAnalisis> ESPACIO = ThreadLocal.withInitial(EspacioAnalisis::new);
+
+    /**
+     * Obtiene el espacio de trabajo del hilo listo para un análisis con
+     * límite de tokens.
+     */
+    private EspacioAnalisis iniciarEspacio(int maximoTokens) {
+        if (maximoTokens < 1) {
+            throw new IllegalArgumentException("El máximo de tokens debe ser al menos 1: " + maximoTokens);
         }
+        EspacioAnalisis espacio = ESPACIO.get();
+        espacio.iniciar(this, maximoTokens);
+        return espacio;
+    }
+
+    /**
+     * Buffers reutilizables de un análisis. Recibe los tokens directamente
+     * del {@link Tokenizador} y, por cada uno, cuenta su frecuencia si no es
+     * stopword y avanza el autómata de patrones, registrando para cada
+     * posición de inicio la coincidencia más larga de cada dimensión.
+     *
+     * <p>Una posición de inicio queda resuelta cuando ya pasaron tantos
+     * tokens como tiene el patrón más largo: ninguna coincidencia posterior
+     * puede empezar ahí. En ese momento se aplica la selección de izquierda
+     * a derecha y se suman los puntajes, así que las coincidencias se
+     * guardan en arreglos circulares del tamaño de esa ventana, con una
+     * casilla por dimensión en cada posición.</p>
+     */
+    private static final class EspacioAnalisis implements Tokenizador.ReceptorTokens {
 
-        Map<String, Integer> tf = vectorizarTFMap(descripcion);
-        Map<String, Integer> puntaje = new HashMap<>();
+        /** Términos distintos de la descripción, sin stopwords, en orden de aparición. */
+        final TablaTerminos documento = new TablaTerminos(64);
 
-        for (Map.Entry<String, Integer> entry : tf.entrySet()) {
-            String palabra = entry.getKey();
-            int count = entry.getValue();
+        /** Tramo de lectura del análisis de un {@link Reader}. */
+        final char[] tramo = new char[TAMANO_TRAMO];
 
-            String emocion = buscarEnDiccionario(emocional, palabra);
-            if (emocion != null) {
-                if (puntaje.containsKey(emocion)) {
-                    puntaje.put(emocion, puntaje.get(emocion) + count);
-                } else {
-                    puntaje.put(emocion, count);
-                }
+        /** El tramo de lectura visto como {@link CharSequence}. */
+        final CharBuffer vistaTramo = CharBuffer.wrap(tramo);
+
+        /** Frecuencia de cada término, por identificador en {@link #documento}. */
+        private int[] frecuencias = new int[64];
+
+        /** Cantidad de tokens recorridos, incluidas las stopwords. */
+        private int posiciones;
+
+        /** Cantidad máxima de tokens a recorrer. */
+        private int maximoTokens;
+
+        /** Indica si quedaron tokens sin recorrer por alcanzar el máximo. */
+        private boolean truncado;
+
+        /** Primera posición de inicio que falta por resolver. */
+        private int resueltas;
+
+        /** Longitud del patrón más largo, al menos 1. */
+        private int ventana;
+
+        /** Máscara de las posiciones circulares; su cantidad es potencia de dos. */
+        private int mascara;
+
+        /** Cantidad de dimensiones del vocabulario. */
+        private int dimensiones;
+
+        /**
+         * Longitud de la coincidencia más larga, por posición de inicio
+         * (circular) y dimensión, en {@code casilla * dimensiones + dimensión}.
+         */
+        private int[] largos = new int[32];
+
+        /** Patrón de la coincidencia más larga, con la misma disposición que {@link #largos}. */
+        private int[] patronesMejores = new int[32];
+
+        /** Asignación de la coincidencia más larga, con la misma disposición que {@link #largos}. */
+        private int[] asignacionesMejores = new int[32];
+
+        /**
+         * Indica si la coincidencia más larga incluye una palabra corregida,
+         * con la misma disposición que {@link #largos}.
+         */
+        private boolean[] difusosMejores = new boolean[32];
+
+        /** Indica si el token de cada posición (circular) se corrigió. */
+        private boolean[] corregidos = new boolean[16];
+
+        /** Primera posición donde puede empezar la siguiente coincidencia, por dimensión. */
+        private int[] libres = new int[2];
+
+        /** Puntaje por identificador global de categoría; pasa al resultado. */
+        private int[] puntajes;
+
+        /** Pesos TF-IDF de los patrones, o {@code null} sin ponderación. */
+        private double[] pesos;
+
+        /** Puntaje ponderado por identificador global de categoría; pasa al resultado. */
+        private double[] ponderados;
+
+        /** Índice de corrección del análisis en curso, o {@code null}. */
+        private IndiceDifuso indiceDifuso;
+
+        /** Peso de una coincidencia con una palabra corregida. */
+        private double pesoDifuso;
+
+        /** Buffer para los patrones detectados. */
+        private int[] detectados = new int[16];
+
+        /** Cantidad de patrones detectados. */
+        private int cantidadDetectados;
+
+        /** Asignaciones distintas que sumaron al puntaje, en orden de aparición. */
+        private int[] asignaciones = new int[16];
+
+        /** Cantidad de asignaciones distintas que sumaron al puntaje. */
+        private int cantidadAsignaciones;
+
+        /** Contadores de coincidencias del análisis en curso. */
+        private ContadoresCoincidencias contadores;
+
+        /** Análisis en el que se detectó cada patrón por última vez. */
+        private int[] marcas = new int[64];
+
+        /** Análisis en el que sumó cada asignación por última vez. */
+        private int[] marcasAsignacion = new int[64];
+
+        /** Coincidencias de cada asignación en el análisis en curso. */
+        private int[] vecesAsignacion = new int[64];
+
+        /**
+         * Número del análisis en curso, para no limpiar {@link #marcas} ni
+         * {@link #marcasAsignacion}.
+         */
+        private int generacion;
+
+        /** Stopwords del análisis en curso. */
+        private ConjuntoStopwords stopwords;
+
+        /** Vocabulario del análisis en curso. */
+        private Vocabulario vocabulario;
+
+        /** Estado del autómata. */
+        private int estado;
+
+        void iniciar(AnalisisBow analizador, int maximoTokens) {
+            this.stopwords = analizador.stopwords;
+            this.vocabulario = analizador.vocabulario;
+            this.pesos = analizador.pesos;
+            this.indiceDifuso = analizador.indiceDifuso;
+            this.pesoDifuso = analizador.pesoDifuso;
+            this.contadores = analizador.contadores;
+            this.maximoTokens = maximoTokens;
+            documento.limpiar();
+            posiciones = 0;
+            resueltas = 0;
+            truncado = false;
+            cantidadDetectados = 0;
+            cantidadAsignaciones = 0;
+            estado = AutomataFrases.RAIZ;
+            puntajes = new int[vocabulario.cantidadCategorias()];
+            ponderados = pesos == null && indiceDifuso == null ? null : new double[vocabulario.cantidadCategorias()];
+
+            dimensiones = vocabulario.cantidadDimensiones();
+            if (libres.length < dimensiones) {
+                libres = new int[dimensiones];
+            }
+            Arrays.fill(libres, 0, dimensiones, 0);
+
+            ventana = Math.max(1, vocabulario.getAutomata().longitudMaxima());
+            int casillas = 16;
+            while (casillas < ventana) {
+                casillas <<= 1;
+            }
+            mascara = casillas - 1;
+            if (largos.length < casillas * dimensiones) {
+                largos = new int[casillas * dimensiones];
+                patronesMejores = new int[casillas * dimensiones];
+                asignacionesMejores = new int[casillas * dimensiones];
+                difusosMejores = new boolean[casillas * dimensiones];
+            }
+            if (corregidos.length < casillas) {
+                corregidos = new boolean[casillas];
+            }
+
+            if (marcas.length < vocabulario.cantidadPatrones()) {
+                marcas = new int[vocabulario.cantidadPatrones()];
+            }
+            if (marcasAsignacion.length < vocabulario.cantidadAsignaciones()) {
+                marcasAsignacion = new int[vocabulario.cantidadAsignaciones()];
+                vecesAsignacion = new int[vocabulario.cantidadAsignaciones()];
+            }
+            if (++generacion == 0) {
+                Arrays.fill(marcas, 0);
+                Arrays.fill(marcasAsignacion, 0);
+                generacion = 1;
+            }
+        }
+
+        /**
+         * Indica si ya se recorrió la cantidad máxima de tokens.
+         */
+        boolean completo() {
+            return posiciones >= maximoTokens;
+        }
+
+        /**
+         * Registra que quedó texto sin analizar.
+         */
+        void truncar() {
+            truncado = true;
+        }
+
+        /**
+         * Resuelve las posiciones pendientes, suma las coincidencias a los
+         * contadores del analizador y arma el resultado.
+         */
+        ResultadoAnalisis resultado() {
+            resolverHasta(posiciones - 1);
+            int[] veces = new int[cantidadAsignaciones];
+            for (int i = 0; i < cantidadAsignaciones; i++) {
+                veces[i] = vecesAsignacion[asignaciones[i]];
             }
+            contadores.sumar(asignaciones, veces, cantidadAsignaciones);
+            return new ResultadoAnalisis(
+                    vocabulario,
+                    puntajes,
+                    ponderados,
+                    pesos != null,
+                    documento.copiarCaracteres(),
+                    documento.copiarFines(),
+                    Arrays.copyOf(frecuencias, documento.tamano()),
+                    Arrays.copyOf(detectados, cantidadDetectados),
+                    Arrays.copyOf(asignaciones, cantidadAsignaciones),
+                    veces,
+                    truncado
+            );
         }
 
-        String mejorEmocion = "Neutralidad";
-        int mejorPuntaje = 0;
+        @Override
+        public void token(char[] buffer, int longitud) {
+            if (posiciones >= maximoTokens) {
+                truncado = true;
+                return;
+            }
+
+            int pos = posiciones++;
+            int base = (pos & mascara) * dimensiones;
+            Arrays.fill(largos, base, base + dimensiones, 0);
+
+            boolean stopword = stopwords.contiene(buffer, longitud);
+            int token = vocabulario.idToken(buffer, longitud);
+            boolean corregido = false;
+            if (token == AutomataFrases.NINGUNO && indiceDifuso != null && !stopword) {
+                token = indiceDifuso.corregir(buffer, longitud);
+                corregido = token != AutomataFrases.NINGUNO;
+            }
+            corregidos[pos & mascara] = corregido;
+
+            AutomataFrases automata = vocabulario.getAutomata();
+            estado = automata.avanzar(estado, token);
+            for (int nodo = automata.primeraSalida(estado);
+                 nodo != AutomataFrases.NINGUNO;
+                 nodo = automata.siguienteSalida(nodo)) {
+                // Una stopword solo cuenta dentro de una frase: con stemming su
+                // raíz podría coincidir con la de una palabra del diccionario.
+                if (stopword && automata.longitud(nodo) == 1) continue;
+                registrar(automata.patron(nodo), automata.longitud(nodo), pos);
+            }
+            resolverHasta(pos - ventana + 1);
+
+            if (stopword) return;
 
-        for (Map.Entry<String, Integer> e : puntaje.entrySet()) {
-            if (e.getValue() > mejorPuntaje) {
-                mejorPuntaje = e.getValue();
-                mejorEmocion = e.getKey();
+            int antes = documento.tamano();
+            int id = documento.agregar(buffer, 0, longitud);
+            if (id == antes) {
+                if (id == frecuencias.length) {
+                    frecuencias = Arrays.copyOf(frecuencias, id * 2);
+                }
+                frecuencias[id] = 1;
+            } else {
+                frecuencias[id]++;
             }
         }
 
-        return mejorEmocion;
-    }
+        /**
+         * Registra una coincidencia que termina en la posición indicada en
+         * cada dimensión donde el patrón tiene categoría.
+         */
+        private void registrar(int patron, int largo, int fin) {
+            int base = ((fin - largo + 1) & mascara) * dimensiones;
+            boolean difuso = false;
+            if (indiceDifuso != null) {
+                for (int p = fin - largo + 1; p <= fin && !difuso; p++) {
+                    difuso = corregidos[p & mascara];
+                }
+            }
+            for (int a = vocabulario.inicioAsignaciones(patron); a < vocabulario.finAsignaciones(patron); a++) {
+                int i = base + vocabulario.dimension(a);
+                if (largo > largos[i]) {
+                    largos[i] = largo;
+                    patronesMejores[i] = patron;
+                    asignacionesMejores[i] = a;
+                    difusosMejores[i] = difuso;
+                }
+            }
+        }
 
-    /**
-     * Sugiere la categoría técnica predominante en una descripción utilizando
-     * el diccionario técnico.
-     *
-     * @param descripcion texto a analizar
-     * @return categoría técnica sugerida o {@code "General"} si no hay coincidencias
-     */
-    public String sugerirCategoriaTecnica(String descripcion) {
-        if (descripcion == null || descripcion.isBlank() || tecnico == null) {
-            return "General";
+        /**
+         * Resuelve en orden las posiciones de inicio hasta la indicada.
+         */
+        private void resolverHasta(int hasta) {
+            while (resueltas <= hasta) {
+                resolver(resueltas++);
+            }
         }
 
-        Map<String, Integer> tf = vectorizarTFMap(descripcion);
-        Map<String, Integer> puntaje = new HashMap<>();
+        /**
+         * Selección de izquierda a derecha, por dimensión: si la posición está
+         * libre se toma la coincidencia más larga que empieza ahí.
+         */
+        private void resolver(int pos) {
+            int base = (pos & mascara) * dimensiones;
+            for (int d = 0; d < dimensiones; d++) {
+                int i = base + d;
+                if (pos < libres[d] || largos[i] == 0) continue;
+
+                int patron = patronesMejores[i];
+                int asignacion = asignacionesMejores[i];
+                int categoria = vocabulario.categoria(asignacion);
+                puntajes[categoria]++;
+                if (ponderados != null) {
+                    double peso = pesos != null ? pesos[patron] : 1.0;
+                    ponderados[categoria] += difusosMejores[i] ? peso * pesoDifuso : peso;
+                }
+                libres[d] = pos + largos[i];
 
-        for (Map.Entry<String, Integer> entry : tf.entrySet()) {
-            String palabra = entry.getKey();
-            int count = entry.getValue();
+                contar(asignacion);
 
-            String categoria = buscarEnDiccionario(tecnico, palabra);
-            if (categoria != null) {
-                if (puntaje.containsKey(categoria)) {
-                    puntaje.put(categoria, puntaje.get(categoria) + count);
-                } else {
-                    puntaje.put(categoria, count);
+                if (marcar(patron)) {
+                    detectar(patron);
                 }
             }
         }
 
-        String mejorCategoria = "General";
-        int mejorPuntaje = 0;
+        /**
+         * Marca un patrón como detectado en el análisis en curso.
+         *
+         * @return {@code true} si es la primera vez que se detecta
+         */
+        private boolean marcar(int patron) {
+            if (marcas[patron] == generacion) return false;
+            marcas[patron] = generacion;
+            return true;
+        }
 
-        for (Map.Entry<String, Integer> e : puntaje.entrySet()) {
-            if (e.getValue() > mejorPuntaje) {
-                mejorPuntaje = e.getValue();
-                mejorCategoria = e.getKey();
+        /**
+         * Suma una coincidencia a una asignación del análisis en curso.
+         */
+        private void contar(int asignacion) {
+            if (marcasAsignacion[asignacion] == generacion) {
+                vecesAsignacion[asignacion]++;
+                return;
+            }
+            marcasAsignacion[asignacion] = generacion;
+            vecesAsignacion[asignacion] = 1;
+            if (cantidadAsignaciones == asignaciones.length) {
+                asignaciones = Arrays.copyOf(asignaciones, cantidadAsignaciones * 2);
             }
+            asignaciones[cantidadAsignaciones++] = asignacion;
         }
 
-        return mejorCategoria;
+        private void detectar(int patron) {
+            if (cantidadDetectados == detectados.length) {
+                detectados = Arrays.copyOf(detectados, cantidadDetectados * 2);
+            }
+            detectados[cantidadDetectados++] = patron;
+        }
     }
 }
@@ -0,0 +1,96 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarea fork/join que analiza un rango de descripciones con un mismo
+ * {@link AnalisisBow}. Divide el rango a la mitad hasta que queda por
+ * debajo del umbral y escribe cada resultado en la misma posición de su
+ * descripción, de modo que el orden de entrada se conserva sin ordenar
+ * nada al final.
+ */
+final class AnalisisLote extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Analizador compartido por todas las subtareas. */
+    private final AnalisisBow analizador;
+
+    /** Descripciones a analizar. */
+    private final String[] descripciones;
+
+    /** Resultados, en la misma posición que su descripción. */
+    private final ResultadoAnalisis[] resultados;
+
+    /** Primera posición del rango. */
+    private final int desde;
+
+    /** Posición siguiente a la última del rango. */
+    private final int hasta;
+
+    /** Tamaño máximo de un rango que se analiza sin dividir. */
+    private final int umbral;
+
+    /**
+     * Crea la tarea para todo el lote.
+     *
+     * @param analizador    analizador compartido
+     * @param descripciones descripciones a analizar
+     * @param resultados    arreglo del mismo tamaño donde se guardan los resultados
+     * @param paralelismo   cantidad de hilos que procesarán el lote
+     */
+    AnalisisLote(AnalisisBow analizador,
+                 String[] descripciones,
+                 ResultadoAnalisis[] resultados,
+                 int paralelismo) {
+        // Unas cuatro tareas por hilo reparten bien la carga cuando las
+        // descripciones tienen largos muy distintos.
+        this(analizador, descripciones, resultados, 0, descripciones.length,
+                Math.max(16, descripciones.length / (paralelismo * 4)));
+    }
+
+    private AnalisisLote(AnalisisBow analizador,
+                         String[] descripciones,
+                         ResultadoAnalisis[] resultados,
+                         int desde,
+                         int hasta,
+                         int umbral) {
+        this.analizador = analizador;
+        this.descripciones = descripciones;
+        this.resultados = resultados;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.umbral = umbral;
+    }
+
+    @Override
+    protected void compute() {
+        if (hasta - desde <= umbral) {
+            analizarRango(analizador, descripciones, resultados, desde, hasta);
+            return;
+        }
+
+        int medio = (desde + hasta) >>> 1;
+        invokeAll(new AnalisisLote(analizador, descripciones, resultados, desde, medio, umbral),
+                  new AnalisisLote(analizador, descripciones, resultados, medio, hasta, umbral));
+    }
+
+    /**
+     * Analiza un rango de descripciones en el hilo actual.
+     *
+     * @param analizador    analizador a usar
+     * @param descripciones descripciones a analizar
+     * @param resultados    arreglo donde se guardan los resultados
+     * @param desde         primera posición del rango
+     * @param hasta         posición siguiente a la última del rango
+     */
+    static void analizarRango(AnalisisBow analizador,
+                              String[] descripciones,
+                              ResultadoAnalisis[] resultados,
+                              int desde,
+                              int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            resultados[i] = analizador.analizar(descripciones[i]);
+        }
+    }
+}
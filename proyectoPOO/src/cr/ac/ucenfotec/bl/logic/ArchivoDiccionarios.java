@@ -0,0 +1,158 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archivo binario con los diccionarios compilados de una instantánea de
+ * análisis, para arrancar sin cargar las palabras desde la base de datos.
+ *
+ * <p>El archivo es una cabecera seguida del contenido de cada
+ * {@link DiccionarioCompacto} tal como lo entrega
+ * {@link DiccionarioCompacto#aBytes()}. Al leerlo se mapea en memoria con
+ * {@link FileChannel#map} y cada diccionario trabaja directamente sobre su
+ * parte del mapa, sin copiarla; el sistema operativo carga las páginas a
+ * medida que se usan.</p>
+ *
+ * <pre>
+ *   int  MAGIA
+ *   byte VERSION
+ *   long huella de los diccionarios
+ *   int  cantidad de diccionarios
+ *   por diccionario: int largo, bytes del diccionario
+ * </pre>
+ *
+ * <p>El archivo se escribe primero con otro nombre y luego se mueve sobre
+ * el anterior, así que un lector nunca ve un archivo a medio escribir.</p>
+ */
+final class ArchivoDiccionarios {
+
+    /** Identificador del formato: los bytes {@code "HDDC"}. */
+    private static final int MAGIA = 0x48444443;
+
+    /** Versión del formato del archivo. */
+    private static final byte VERSION = 1;
+
+    /** Tamaño de la cabecera en bytes. */
+    private static final int CABECERA = 4 + 1 + 8 + 4;
+
+    private ArchivoDiccionarios() {
+    }
+
+    /**
+     * Escribe los diccionarios en un archivo, reemplazando el anterior.
+     *
+     * @param archivo      ruta del archivo
+     * @param diccionarios diccionarios compilados
+     * @throws IOException si ocurre un error al escribir
+     */
+    static void guardar(Path archivo, List<DiccionarioCompacto> diccionarios) throws IOException {
+        List<byte[]> contenidos = new ArrayList<>(diccionarios.size());
+        int tamano = CABECERA;
+        for (DiccionarioCompacto d : diccionarios) {
+            byte[] bytes = d.aBytes();
+            contenidos.add(bytes);
+            tamano += 4 + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(tamano);
+        buffer.putInt(MAGIA);
+        buffer.put(VERSION);
+        buffer.putLong(InstantaneaAnalisis.huella(diccionarios));
+        buffer.putInt(contenidos.size());
+        for (byte[] bytes : contenidos) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.flip();
+
+        Path absoluto = archivo.toAbsolutePath();
+        Path temporal = Files.createTempFile(absoluto.getParent(), absoluto.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(true);
+            }
+            try {
+                Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Mapea un archivo en memoria y abre sus diccionarios. El mapa sigue
+     * siendo válido después de cerrar el canal y aunque el archivo se
+     * reemplace.
+     *
+     * @param archivo ruta del archivo
+     * @return diccionarios del archivo, en el orden en que se guardaron
+     * @throws IOException              si ocurre un error al leer
+     * @throws IllegalArgumentException si el archivo no tiene el formato
+     *                                  esperado o su huella no coincide
+     */
+    static List<DiccionarioCompacto> leer(Path archivo) throws IOException {
+        MappedByteBuffer mapa;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+
+        if (mapa.limit() < CABECERA || mapa.getInt(0) != MAGIA) {
+            throw new IllegalArgumentException("El archivo no contiene diccionarios compilados: " + archivo);
+        }
+        if (mapa.get(4) != VERSION) {
+            throw new IllegalArgumentException("Versión de archivo de diccionarios no soportada: " + mapa.get(4));
+        }
+        long huella = mapa.getLong(5);
+        int cantidad = mapa.getInt(13);
+
+        if (cantidad < 0 || cantidad > (mapa.limit() - CABECERA) / 4) {
+            throw new IllegalArgumentException("Archivo de diccionarios incompleto: " + archivo);
+        }
+
+        // Se verifica la huella sobre el contenido sin abrir, igual que
+        // InstantaneaAnalisis.huella, antes de interpretar ningún diccionario.
+        List<ByteBuffer> partes = new ArrayList<>(cantidad);
+        long calculada = cantidad;
+        int posicion = CABECERA;
+        for (int i = 0; i < cantidad; i++) {
+            if (posicion > mapa.limit() - 4) {
+                throw new IllegalArgumentException("Archivo de diccionarios incompleto: " + archivo);
+            }
+            int largo = mapa.getInt(posicion);
+            posicion += 4;
+            if (largo < 0 || largo > mapa.limit() - posicion) {
+                throw new IllegalArgumentException("Archivo de diccionarios incompleto: " + archivo);
+            }
+            ByteBuffer parte = mapa.duplicate();
+            parte.position(posicion).limit(posicion + largo);
+            parte = parte.slice();
+            calculada = calculada * 31 + DiccionarioCompacto.huella(parte);
+            partes.add(parte);
+            posicion += largo;
+        }
+        if (calculada != huella) {
+            throw new IllegalArgumentException("Archivo de diccionarios dañado: " + archivo);
+        }
+
+        List<DiccionarioCompacto> diccionarios = new ArrayList<>(cantidad);
+        for (ByteBuffer parte : partes) {
+            diccionarios.add(DiccionarioCompacto.desdeBuffer(parte));
+        }
+        return diccionarios;
+    }
+}
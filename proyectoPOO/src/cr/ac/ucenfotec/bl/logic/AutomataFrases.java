@@ -0,0 +1,284 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.Arrays;
+
+/**
+ * Autómata de Aho-Corasick sobre secuencias de tokens.
+ *
+ * <p>Cada patrón es una secuencia de identificadores de token (una palabra
+ * o una frase de varias palabras). Al recorrer los tokens de un texto, el
+ * autómata avanza un estado por token e informa todos los patrones que
+ * terminan en esa posición, de modo que palabras y frases se encuentran en
+ * una sola pasada lineal.</p>
+ *
+ * <p>Las transiciones se guardan en una tabla hash de direccionamiento
+ * abierto indexada por (nodo, token), porque el alfabeto es el vocabulario
+ * completo y una tabla densa por nodo sería demasiado grande.</p>
+ *
+ * <p>Se construye con {@link #agregar} y {@link #construir}; después no
+ * cambia y puede compartirse entre hilos.</p>
+ */
+final class AutomataFrases {
+
+    /** Estado inicial del autómata. */
+    static final int RAIZ = 0;
+
+    /** Valor que indica ausencia de patrón o de nodo. */
+    static final int NINGUNO = -1;
+
+    /** Cantidad de nodos. */
+    private int nodos = 1;
+
+    /** Nodo al que se retrocede cuando no hay transición, por nodo. */
+    private int[] fallo = new int[16];
+
+    /** Patrón que termina exactamente en el nodo, o {@link #NINGUNO}. */
+    private int[] salida = new int[16];
+
+    /** Siguiente nodo en la cadena de fallos que tiene salida, o {@link #NINGUNO}. */
+    private int[] siguienteSalida = new int[16];
+
+    /** Cantidad de tokens desde la raíz hasta el nodo. */
+    private int[] profundidad = new int[16];
+
+    /** Primer hijo de cada nodo; solo se usa durante la construcción. */
+    private int[] primerHijo = new int[16];
+
+    /** Siguiente hermano de cada nodo; solo se usa durante la construcción. */
+    private int[] hermano = new int[16];
+
+    /** Token de la transición que llega a cada nodo; solo se usa durante la construcción. */
+    private int[] tokenEntrada = new int[16];
+
+    /** Llaves de las transiciones: (nodo &lt;&lt; 32 | token) + 1, o 0 si la casilla está libre. */
+    private long[] claves = new long[32];
+
+    /** Nodo destino de cada transición. */
+    private int[] destinos = new int[32];
+
+    /** Cantidad de transiciones. */
+    private int transiciones;
+
+    /** Longitud en tokens del patrón más largo. */
+    private int longitudMaxima;
+
+    /**
+     * Transiciones desde la raíz por identificador de token. La mayoría de
+     * los pasos parten de la raíz, así que se resuelven sin la tabla hash.
+     */
+    private int[] hijosRaiz = new int[0];
+
+    AutomataFrases() {
+        salida[RAIZ] = NINGUNO;
+        siguienteSalida[RAIZ] = NINGUNO;
+        primerHijo[RAIZ] = NINGUNO;
+        hermano[RAIZ] = NINGUNO;
+    }
+
+    /**
+     * Agrega un patrón.
+     *
+     * @param tokens identificadores de los tokens del patrón, no vacío
+     * @param patron identificador del patrón
+     */
+    void agregar(int[] tokens, int patron) {
+        int nodo = RAIZ;
+        for (int token : tokens) {
+            int hijo = hijo(nodo, token);
+            if (hijo == NINGUNO) {
+                hijo = nuevoNodo(nodo, token);
+                enlazar(nodo, token, hijo);
+            }
+            nodo = hijo;
+        }
+        if (salida[nodo] == NINGUNO) {
+            salida[nodo] = patron;
+        }
+    }
+
+    /**
+     * Calcula los enlaces de fallo recorriendo el trie por niveles. Debe
+     * llamarse una vez, después de agregar todos los patrones.
+     */
+    void construir() {
+        int[] cola = new int[nodos];
+        int inicio = 0;
+        int fin = 0;
+
+        for (int h = primerHijo[RAIZ]; h != NINGUNO; h = hermano[h]) {
+            fallo[h] = RAIZ;
+            siguienteSalida[h] = NINGUNO;
+            cola[fin++] = h;
+        }
+
+        while (inicio < fin) {
+            int nodo = cola[inicio++];
+            for (int h = primerHijo[nodo]; h != NINGUNO; h = hermano[h]) {
+                int token = tokenEntrada[h];
+                int f = fallo[nodo];
+                int destino;
+                while ((destino = hijo(f, token)) == NINGUNO && f != RAIZ) {
+                    f = fallo[f];
+                }
+                fallo[h] = destino == NINGUNO ? RAIZ : destino;
+                siguienteSalida[h] = salida[fallo[h]] != NINGUNO ? fallo[h] : siguienteSalida[fallo[h]];
+                cola[fin++] = h;
+            }
+        }
+
+        int maximoToken = -1;
+        for (int h = primerHijo[RAIZ]; h != NINGUNO; h = hermano[h]) {
+            maximoToken = Math.max(maximoToken, tokenEntrada[h]);
+        }
+        hijosRaiz = new int[maximoToken + 1];
+        Arrays.fill(hijosRaiz, NINGUNO);
+        for (int h = primerHijo[RAIZ]; h != NINGUNO; h = hermano[h]) {
+            hijosRaiz[tokenEntrada[h]] = h;
+        }
+
+        primerHijo = null;
+        hermano = null;
+        tokenEntrada = null;
+    }
+
+    /**
+     * Avanza el autómata con un token.
+     *
+     * @param estado estado actual
+     * @param token  identificador del token, o {@link #NINGUNO} si el token
+     *               no pertenece a ningún patrón
+     * @return nuevo estado
+     */
+    int avanzar(int estado, int token) {
+        if (token == NINGUNO) return RAIZ;
+        while (estado != RAIZ) {
+            int destino = hijo(estado, token);
+            if (destino != NINGUNO) return destino;
+            estado = fallo[estado];
+        }
+        if (token < hijosRaiz.length && hijosRaiz[token] != NINGUNO) {
+            return hijosRaiz[token];
+        }
+        return RAIZ;
+    }
+
+    /**
+     * Obtiene el primer nodo con salida alcanzable desde un estado: el
+     * propio estado o el siguiente en su cadena de fallos.
+     *
+     * @param estado estado actual
+     * @return nodo con salida o {@link #NINGUNO}
+     */
+    int primeraSalida(int estado) {
+        return salida[estado] != NINGUNO ? estado : siguienteSalida[estado];
+    }
+
+    /**
+     * Obtiene el siguiente nodo con salida en la cadena de fallos.
+     *
+     * @param nodo nodo con salida
+     * @return siguiente nodo con salida o {@link #NINGUNO}
+     */
+    int siguienteSalida(int nodo) {
+        return siguienteSalida[nodo];
+    }
+
+    /**
+     * Obtiene el patrón que termina en un nodo.
+     *
+     * @param nodo nodo con salida
+     * @return identificador del patrón
+     */
+    int patron(int nodo) {
+        return salida[nodo];
+    }
+
+    /**
+     * Obtiene la cantidad de tokens del patrón que termina en un nodo.
+     *
+     * @param nodo nodo con salida
+     * @return longitud del patrón en tokens
+     */
+    int longitud(int nodo) {
+        return profundidad[nodo];
+    }
+
+    /**
+     * Obtiene la longitud del patrón más largo. Una coincidencia que empieza
+     * en un token termina a lo sumo esa cantidad de tokens después.
+     *
+     * @return longitud en tokens, o 0 si no hay patrones
+     */
+    int longitudMaxima() {
+        return longitudMaxima;
+    }
+
+    // ------------ INTERNOS ------------
+
+    private int nuevoNodo(int padre, int token) {
+        if (nodos == fallo.length) {
+            int nueva = nodos * 2;
+            fallo = Arrays.copyOf(fallo, nueva);
+            salida = Arrays.copyOf(salida, nueva);
+            siguienteSalida = Arrays.copyOf(siguienteSalida, nueva);
+            profundidad = Arrays.copyOf(profundidad, nueva);
+            primerHijo = Arrays.copyOf(primerHijo, nueva);
+            hermano = Arrays.copyOf(hermano, nueva);
+            tokenEntrada = Arrays.copyOf(tokenEntrada, nueva);
+        }
+        int nodo = nodos++;
+        salida[nodo] = NINGUNO;
+        siguienteSalida[nodo] = NINGUNO;
+        profundidad[nodo] = profundidad[padre] + 1;
+        longitudMaxima = Math.max(longitudMaxima, profundidad[nodo]);
+        primerHijo[nodo] = NINGUNO;
+        hermano[nodo] = primerHijo[padre];
+        tokenEntrada[nodo] = token;
+        primerHijo[padre] = nodo;
+        return nodo;
+    }
+
+    private int hijo(int nodo, int token) {
+        long clave = llave(nodo, token);
+        int mascara = claves.length - 1;
+        for (int i = mezclar(clave) & mascara; claves[i] != 0; i = (i + 1) & mascara) {
+            if (claves[i] == clave) return destinos[i];
+        }
+        return NINGUNO;
+    }
+
+    private void enlazar(int nodo, int token, int hijo) {
+        if ((transiciones + 1) * 2 > claves.length) {
+            long[] viejasClaves = claves;
+            int[] viejosDestinos = destinos;
+            claves = new long[viejasClaves.length * 2];
+            destinos = new int[viejasClaves.length * 2];
+            for (int i = 0; i < viejasClaves.length; i++) {
+                if (viejasClaves[i] != 0) {
+                    colocar(viejasClaves[i], viejosDestinos[i]);
+                }
+            }
+        }
+        colocar(llave(nodo, token), hijo);
+        transiciones++;
+    }
+
+    private void colocar(long clave, int destino) {
+        int mascara = claves.length - 1;
+        int i = mezclar(clave) & mascara;
+        while (claves[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        destinos[i] = destino;
+    }
+
+    private static long llave(int nodo, int token) {
+        return (((long) nodo << 32) | (token & 0xFFFFFFFFL)) + 1;
+    }
+
+    private static int mezclar(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,245 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada de resultados de análisis.
+ *
+ * <p>La llave es una huella de 64 bits de la secuencia de tokens
+ * normalizados de la descripción, así que dos descripciones que solo
+ * difieren en mayúsculas, tildes, signos o espacios comparten resultado.
+ * Cada entrada guarda la versión de la instantánea de diccionarios con la
+ * que se calculó; una consulta con otra versión cuenta como fallo y elimina
+ * la entrada, de modo que editar los diccionarios invalida la caché sin
+ * recorrerla.</p>
+ *
+ * <p>Las entradas se reparten en hasta {@value #FRANJAS} franjas según la
+ * huella. Cada franja es un LRU independiente protegido por su propio
+ * candado, para que los hilos que consultan llaves distintas casi nunca se
+ * bloqueen entre sí. Además del tamaño, las entradas pueden vencer por
+ * antigüedad.</p>
+ */
+final class CacheResultados {
+
+    /** Cantidad máxima de franjas; potencia de dos. */
+    private static final int FRANJAS = 16;
+
+    /** Base de la huella (FNV-1a de 64 bits). */
+    private static final long BASE_HUELLA = 0xCBF29CE484222325L;
+
+    /** Primo de la huella (FNV-1a de 64 bits). */
+    private static final long PRIMO_HUELLA = 0x100000001B3L;
+
+    /** Receptor de tokens para calcular huellas, uno por hilo. */
+    private static final ThreadLocal<Huella> HUELLA = ThreadLocal.withInitial(Huella::new);
+
+    private final Franja[] franjas;
+
+    /** Cantidad máxima de entradas. */
+    private final int capacidad;
+
+    /** Antigüedad máxima de una entrada en nanosegundos, o 0 si no vencen. */
+    private final long ttlNanos;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+    private final LongAdder vencidas = new LongAdder();
+
+    /**
+     * Crea una caché.
+     *
+     * @param capacidad cantidad máxima de entradas; 0 desactiva la caché
+     * @param ttlMillis antigüedad máxima de una entrada en milisegundos; 0
+     *                  para que no venzan
+     */
+    CacheResultados(int capacidad, long ttlMillis) {
+        this.capacidad = capacidad;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        // Con capacidades pequeñas se usan menos franjas, para que la suma de
+        // sus capacidades nunca supere la capacidad total.
+        int cantidad = Math.max(1, Math.min(FRANJAS, Integer.highestOneBit(capacidad)));
+        int porFranja = capacidad / cantidad;
+        this.franjas = new Franja[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            franjas[i] = new Franja(porFranja);
+        }
+    }
+
+    /**
+     * Indica si la caché guarda resultados.
+     *
+     * @return {@code false} si la capacidad es 0
+     */
+    boolean activa() {
+        return capacidad > 0;
+    }
+
+    /**
+     * Busca un resultado.
+     *
+     * @param huella  huella de la descripción
+     * @param version versión de la instantánea vigente
+     * @return resultado guardado o {@code null} si no hay uno vigente
+     */
+    ResultadoAnalisis obtener(long huella, long version) {
+        Franja franja = franja(huella);
+        Entrada e;
+        synchronized (franja) {
+            e = franja.get(huella);
+            if (e != null && (e.version != version || vencida(e))) {
+                franja.remove(huella);
+                if (e.version == version) {
+                    vencidas.increment();
+                }
+                e = null;
+            }
+        }
+
+        if (e == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return e.resultado;
+    }
+
+    /**
+     * Guarda un resultado, reemplazando el anterior con la misma huella.
+     *
+     * @param huella    huella de la descripción
+     * @param version   versión de la instantánea con la que se calculó
+     * @param resultado resultado del análisis
+     */
+    void guardar(long huella, long version, ResultadoAnalisis resultado) {
+        Entrada e = new Entrada(resultado, version, ttlNanos > 0 ? System.nanoTime() : 0L);
+        Franja franja = franja(huella);
+        synchronized (franja) {
+            franja.put(huella, e);
+        }
+    }
+
+    /**
+     * Elimina todas las entradas. Las métricas se conservan.
+     */
+    void limpiar() {
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                franja.clear();
+            }
+        }
+    }
+
+    /**
+     * Toma una fotografía de las métricas de la caché.
+     *
+     * @return métricas acumuladas desde que se creó la caché
+     */
+    EstadisticasCache estadisticas() {
+        int tamano = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                tamano += franja.size();
+            }
+        }
+        return new EstadisticasCache(aciertos.sum(), fallos.sum(), expulsiones.sum(),
+                vencidas.sum(), tamano, capacidad);
+    }
+
+    /**
+     * Calcula la huella de 64 bits de la secuencia de tokens normalizados de
+     * un texto, con las mismas reglas de {@link Tokenizador}.
+     *
+     * @param texto texto original
+     * @return huella del texto
+     */
+    static long huella(CharSequence texto) {
+        Huella h = HUELLA.get();
+        h.valor = BASE_HUELLA;
+        Tokenizador.delHilo().recorrer(texto, h);
+        return mezclar(h.valor);
+    }
+
+    // ------------ INTERNOS ------------
+
+    private Franja franja(long huella) {
+        return franjas[(int) (huella >>> 60) & (franjas.length - 1)];
+    }
+
+    private boolean vencida(Entrada e) {
+        return ttlNanos > 0 && System.nanoTime() - e.creada > ttlNanos;
+    }
+
+    /**
+     * Reparte los bits de la huella para que los bits altos, que eligen la
+     * franja, dependan de todo el texto.
+     */
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Acumula la huella token por token. Cada token termina con un espacio,
+     * que nunca aparece dentro de un token, para que "ab c" y "a bc" den
+     * huellas distintas.
+     */
+    private static final class Huella implements Tokenizador.ReceptorTokens {
+        long valor;
+
+        @Override
+        public void token(char[] buffer, int longitud) {
+            long h = valor;
+            for (int i = 0; i < longitud; i++) {
+                h = (h ^ buffer[i]) * PRIMO_HUELLA;
+            }
+            valor = (h ^ ' ') * PRIMO_HUELLA;
+        }
+    }
+
+    /**
+     * Resultado guardado con la versión y el momento en que se calculó.
+     */
+    private static final class Entrada {
+        final ResultadoAnalisis resultado;
+        final long version;
+        final long creada;
+
+        Entrada(ResultadoAnalisis resultado, long version, long creada) {
+            this.resultado = resultado;
+            this.version = version;
+            this.creada = creada;
+        }
+    }
+
+    /**
+     * LRU de una franja: un {@link LinkedHashMap} en orden de acceso que
+     * descarta la entrada más antigua al superar su capacidad.
+     */
+    private final class Franja extends LinkedHashMap<Long, Entrada> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maximo;
+
+        Franja(int maximo) {
+            super(16, 0.75f, true);
+            this.maximo = maximo;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entrada> mayor) {
+            if (size() > maximo) {
+                expulsiones.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
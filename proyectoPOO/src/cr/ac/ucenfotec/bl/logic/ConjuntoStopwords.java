@@ -0,0 +1,95 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conjunto inmutable de palabras vacías (stopwords) ya normalizadas.
+ *
+ * <p>Las palabras se guardan en una tabla hash de direccionamiento abierto
+ * con un factor de carga máximo de 0,5, por lo que una consulta revisa en
+ * promedio una sola casilla sin importar cuántas palabras tenga el
+ * conjunto. La consulta también acepta un buffer de caracteres, lo que
+ * permite descartar stopwords durante la tokenización sin crear cadenas.</p>
+ *
+ * <p>Una instancia no cambia después de construida, por lo que puede
+ * compartirse entre hilos.</p>
+ */
+public final class ConjuntoStopwords {
+
+    /** Conjunto sin palabras. */
+    public static final ConjuntoStopwords VACIO = new ConjuntoStopwords(Collections.emptyList());
+
+    /** Palabras en el orden recibido, sin duplicados. */
+    private final List<String> palabras;
+
+    /** Tabla hash con las palabras del conjunto. */
+    private final TablaTerminos tabla;
+
+    /**
+     * Construye el conjunto. Cada palabra se normaliza igual que las
+     * descripciones; las que quedan vacías o producen más de un token se
+     * descartan porque nunca podrían coincidir con un token.
+     *
+     * @param origen palabras a incluir
+     */
+    public ConjuntoStopwords(Collection<String> origen) {
+        this.tabla = new TablaTerminos(origen.size());
+        List<String> unicas = new ArrayList<>(origen.size());
+
+        for (String p : origen) {
+            String termino = Tokenizador.normalizar(p);
+            if (termino.isEmpty() || termino.indexOf(' ') >= 0) continue;
+
+            int antes = tabla.tamano();
+            tabla.agregar(termino);
+            if (tabla.tamano() > antes) {
+                unicas.add(termino);
+            }
+        }
+        this.palabras = Collections.unmodifiableList(unicas);
+    }
+
+    /**
+     * Determina si una palabra normalizada pertenece al conjunto.
+     *
+     * @param palabra palabra previamente normalizada
+     * @return {@code true} si la palabra es una stopword; {@code false} en caso contrario
+     */
+    public boolean contiene(String palabra) {
+        if (palabra == null || palabra.isEmpty()) return false;
+        return tabla.buscar(palabra) != TablaTerminos.NO_ENCONTRADO;
+    }
+
+    /**
+     * Determina si el token guardado en un buffer pertenece al conjunto.
+     *
+     * @param buffer   caracteres del token, desde la posición 0
+     * @param longitud cantidad de caracteres del token
+     * @return {@code true} si el token es una stopword; {@code false} en caso contrario
+     */
+    boolean contiene(char[] buffer, int longitud) {
+        if (longitud == 0) return false;
+        return tabla.buscar(buffer, 0, longitud) != TablaTerminos.NO_ENCONTRADO;
+    }
+
+    /**
+     * Obtiene la cantidad de palabras del conjunto.
+     *
+     * @return cantidad de stopwords
+     */
+    public int tamano() {
+        return palabras.size();
+    }
+
+    /**
+     * Obtiene las palabras del conjunto, normalizadas y sin duplicados.
+     *
+     * @return lista de solo lectura de stopwords
+     */
+    public List<String> getPalabras() {
+        return palabras;
+    }
+}
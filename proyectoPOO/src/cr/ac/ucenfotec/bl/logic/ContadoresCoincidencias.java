@@ -0,0 +1,195 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Contadores de coincidencias de un {@link Vocabulario}: cuántas veces cada
+ * palabra o frase de los diccionarios sumó al puntaje de su tipo de
+ * diccionario y cuántas veces sumó cada categoría. Sirven para encontrar
+ * palabras que nunca coinciden y medir qué parte del tráfico cubre cada
+ * diccionario.
+ *
+ * <p>Se cuenta una vez por asignación (patrón, dimensión, categoría) del
+ * vocabulario; el total de una categoría es la suma de sus asignaciones.
+ * Los contadores se reparten en franjas, como en un
+ * {@link java.util.concurrent.atomic.LongAdder}: cada hilo incrementa la
+ * franja que le corresponde por su identificador, así que los análisis
+ * concurrentes casi nunca escriben sobre el mismo contador, y al leer se
+ * suman todas las franjas. Cada franja es un solo arreglo con un contador
+ * por asignación, en lugar de un objeto por contador, y se crea la primera
+ * vez que un hilo la usa.</p>
+ */
+final class ContadoresCoincidencias {
+
+    /** Cantidad de franjas: una potencia de dos cercana a la cantidad de procesadores. */
+    private static final int FRANJAS = franjas(Runtime.getRuntime().availableProcessors());
+
+    /** Vocabulario cuyas asignaciones se cuentan. */
+    private final Vocabulario vocabulario;
+
+    /** Contadores por asignación de cada franja, o {@code null} si aún no se usa. */
+    private final AtomicReferenceArray<AtomicLongArray> franjas = new AtomicReferenceArray<>(FRANJAS);
+
+    /** Total de cada asignación ya entregado por {@link #extraerPendientes}. */
+    private final long[] extraidas;
+
+    /**
+     * Crea los contadores de un vocabulario, todos en cero.
+     *
+     * @param vocabulario vocabulario del analizador
+     */
+    ContadoresCoincidencias(Vocabulario vocabulario) {
+        this.vocabulario = vocabulario;
+        this.extraidas = new long[vocabulario.cantidadAsignaciones()];
+    }
+
+    /**
+     * Suma coincidencias a las asignaciones indicadas.
+     *
+     * @param asignaciones identificadores de asignación del vocabulario
+     * @param veces        coincidencias a sumar a cada asignación
+     * @param cantidad     cantidad de posiciones de los arreglos a contar
+     */
+    void sumar(int[] asignaciones, int[] veces, int cantidad) {
+        if (cantidad == 0) return;
+
+        AtomicLongArray franja = franja((int) Thread.currentThread().getId() & (FRANJAS - 1));
+        for (int i = 0; i < cantidad; i++) {
+            franja.getAndAdd(asignaciones[i], veces[i]);
+        }
+    }
+
+    /**
+     * Obtiene las coincidencias de cada palabra o frase de un tipo de
+     * diccionario, incluidas las que nunca coincidieron.
+     *
+     * @param tipo           tipo de diccionario, sin distinguir mayúsculas
+     * @param soloPendientes {@code true} para contar solo las coincidencias
+     *                       que aún no entregó {@link #extraerPendientes}
+     * @return término normalizado -&gt; coincidencias, en el orden de los
+     *         diccionarios; vacío si no hay diccionarios de ese tipo
+     */
+    Map<String, Long> porTermino(String tipo, boolean soloPendientes) {
+        Map<String, Long> conteo = new LinkedHashMap<>();
+        int dimension = vocabulario.buscarDimension(tipo);
+        if (dimension == Vocabulario.SIN_DIMENSION) return conteo;
+
+        long[] valores = valores(soloPendientes);
+        String[] patrones = vocabulario.getPatrones();
+        for (int p = 0; p < patrones.length; p++) {
+            for (int a = vocabulario.inicioAsignaciones(p); a < vocabulario.finAsignaciones(p); a++) {
+                if (vocabulario.dimension(a) == dimension) {
+                    conteo.put(patrones[p], valores[a]);
+                }
+            }
+        }
+        return conteo;
+    }
+
+    /**
+     * Obtiene las coincidencias de cada categoría de un tipo de
+     * diccionario, incluidas las que nunca coincidieron.
+     *
+     * @param tipo           tipo de diccionario, sin distinguir mayúsculas
+     * @param soloPendientes {@code true} para contar solo las coincidencias
+     *                       que aún no entregó {@link #extraerPendientes}
+     * @return categoría -&gt; coincidencias; vacío si no hay diccionarios de
+     *         ese tipo
+     */
+    Map<String, Long> porCategoria(String tipo, boolean soloPendientes) {
+        Map<String, Long> conteo = new LinkedHashMap<>();
+        int dimension = vocabulario.buscarDimension(tipo);
+        if (dimension == Vocabulario.SIN_DIMENSION) return conteo;
+
+        String[] categorias = vocabulario.getCategorias();
+        long[] porId = new long[categorias.length];
+        long[] valores = valores(soloPendientes);
+        for (int a = 0; a < valores.length; a++) {
+            if (vocabulario.dimension(a) == dimension) {
+                porId[vocabulario.categoria(a)] += valores[a];
+            }
+        }
+        for (int c = vocabulario.inicioCategorias(dimension); c < vocabulario.finCategorias(dimension); c++) {
+            conteo.put(categorias[c], porId[c]);
+        }
+        return conteo;
+    }
+
+    /**
+     * Suma a los mapas indicados las coincidencias contadas desde la
+     * llamada anterior y las marca como entregadas. Las que se cuentan
+     * mientras tanto quedan para la próxima llamada.
+     *
+     * @param terminos   tipo en minúsculas -&gt; término -&gt; coincidencias
+     * @param categorias tipo en minúsculas -&gt; categoría -&gt; coincidencias
+     */
+    synchronized void extraerPendientes(Map<String, Map<String, Long>> terminos,
+                                        Map<String, Map<String, Long>> categorias) {
+        long[] totales = valores(false);
+        String[] patrones = vocabulario.getPatrones();
+        String[] tipos = vocabulario.getTipos();
+        String[] nombres = vocabulario.getCategorias();
+        for (int p = 0; p < patrones.length; p++) {
+            for (int a = vocabulario.inicioAsignaciones(p); a < vocabulario.finAsignaciones(p); a++) {
+                long nuevas = totales[a] - extraidas[a];
+                if (nuevas <= 0) continue;
+
+                String clave = tipos[vocabulario.dimension(a)].toLowerCase(Locale.ROOT);
+                terminos.computeIfAbsent(clave, k -> new HashMap<>()).merge(patrones[p], nuevas, Long::sum);
+                categorias.computeIfAbsent(clave, k -> new HashMap<>())
+                        .merge(nombres[vocabulario.categoria(a)], nuevas, Long::sum);
+                extraidas[a] = totales[a];
+            }
+        }
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Suma las franjas. Con {@code soloPendientes} descuenta lo ya
+     * entregado.
+     */
+    private long[] valores(boolean soloPendientes) {
+        long[] valores = new long[extraidas.length];
+        for (int f = 0; f < FRANJAS; f++) {
+            AtomicLongArray franja = franjas.get(f);
+            if (franja == null) continue;
+            for (int a = 0; a < valores.length; a++) {
+                valores[a] += franja.get(a);
+            }
+        }
+        if (soloPendientes) {
+            synchronized (this) {
+                for (int a = 0; a < valores.length; a++) {
+                    valores[a] = Math.max(0L, valores[a] - extraidas[a]);
+                }
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Obtiene una franja, creándola si es la primera vez que se usa.
+     */
+    private AtomicLongArray franja(int indice) {
+        AtomicLongArray franja = franjas.get(indice);
+        if (franja == null) {
+            franjas.compareAndSet(indice, null, new AtomicLongArray(extraidas.length));
+            franja = franjas.get(indice);
+        }
+        return franja;
+    }
+
+    private static int franjas(int procesadores) {
+        int franjas = 1;
+        while (franjas < procesadores && franjas < 64) {
+            franjas <<= 1;
+        }
+        return franjas;
+    }
+}
@@ -0,0 +1,625 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Diccionario;
+import cr.ac.ucenfotec.bl.entities.Palabra;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diccionario compilado e inmutable que asocia términos normalizados con
+ * su categoría ocupando unos pocos bytes por término.
+ *
+ * <p>Los términos se guardan ordenados y con codificación por prefijo
+ * común en bloques de {@value #TERMINOS_POR_BLOQUE}: el primer término de
+ * cada bloque va completo y cada uno de los siguientes guarda solo cuántos
+ * caracteres comparte con el anterior y los caracteres que cambian. Como
+ * los términos normalizados solo tienen {@code [a-z0-9]} y espacios, cada
+ * carácter ocupa un byte. La categoría de cada término es un número corto
+ * que apunta a la tabla de categorías, y cada término guarda también su
+ * posición en la lista original, para que {@link #getPalabras()} la
+ * reconstruya en el mismo orden. Un índice con la posición de cada bloque
+ * permite buscar por búsqueda binaria y recorrer solo un bloque.</p>
+ *
+ * <p>Todo el diccionario vive en un solo {@link ByteBuffer} con este
+ * formato, así que {@link #aBytes()} y {@link #desdeBuffer(ByteBuffer)} no
+ * convierten nada: el buffer puede venir de un arreglo, de una caché o de
+ * un archivo mapeado en memoria.</p>
+ *
+ * <pre>
+ *   int    MAGIA
+ *   byte   VERSION
+ *   texto  tipo
+ *   varint cantidad de categorías, seguida de cada categoría como texto
+ *   int    cantidad de términos
+ *   int    cantidad de bloques
+ *   int[]  posición de cada bloque, desde el inicio de los datos
+ *   datos  por término: varint compartidos, varint largo del resto,
+ *          bytes del resto, varint categoría, varint posición original
+ * </pre>
+ *
+ * <p>Una instancia no cambia después de construida, por lo que puede
+ * compartirse entre hilos.</p>
+ */
+public final class DiccionarioCompacto {
+
+    /** Identificador del formato: los bytes {@code "DCMP"}. */
+    private static final int MAGIA = 0x44434D50;
+
+    /** Versión del formato. */
+    private static final byte VERSION = 2;
+
+    /** Cantidad de términos por bloque. */
+    static final int TERMINOS_POR_BLOQUE = 16;
+
+    /** Buffers de búsqueda, uno por hilo. */
+    private static final ThreadLocal<Busqueda> BUSQUEDA = ThreadLocal.withInitial(Busqueda::new);
+
+    /** Contenido completo del diccionario, en el formato descrito. */
+    private final ByteBuffer contenido;
+
+    /** Tipo del diccionario. */
+    private final String tipo;
+
+    /** Nombre de cada categoría, por identificador. */
+    private final String[] categorias;
+
+    /** Cantidad de términos. */
+    private final int cantidad;
+
+    /** Cantidad de bloques. */
+    private final int bloques;
+
+    /** Posición del índice de bloques dentro de {@link #contenido}. */
+    private final int inicioIndice;
+
+    /** Posición de los datos dentro de {@link #contenido}. */
+    private final int inicioDatos;
+
+    /**
+     * Abre un contenido serializado. Cualquier falla al leerlo, incluidos
+     * largos o posiciones fuera del contenido, se informa como
+     * {@link IllegalArgumentException}.
+     */
+    private DiccionarioCompacto(ByteBuffer contenido) {
+        ByteBuffer b = contenido.duplicate().order(ByteOrder.BIG_ENDIAN);
+        b.position(0);
+        if (b.remaining() < 5 || b.getInt() != MAGIA) {
+            throw new IllegalArgumentException("El contenido no es un diccionario compacto");
+        }
+        byte version = b.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de diccionario compacto no soportada: " + version);
+        }
+
+        try {
+            this.tipo = leerTexto(b);
+            String[] nombres = new String[leerLargo(b)];
+            for (int i = 0; i < nombres.length; i++) {
+                nombres[i] = leerTexto(b);
+            }
+            this.categorias = nombres;
+            this.cantidad = b.getInt();
+            this.bloques = b.getInt();
+            this.inicioIndice = b.position();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Diccionario compacto incompleto", e);
+        }
+
+        long datos = inicioIndice + bloques * 4L;
+        if (cantidad < 0 || bloques < 0 || datos > b.limit()
+                || bloques != (cantidad + (long) TERMINOS_POR_BLOQUE - 1) / TERMINOS_POR_BLOQUE) {
+            throw new IllegalArgumentException("Diccionario compacto incompleto");
+        }
+        this.inicioDatos = (int) datos;
+        for (int i = 0; i < bloques; i++) {
+            int posicion = b.getInt(inicioIndice + i * 4);
+            if (posicion < 0 || posicion >= b.limit() - inicioDatos) {
+                throw new IllegalArgumentException("Diccionario compacto dañado");
+            }
+        }
+        this.contenido = b;
+    }
+
+    /**
+     * Compila un diccionario. Los textos se normalizan igual que en el
+     * análisis; si dos palabras se normalizan al mismo término, conserva la
+     * categoría de la primera. Las palabras vacías se descartan.
+     *
+     * @param diccionario diccionario con sus palabras
+     * @return diccionario compacto
+     */
+    public static DiccionarioCompacto compilar(Diccionario diccionario) {
+        return compilar(diccionario.getTipo(), diccionario.getPalabras());
+    }
+
+    /**
+     * Compila una lista de palabras con las mismas reglas de
+     * {@link #compilar(Diccionario)}.
+     *
+     * @param tipo     tipo del diccionario
+     * @param palabras palabras con su categoría
+     * @return diccionario compacto
+     */
+    public static DiccionarioCompacto compilar(String tipo, List<Palabra> palabras) {
+        int capacidad = palabras != null ? palabras.size() : 0;
+        // Posición de cada término en la lista y categoría por posición.
+        Map<String, Integer> orden = new HashMap<>(Math.max(16, capacidad * 4 / 3 + 1));
+        int[] categoriaPorOrden = new int[capacidad];
+        Map<String, Integer> idCategoria = new LinkedHashMap<>();
+        if (palabras != null) {
+            for (Palabra p : palabras) {
+                if (p.getTexto() == null || p.getCategoria() == null) continue;
+                String termino = Tokenizador.normalizar(p.getTexto());
+                if (termino.isEmpty()) continue;
+
+                int posicion = orden.size();
+                if (orden.putIfAbsent(termino, posicion) != null) continue;
+                Integer categoria = idCategoria.get(p.getCategoria());
+                if (categoria == null) {
+                    categoria = idCategoria.size();
+                    idCategoria.put(p.getCategoria(), categoria);
+                }
+                categoriaPorOrden[posicion] = categoria;
+            }
+        }
+
+        String[] terminos = orden.keySet().toArray(new String[0]);
+        Arrays.sort(terminos);
+        int cantidadBloques = (terminos.length + TERMINOS_POR_BLOQUE - 1) / TERMINOS_POR_BLOQUE;
+
+        Salida datos = new Salida(terminos.length * 8 + 16);
+        int[] posiciones = new int[cantidadBloques];
+        for (int i = 0; i < terminos.length; i++) {
+            String termino = terminos[i];
+            int compartidos = 0;
+            if (i % TERMINOS_POR_BLOQUE == 0) {
+                posiciones[i / TERMINOS_POR_BLOQUE] = datos.tamano;
+            } else {
+                String anterior = terminos[i - 1];
+                int maximo = Math.min(anterior.length(), termino.length());
+                while (compartidos < maximo && anterior.charAt(compartidos) == termino.charAt(compartidos)) {
+                    compartidos++;
+                }
+            }
+            datos.varint(compartidos);
+            datos.varint(termino.length() - compartidos);
+            for (int k = compartidos; k < termino.length(); k++) {
+                datos.byte_((byte) termino.charAt(k));
+            }
+            int posicion = orden.get(termino);
+            datos.varint(categoriaPorOrden[posicion]);
+            datos.varint(posicion);
+        }
+
+        Salida cabecera = new Salida(64);
+        cabecera.int_(MAGIA);
+        cabecera.byte_(VERSION);
+        cabecera.texto(tipo != null ? tipo : "");
+        cabecera.varint(idCategoria.size());
+        for (String categoria : idCategoria.keySet()) {
+            cabecera.texto(categoria);
+        }
+        cabecera.int_(terminos.length);
+        cabecera.int_(cantidadBloques);
+        for (int posicion : posiciones) {
+            cabecera.int_(posicion);
+        }
+
+        byte[] todo = Arrays.copyOf(cabecera.bytes, cabecera.tamano + datos.tamano);
+        System.arraycopy(datos.bytes, 0, todo, cabecera.tamano, datos.tamano);
+        return new DiccionarioCompacto(ByteBuffer.wrap(todo));
+    }
+
+    /**
+     * Reconstruye un diccionario a partir de los bytes de {@link #aBytes()}.
+     *
+     * @param bytes contenido serializado; no se copia
+     * @return diccionario compacto
+     * @throws IllegalArgumentException si el contenido no tiene el formato esperado
+     */
+    public static DiccionarioCompacto desdeBytes(byte[] bytes) {
+        return new DiccionarioCompacto(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Usa como diccionario el contenido de un buffer, desde su posición
+     * actual hasta su límite, sin copiarlo. Sirve para trabajar
+     * directamente sobre un archivo mapeado en memoria.
+     *
+     * @param buffer buffer con el contenido serializado
+     * @return diccionario compacto
+     * @throws IllegalArgumentException si el contenido no tiene el formato esperado
+     */
+    public static DiccionarioCompacto desdeBuffer(ByteBuffer buffer) {
+        return new DiccionarioCompacto(buffer.slice());
+    }
+
+    /**
+     * Serializa el diccionario.
+     *
+     * @return copia del contenido
+     */
+    public byte[] aBytes() {
+        byte[] bytes = new byte[contenido.limit()];
+        contenido.duplicate().position(0).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Obtiene el tipo del diccionario.
+     *
+     * @return tipo
+     */
+    public String getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtiene la cantidad de términos.
+     *
+     * @return cantidad de términos
+     */
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene la cantidad de bytes que ocupa el diccionario.
+     *
+     * @return tamaño del contenido en bytes
+     */
+    public int getTamanoEnBytes() {
+        return contenido.limit();
+    }
+
+    /**
+     * Obtiene las categorías del diccionario.
+     *
+     * @return lista de solo lectura de categorías
+     */
+    public List<String> getCategorias() {
+        return Collections.unmodifiableList(Arrays.asList(categorias));
+    }
+
+    /**
+     * Busca la categoría de una palabra o frase. El texto se normaliza
+     * antes de buscarlo. La búsqueda usa buffers reutilizables por hilo y
+     * no crea objetos.
+     *
+     * @param texto palabra o frase a buscar
+     * @return categoría o {@code null} si el término no está en el diccionario
+     */
+    public String buscarCategoria(String texto) {
+        if (texto == null || bloques == 0) return null;
+
+        Busqueda b = BUSQUEDA.get();
+        b.normalizar(texto);
+        if (b.largoConsulta == 0) return null;
+
+        int bloque = bloqueDe(b);
+        if (bloque < 0) return null;
+
+        iniciar(b, bloque);
+        for (int i = 0; i < TERMINOS_POR_BLOQUE && siguiente(b); i++) {
+            int comparacion = comparar(b.termino, b.largo, b.consulta, b.largoConsulta);
+            if (comparacion == 0) return categorias[b.categoria];
+            if (comparacion > 0) return null;
+        }
+        return null;
+    }
+
+    /**
+     * Lista los términos que empiezan con un prefijo, en orden alfabético.
+     * El prefijo se normaliza antes de buscarlo, pero se respeta un espacio
+     * final para distinguir "red " (frases que empiezan con la palabra red)
+     * de "red" (también "redes").
+     *
+     * @param prefijo inicio de los términos
+     * @param maximo  cantidad máxima de términos a devolver
+     * @return palabras con su categoría, con el texto normalizado
+     */
+    public List<Palabra> buscarPorPrefijo(String prefijo, int maximo) {
+        List<Palabra> resultado = new ArrayList<>();
+        if (maximo <= 0 || bloques == 0) return resultado;
+
+        Busqueda b = BUSQUEDA.get();
+        b.normalizar(prefijo);
+        if (b.largoConsulta > 0 && prefijo.endsWith(" ")) {
+            b.agregar(' ');
+        }
+
+        iniciar(b, Math.max(0, bloqueDe(b)));
+        while (siguiente(b)) {
+            int comparacion = comparar(b.termino, Math.min(b.largo, b.largoConsulta), b.consulta, b.largoConsulta);
+            if (comparacion < 0) continue;
+            if (comparacion > 0) break;
+
+            resultado.add(b.palabra(categorias));
+            if (resultado.size() == maximo) break;
+        }
+        return resultado;
+    }
+
+    /**
+     * Expande el diccionario a una lista de palabras, en el orden de la
+     * lista con que se compiló. Volver a compilar esta lista produce el
+     * mismo diccionario.
+     *
+     * @return palabras con su categoría, con el texto normalizado
+     * @throws IllegalArgumentException si el contenido está dañado
+     */
+    public List<Palabra> getPalabras() {
+        Palabra[] palabras = new Palabra[cantidad];
+        if (bloques > 0) {
+            Busqueda b = new Busqueda();
+            iniciar(b, 0);
+            while (siguiente(b)) {
+                if (b.orden >= cantidad || palabras[b.orden] != null) {
+                    throw new IllegalArgumentException("Diccionario compacto dañado");
+                }
+                palabras[b.orden] = b.palabra(categorias);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(palabras));
+    }
+
+    /**
+     * Calcula una huella de 64 bits del contenido (FNV-1a). Dos
+     * diccionarios compilados a partir de las mismas palabras tienen la
+     * misma huella.
+     *
+     * @return huella del contenido
+     */
+    long huella() {
+        return huella(contenido);
+    }
+
+    /**
+     * Calcula la huella de {@link #huella()} sobre un contenido serializado
+     * sin abrirlo, desde el índice 0 hasta el límite del buffer.
+     *
+     * @param contenido contenido serializado
+     * @return huella del contenido
+     */
+    static long huella(ByteBuffer contenido) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, n = contenido.limit(); i < n; i++) {
+            h ^= contenido.get(i) & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "DiccionarioCompacto{tipo='" + tipo + '\'' +
+                ", terminos=" + cantidad +
+                ", bytes=" + contenido.limit() +
+                '}';
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Encuentra el último bloque cuyo primer término no es mayor que la
+     * consulta, comparando directamente sobre el contenido.
+     *
+     * @return número de bloque o -1 si la consulta va antes del primer término
+     */
+    private int bloqueDe(Busqueda b) {
+        int bajo = 0;
+        int alto = bloques - 1;
+        int encontrado = -1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            int p = inicioDatos + contenido.getInt(inicioIndice + medio * 4);
+            // El primer término de un bloque no comparte caracteres.
+            p = saltarVarint(p);
+            int largo = varintEn(p);
+            p = saltarVarint(p);
+            if (compararEn(p, largo, b.consulta, b.largoConsulta) <= 0) {
+                encontrado = medio;
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return encontrado;
+    }
+
+    /**
+     * Ubica la búsqueda al inicio de un bloque.
+     */
+    private void iniciar(Busqueda b, int bloque) {
+        b.posicion = inicioDatos + contenido.getInt(inicioIndice + bloque * 4);
+        b.restantes = cantidad - bloque * TERMINOS_POR_BLOQUE;
+    }
+
+    /**
+     * Decodifica el término siguiente de la búsqueda a partir del anterior.
+     *
+     * @return {@code false} si ya no quedan términos
+     */
+    private boolean siguiente(Busqueda b) {
+        if (b.restantes == 0) return false;
+        b.restantes--;
+
+        int p = b.posicion;
+        int compartidos = varintEn(p);
+        p = saltarVarint(p);
+        int resto = varintEn(p);
+        p = saltarVarint(p);
+        b.reservar(compartidos + resto);
+        for (int k = 0; k < resto; k++) {
+            b.termino[compartidos + k] = contenido.get(p + k);
+        }
+        p += resto;
+        b.largo = compartidos + resto;
+        b.categoria = varintEn(p);
+        p = saltarVarint(p);
+        b.orden = varintEn(p);
+        b.posicion = saltarVarint(p);
+        return true;
+    }
+
+    private int varintEn(int p) {
+        int valor = 0;
+        for (int desplazamiento = 0; ; desplazamiento += 7) {
+            byte b = contenido.get(p++);
+            valor |= (b & 0x7F) << desplazamiento;
+            if (b >= 0) return valor;
+        }
+    }
+
+    private int saltarVarint(int p) {
+        while (contenido.get(p) < 0) p++;
+        return p + 1;
+    }
+
+    private int compararEn(int p, int largo, byte[] b, int largoB) {
+        int n = Math.min(largo, largoB);
+        for (int i = 0; i < n; i++) {
+            int diferencia = (contenido.get(p + i) & 0xFF) - (b[i] & 0xFF);
+            if (diferencia != 0) return diferencia;
+        }
+        return largo - largoB;
+    }
+
+    private static int comparar(byte[] a, int largoA, byte[] b, int largoB) {
+        int n = Math.min(largoA, largoB);
+        for (int i = 0; i < n; i++) {
+            int diferencia = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (diferencia != 0) return diferencia;
+        }
+        return largoA - largoB;
+    }
+
+    private static String leerTexto(ByteBuffer b) {
+        byte[] bytes = new byte[leerLargo(b)];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lee un largo que no puede superar los bytes restantes, para no
+     * reservar arreglos enormes con un contenido dañado.
+     */
+    private static int leerLargo(ByteBuffer b) {
+        int largo = leerVarint(b);
+        if (largo < 0 || largo > b.remaining()) {
+            throw new IllegalArgumentException("Diccionario compacto incompleto");
+        }
+        return largo;
+    }
+
+    private static int leerVarint(ByteBuffer b) {
+        int valor = 0;
+        for (int desplazamiento = 0; ; desplazamiento += 7) {
+            byte x = b.get();
+            valor |= (x & 0x7F) << desplazamiento;
+            if (x >= 0) return valor;
+        }
+    }
+
+    /**
+     * Consulta normalizada y término decodificado de una búsqueda. Recibe
+     * los tokens del {@link Tokenizador} y los junta con espacios, como
+     * {@link Tokenizador#normalizar(String)}.
+     */
+    private static final class Busqueda implements Tokenizador.ReceptorTokens {
+        byte[] consulta = new byte[64];
+        int largoConsulta;
+        byte[] termino = new byte[64];
+        int largo;
+        int categoria;
+        int orden;
+        int posicion;
+        int restantes;
+
+        void normalizar(String texto) {
+            largoConsulta = 0;
+            if (texto != null) {
+                Tokenizador.delHilo().recorrer(texto, this);
+            }
+        }
+
+        @Override
+        public void token(char[] buffer, int longitud) {
+            if (largoConsulta > 0) {
+                agregar(' ');
+            }
+            for (int i = 0; i < longitud; i++) {
+                agregar(buffer[i]);
+            }
+        }
+
+        void agregar(char c) {
+            if (largoConsulta == consulta.length) {
+                consulta = Arrays.copyOf(consulta, largoConsulta * 2);
+            }
+            // Los tokens normalizados solo tienen caracteres ASCII.
+            consulta[largoConsulta++] = (byte) c;
+        }
+
+        void reservar(int largo) {
+            if (termino.length < largo) {
+                termino = Arrays.copyOf(termino, Math.max(largo, termino.length * 2));
+            }
+        }
+
+        Palabra palabra(String[] categorias) {
+            return new Palabra(new String(termino, 0, largo, StandardCharsets.US_ASCII), categorias[categoria]);
+        }
+    }
+
+    /**
+     * Arreglo de bytes que crece a medida que se escribe.
+     */
+    private static final class Salida {
+        byte[] bytes;
+        int tamano;
+
+        Salida(int capacidad) {
+            bytes = new byte[Math.max(16, capacidad)];
+        }
+
+        void byte_(byte b) {
+            if (tamano == bytes.length) {
+                bytes = Arrays.copyOf(bytes, tamano * 2);
+            }
+            bytes[tamano++] = b;
+        }
+
+        void varint(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                byte_((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            byte_((byte) valor);
+        }
+
+        void int_(int valor) {
+            byte_((byte) (valor >>> 24));
+            byte_((byte) (valor >>> 16));
+            byte_((byte) (valor >>> 8));
+            byte_((byte) valor);
+        }
+
+        void texto(String texto) {
+            byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            for (byte b : utf8) {
+                byte_(b);
+            }
+        }
+    }
+}
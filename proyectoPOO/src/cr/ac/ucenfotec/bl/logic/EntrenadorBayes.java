@@ -0,0 +1,159 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entrenador de un clasificador Naive Bayes multinomial a partir de
+ * descripciones ya etiquetadas, por ejemplo tickets históricos con el
+ * departamento que los atendió.
+ *
+ * <p>Cuenta, por cada clase, cuántas veces aparece cada término en sus
+ * descripciones, con la misma normalización del análisis Bag of Words y
+ * sin stopwords. Los términos se identifican con enteros densos de una
+ * {@link TablaTerminos}, así que los conteos son arreglos de enteros por
+ * clase. {@link #compilar()} convierte los conteos en un
+ * {@link ModeloBayes} inmutable.</p>
+ *
+ * <p>Una instancia no es segura para uso concurrente.</p>
+ */
+final class EntrenadorBayes {
+
+    /** Suavizado de Laplace que se suma a cada conteo. */
+    static final double SUAVIZADO = 1.0;
+
+    /** Stopwords que se descartan de las descripciones. */
+    private final ConjuntoStopwords stopwords;
+
+    /** Stemmer de los términos, o {@code null} si no se reducen a raíces. */
+    private final StemmerEspanol stemmer;
+
+    /** Términos vistos en el entrenamiento. */
+    private final TablaTerminos terminos = new TablaTerminos(1024);
+
+    /** Identificador de cada clase por su nombre. */
+    private final Map<String, Integer> idClase = new HashMap<>();
+
+    /** Nombre de cada clase, por identificador. */
+    private final List<String> clases = new ArrayList<>();
+
+    /** Apariciones de cada término, por clase y por identificador de término. */
+    private final List<int[]> conteos = new ArrayList<>();
+
+    /** Cantidad total de términos de cada clase. */
+    private long[] terminosPorClase = new long[8];
+
+    /** Cantidad de descripciones de cada clase. */
+    private long[] documentosPorClase = new long[8];
+
+    /** Cantidad de descripciones registradas. */
+    private long documentos;
+
+    /**
+     * Crea un entrenador.
+     *
+     * @param stopwords stopwords a descartar
+     * @param stemming  {@code true} para contar los términos por raíz
+     */
+    EntrenadorBayes(ConjuntoStopwords stopwords, boolean stemming) {
+        this.stopwords = stopwords != null ? stopwords : ConjuntoStopwords.VACIO;
+        this.stemmer = stemming ? StemmerEspanol.COMPARTIDO : null;
+    }
+
+    /**
+     * Registra una descripción etiquetada. Las descripciones o etiquetas
+     * vacías se ignoran.
+     *
+     * @param descripcion texto de la descripción
+     * @param clase       etiqueta de la descripción
+     */
+    void agregar(String descripcion, String clase) {
+        if (descripcion == null || descripcion.isBlank() || clase == null || clase.isBlank()) {
+            return;
+        }
+
+        int c = obtenerClase(clase);
+        documentos++;
+        documentosPorClase[c]++;
+
+        Tokenizador.delHilo().recorrer(descripcion, (buffer, longitud) -> {
+            if (stopwords.contiene(buffer, longitud)) return;
+            if (stemmer != null) {
+                longitud = stemmer.longitudRaiz(buffer, longitud);
+            }
+            int id = terminos.agregar(buffer, 0, longitud);
+            int[] conteo = conteos.get(c);
+            if (id >= conteo.length) {
+                conteo = Arrays.copyOf(conteo, Math.max(conteo.length * 2, id + 1));
+                conteos.set(c, conteo);
+            }
+            conteo[id]++;
+            terminosPorClase[c]++;
+        });
+    }
+
+    /**
+     * Obtiene la cantidad de descripciones registradas.
+     *
+     * @return cantidad de descripciones
+     */
+    long getDocumentos() {
+        return documentos;
+    }
+
+    /**
+     * Compila los conteos actuales en un modelo. Para cada clase calcula el
+     * logaritmo de su probabilidad previa y, para cada término, el logaritmo
+     * de su probabilidad dentro de la clase con suavizado de Laplace:
+     * {@code ln((conteo + 1) / (total de la clase + V))}, donde V es la
+     * cantidad de términos distintos. El entrenador puede seguir usándose
+     * después de compilar.
+     *
+     * @return modelo compilado
+     */
+    ModeloBayes compilar() {
+        int cantidadClases = clases.size();
+        int cantidadTerminos = terminos.tamano();
+
+        TablaTerminos tabla = new TablaTerminos(cantidadTerminos);
+        for (int id = 0; id < cantidadTerminos; id++) {
+            tabla.agregar(terminos.termino(id));
+        }
+
+        double[] logPrevias = new double[cantidadClases];
+        double[] logVerosimilitudes = new double[cantidadTerminos * cantidadClases];
+        for (int c = 0; c < cantidadClases; c++) {
+            logPrevias[c] = Math.log((double) documentosPorClase[c] / documentos);
+
+            int[] conteo = conteos.get(c);
+            double logDenominador = Math.log(terminosPorClase[c] + SUAVIZADO * cantidadTerminos);
+            for (int id = 0; id < cantidadTerminos; id++) {
+                int n = id < conteo.length ? conteo[id] : 0;
+                logVerosimilitudes[id * cantidadClases + c] = Math.log(n + SUAVIZADO) - logDenominador;
+            }
+        }
+
+        return new ModeloBayes(tabla, clases.toArray(new String[0]), logPrevias,
+                logVerosimilitudes, stopwords, stemmer, documentos);
+    }
+
+    // ------------ INTERNOS ------------
+
+    private int obtenerClase(String clase) {
+        Integer id = idClase.get(clase);
+        if (id != null) return id;
+
+        int nuevo = clases.size();
+        idClase.put(clase, nuevo);
+        clases.add(clase);
+        conteos.add(new int[Math.max(64, terminos.tamano())]);
+        if (nuevo == documentosPorClase.length) {
+            documentosPorClase = Arrays.copyOf(documentosPorClase, nuevo * 2);
+            terminosPorClase = Arrays.copyOf(terminosPorClase, nuevo * 2);
+        }
+        return nuevo;
+    }
+}
@@ -0,0 +1,123 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.Locale;
+
+/**
+ * Métricas de la caché de resultados de análisis en un momento dado.
+ */
+public class EstadisticasCache {
+
+    /** Consultas que encontraron un resultado vigente. */
+    private final long aciertos;
+
+    /** Consultas que no encontraron un resultado vigente. */
+    private final long fallos;
+
+    /** Entradas descartadas por falta de espacio. */
+    private final long expulsiones;
+
+    /** Entradas descartadas por antigüedad. */
+    private final long vencidas;
+
+    /** Cantidad de entradas guardadas. */
+    private final int tamano;
+
+    /** Cantidad máxima de entradas. */
+    private final int capacidad;
+
+    /**
+     * Crea una fotografía de las métricas.
+     *
+     * @param aciertos    consultas con resultado vigente
+     * @param fallos      consultas sin resultado vigente
+     * @param expulsiones entradas descartadas por falta de espacio
+     * @param vencidas    entradas descartadas por antigüedad
+     * @param tamano      entradas guardadas
+     * @param capacidad   cantidad máxima de entradas
+     */
+    EstadisticasCache(long aciertos, long fallos, long expulsiones, long vencidas, int tamano, int capacidad) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.expulsiones = expulsiones;
+        this.vencidas = vencidas;
+        this.tamano = tamano;
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Obtiene la cantidad de consultas que encontraron un resultado vigente.
+     *
+     * @return aciertos
+     */
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * Obtiene la cantidad de consultas que no encontraron un resultado
+     * vigente, incluidas las que hallaron uno vencido o de otra versión de
+     * los diccionarios.
+     *
+     * @return fallos
+     */
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Obtiene la cantidad de entradas descartadas por falta de espacio.
+     *
+     * @return expulsiones
+     */
+    public long getExpulsiones() {
+        return expulsiones;
+    }
+
+    /**
+     * Obtiene la cantidad de entradas descartadas por antigüedad.
+     *
+     * @return entradas vencidas
+     */
+    public long getVencidas() {
+        return vencidas;
+    }
+
+    /**
+     * Obtiene la cantidad de entradas guardadas.
+     *
+     * @return tamaño actual
+     */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Obtiene la cantidad máxima de entradas.
+     *
+     * @return capacidad
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Obtiene la proporción de consultas que encontraron un resultado.
+     *
+     * @return valor entre 0 y 1, o 0 si no hubo consultas
+     */
+    public double getTasaAciertos() {
+        long consultas = aciertos + fallos;
+        return consultas == 0 ? 0.0 : (double) aciertos / consultas;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasCache{aciertos=" + aciertos +
+                ", fallos=" + fallos +
+                ", tasaAciertos=" + String.format(Locale.ROOT, "%.3f", getTasaAciertos()) +
+                ", expulsiones=" + expulsiones +
+                ", vencidas=" + vencidas +
+                ", tamano=" + tamano + "/" + capacidad +
+                '}';
+    }
+}
@@ -0,0 +1,218 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.dl.RepositorioHelpDesk;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estadísticas del corpus de descripciones de tickets para la ponderación
+ * TF-IDF: la cantidad de documentos y, por cada término normalizado, la
+ * cantidad de documentos que lo contienen (frecuencia de documento).
+ *
+ * <p>Se actualizan de forma incremental con cada ticket registrado, sin
+ * recorrer el corpus. Los contadores son {@link LongAdder}, que reparten
+ * los incrementos concurrentes entre varias celdas, así que registrar
+ * tickets desde varios hilos no compite por un mismo contador.</p>
+ *
+ * <p>Los términos que cambiaron desde el último guardado se recuerdan para
+ * que cada guardado escriba solo esos términos, y se guarda lo que sumaron
+ * desde entonces en lugar del total, para que varias instancias de la
+ * aplicación puedan guardar sus cambios sin pisarse.</p>
+ *
+ * <p>Hay una sola instancia por repositorio, compartida por todos los
+ * {@code Gestor} que lo usan. Es el único observador de tickets que se
+ * registra en el repositorio, así que cada ticket insertado se cuenta una
+ * sola vez, sin importar quién lo inserte.</p>
+ */
+final class EstadisticasCorpus {
+
+    /**
+     * Estadísticas de cada repositorio. La llave es débil para no retener
+     * repositorios descartados; las estadísticas no guardan referencia al
+     * repositorio.
+     */
+    private static final Map<RepositorioHelpDesk, EstadisticasCorpus> POR_REPOSITORIO =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** Tabla de términos por hilo para contar cada término una vez por documento. */
+    private static final ThreadLocal<TablaTerminos> TERMINOS_DOCUMENTO =
+            ThreadLocal.withInitial(() -> new TablaTerminos(64));
+
+    /** Cantidad de documentos registrados. */
+    private final LongAdder documentos = new LongAdder();
+
+    /** Cantidad de documentos que contienen cada término. */
+    private final ConcurrentHashMap<String, LongAdder> frecuencias = new ConcurrentHashMap<>();
+
+    /** Términos cuya frecuencia cambió desde el último guardado. */
+    private final Set<String> pendientes = ConcurrentHashMap.newKeySet();
+
+    /** Indica si ya se sumaron las estadísticas guardadas en el repositorio. */
+    private volatile boolean cargadas;
+
+    /** Frecuencia de cada término ya guardada o cargada; se protege con {@code this}. */
+    private final Map<String, Long> entregadas = new HashMap<>();
+
+    /** Cantidad de documentos ya guardada o cargada; se protege con {@code this}. */
+    private long documentosEntregados;
+
+    private EstadisticasCorpus() {
+    }
+
+    /**
+     * Obtiene las estadísticas de un repositorio. La primera vez las crea y
+     * las registra como observador de los tickets que se insertan en él.
+     *
+     * @param repositorio repositorio de los tickets
+     * @return estadísticas compartidas del repositorio
+     */
+    static EstadisticasCorpus de(RepositorioHelpDesk repositorio) {
+        return POR_REPOSITORIO.computeIfAbsent(repositorio, r -> {
+            EstadisticasCorpus estadisticas = new EstadisticasCorpus();
+            r.agregarObservadorTickets(t -> estadisticas.registrar(t.getDescripcion()));
+            return estadisticas;
+        });
+    }
+
+    /**
+     * Registra un documento: suma uno a la cantidad de documentos y a la
+     * frecuencia de cada término distinto de la descripción.
+     *
+     * @param descripcion descripción del ticket
+     */
+    void registrar(String descripcion) {
+        documentos.increment();
+        if (descripcion == null || descripcion.isBlank()) return;
+
+        TablaTerminos terminos = TERMINOS_DOCUMENTO.get();
+        terminos.limpiar();
+        Tokenizador.delHilo().recorrer(descripcion, (buffer, longitud) -> terminos.agregar(buffer, 0, longitud));
+
+        for (int id = 0; id < terminos.tamano(); id++) {
+            String termino = terminos.termino(id);
+            frecuencias.computeIfAbsent(termino, k -> new LongAdder()).increment();
+            pendientes.add(termino);
+        }
+    }
+
+    /**
+     * Suma a las actuales las estadísticas guardadas en el repositorio, solo
+     * la primera vez que se llama. Los tickets registrados antes de la carga
+     * se conservan, porque las guardadas se suman.
+     *
+     * @param repositorio repositorio con las estadísticas guardadas
+     */
+    void cargarSiHaceFalta(RepositorioHelpDesk repositorio) {
+        if (cargadas) return;
+        synchronized (this) {
+            if (cargadas) return;
+            long guardados = repositorio.contarDocumentosCorpus();
+            documentos.add(guardados);
+            documentosEntregados += guardados;
+            for (Map.Entry<String, Long> e : repositorio.listarFrecuenciasDocumento().entrySet()) {
+                frecuencias.computeIfAbsent(e.getKey(), k -> new LongAdder()).add(e.getValue());
+                entregadas.merge(e.getKey(), e.getValue(), Long::sum);
+            }
+            cargadas = true;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de documentos registrados.
+     *
+     * @return cantidad de documentos
+     */
+    long getDocumentos() {
+        return documentos.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de documentos que contienen un término.
+     *
+     * @param termino término normalizado
+     * @return frecuencia de documento, 0 si el término no apareció
+     */
+    long frecuencia(String termino) {
+        LongAdder contador = frecuencias.get(termino);
+        return contador == null ? 0L : contador.sum();
+    }
+
+    /**
+     * Calcula la frecuencia inversa de documento suavizada de un término:
+     * {@code ln((N + 1) / (df + 1)) + 1}. Siempre es al menos 1, de modo que
+     * un término presente en todos los documentos sigue sumando.
+     *
+     * @param termino            término normalizado
+     * @param cantidadDocumentos cantidad de documentos N
+     * @return peso IDF del término
+     */
+    double idf(String termino, long cantidadDocumentos) {
+        return Math.log((cantidadDocumentos + 1.0) / (frecuencia(termino) + 1.0)) + 1.0;
+    }
+
+    /**
+     * Obtiene la cantidad de términos distintos registrados.
+     *
+     * @return cantidad de términos
+     */
+    int tamano() {
+        return frecuencias.size();
+    }
+
+    /**
+     * Obtiene cuánto sumó la frecuencia de cada término que cambió desde
+     * la llamada anterior y lo marca como guardado. Un término que cambia
+     * mientras se arma el mapa queda pendiente para la próxima llamada.
+     *
+     * @return término -&gt; documentos sumados desde la llamada anterior
+     */
+    synchronized Map<String, Long> extraerPendientes() {
+        Map<String, Long> cambios = new HashMap<>();
+        for (Iterator<String> it = pendientes.iterator(); it.hasNext(); ) {
+            String termino = it.next();
+            it.remove();
+            long actual = frecuencia(termino);
+            Long anterior = entregadas.put(termino, actual);
+            long delta = actual - (anterior == null ? 0L : anterior);
+            if (delta != 0) {
+                cambios.put(termino, delta);
+            }
+        }
+        return cambios;
+    }
+
+    /**
+     * Obtiene cuántos documentos se registraron desde la llamada anterior y
+     * los marca como guardados.
+     *
+     * @return documentos sumados desde la llamada anterior
+     */
+    synchronized long extraerDocumentosPendientes() {
+        long actual = documentos.sum();
+        long delta = actual - documentosEntregados;
+        documentosEntregados = actual;
+        return delta;
+    }
+
+    /**
+     * Vuelve a marcar como pendientes cambios extraídos que no se pudieron
+     * guardar, para que el próximo guardado los incluya.
+     *
+     * @param cantidadDocumentos documentos extraídos
+     * @param cambios            término -&gt; documentos extraídos
+     */
+    synchronized void devolverPendientes(long cantidadDocumentos, Map<String, Long> cambios) {
+        documentosEntregados -= cantidadDocumentos;
+        for (Map.Entry<String, Long> e : cambios.entrySet()) {
+            entregadas.merge(e.getKey(), -e.getValue(), Long::sum);
+            pendientes.add(e.getKey());
+        }
+    }
+}
@@ -2,11 +2,38 @@ package cr.ac.ucenfotec.bl.logic;
 
 import cr.ac.ucenfotec.bl.entities.*;
 import cr.ac.ucenfotec.dl.HelpDeskDao;
+import cr.ac.ucenfotec.dl.RepositorioHelpDesk;
+import cr.ac.ucenfotec.dl.ResultadoLote;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Gestiona la lógica de negocio del sistema HelpDesk U.
@@ -16,14 +43,139 @@ import java.util.Map;
 public class Gestor {
 
     /** Acceso a la capa de datos del sistema. */
-    private final HelpDeskDao dao;
+    private final RepositorioHelpDesk dao;
+
+    /**
+     * Versión local de los diccionarios. Se incrementa con cada cambio a
+     * diccionarios, palabras o stopwords para invalidar la instantánea de
+     * análisis.
+     */
+    private final AtomicLong versionDiccionarios = new AtomicLong();
+
+    /** Instantánea de análisis compartida; {@code null} hasta el primer análisis. */
+    private volatile InstantaneaAnalisis instantanea;
+
+    /** Serializa la primera construcción y el reemplazo de la instantánea. */
+    private final Object lockInstantanea = new Object();
+
+    /** Indica si un hilo está reconstruyendo una instantánea desactualizada. */
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    /** Idioma o inquilino cuyas stopwords se aplican en el análisis. */
+    private volatile String idiomaStopwords = Stopwords.IDIOMA_POR_DEFECTO;
+
+    /** Indica si el análisis compara las palabras por su raíz. */
+    private volatile boolean stemming;
+
+    /** Peso por defecto de una coincidencia con una palabra corregida. */
+    public static final double PESO_DIFUSO_POR_DEFECTO = 0.5;
+
+    /** Distancia de edición máxima que se corrige; 0 si no se corrigen errores de tipeo. */
+    private volatile int distanciaDifusa;
+
+    /** Peso de una coincidencia con una palabra corregida. */
+    private volatile double pesoDifuso = PESO_DIFUSO_POR_DEFECTO;
+
+    /**
+     * Paralelismo por defecto de los lotes: todos los núcleos menos uno,
+     * para que un lote grande no deje sin CPU a los análisis interactivos.
+     */
+    public static final int PARALELISMO_POR_DEFECTO =
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /** Cantidad de descripciones que el análisis de un flujo agrupa por bloque. */
+    private static final int TAMANO_BLOQUE_FLUJO = 1024;
+
+    /** Cantidad de hilos que procesan un lote. */
+    private volatile int paralelismoLote = PARALELISMO_POR_DEFECTO;
+
+    /** Pool de los lotes; se crea en el primer lote y al cambiar el paralelismo. */
+    private volatile ForkJoinPool poolLote;
+
+    /** Evita crear dos pools para el mismo paralelismo. */
+    private final Object lockLote = new Object();
+
+    /** Capacidad por defecto de la caché de análisis. */
+    public static final int CAPACIDAD_CACHE_POR_DEFECTO = 10_000;
+
+    /** Antigüedad máxima por defecto de un resultado en caché: 10 minutos. */
+    public static final long TTL_CACHE_POR_DEFECTO = 10 * 60 * 1000L;
+
+    /** Caché de resultados de análisis por huella de la descripción. */
+    private volatile CacheResultados cacheAnalisis =
+            new CacheResultados(CAPACIDAD_CACHE_POR_DEFECTO, TTL_CACHE_POR_DEFECTO);
+
+    /** Indica si el análisis pondera las coincidencias con TF-IDF. */
+    private volatile boolean tfIdf;
+
+    /** Frecuencias de documento del corpus de tickets, compartidas por repositorio. */
+    private final EstadisticasCorpus corpus;
+
+    /** Hilo de las tareas periódicas; se crea con la primera tarea. */
+    private ScheduledExecutorService programador;
+
+    /** Tarea periódica de guardado de las estadísticas del corpus. */
+    private ScheduledFuture<?> tareaCorpus;
+
+    /** Protege {@link #programador} y las tareas programadas. */
+    private final Object lockTareas = new Object();
+
+    /** Archivo de diccionarios compilados para arrancar sin la base de datos, o {@code null}. */
+    private volatile Path archivoDiccionarios;
+
+    /** Huella de los diccionarios guardados en el archivo; 0 si se desconoce. */
+    private volatile long huellaArchivo;
+
+    /**
+     * Versión de los diccionarios en el repositorio con la que se cargó la
+     * instantánea actual, o -1 si se desconoce.
+     */
+    private volatile long versionRemota = -1L;
+
+    /** Tarea periódica que revisa la versión de los diccionarios en el repositorio. */
+    private ScheduledFuture<?> tareaDiccionarios;
+
+    /**
+     * Coincidencias por tipo de diccionario y término aún sin guardar de
+     * instantáneas ya reemplazadas.
+     */
+    private final Map<String, Map<String, Long>> terminosPendientes = new HashMap<>();
+
+    /** Igual que {@link #terminosPendientes}, por tipo de diccionario y categoría. */
+    private final Map<String, Map<String, Long>> categoriasPendientes = new HashMap<>();
+
+    /** Protege las coincidencias pendientes y serializa su guardado. */
+    private final Object lockCoincidencias = new Object();
+
+    /** Tarea periódica de guardado de las coincidencias de los diccionarios. */
+    private ScheduledFuture<?> tareaCoincidencias;
+
+    /** Clasificador entrenado con los tickets históricos, o {@code null}. */
+    private volatile ModeloBayes clasificador;
 
     /**
      * Crea una nueva instancia de {@code Gestor} inicializando
-     * el objeto de acceso a datos.
+     * el objeto de acceso a datos sobre SQL Server.
      */
     public Gestor() {
-        this.dao = new HelpDeskDao();
+        this(new HelpDeskDao());
+    }
+
+    /**
+     * Crea una nueva instancia de {@code Gestor} que utiliza el
+     * repositorio indicado, por ejemplo un
+     * {@link cr.ac.ucenfotec.dl.RepositorioMemoria} para pruebas o
+     * benchmarks sin base de datos.
+     *
+     * <p>Los gestores de un mismo repositorio comparten las estadísticas
+     * del corpus, que cuentan cada ticket insertado correctamente en el
+     * repositorio, aunque se inserte directamente en él.</p>
+     *
+     * @param repositorio implementación de almacenamiento a utilizar
+     */
+    public Gestor(RepositorioHelpDesk repositorio) {
+        this.dao = repositorio;
+        this.corpus = EstadisticasCorpus.de(repositorio);
     }
 
     /**
@@ -77,6 +229,26 @@ public class Gestor {
         return true;
     }
 
+    /**
+     * Registra varios usuarios en una carga masiva. Las contraseñas se
+     * reciben en texto plano y se almacenan con hash SHA-256.
+     *
+     * <p>A diferencia de {@link #registrarUsuario}, no se consulta
+     * previamente si el correo existe; los usuarios que la base de datos
+     * rechace se reportan en el resultado sin detener la carga.</p>
+     *
+     * @param usuarios usuarios a registrar
+     * @return resultado con los usuarios insertados y los rechazados
+     */
+    public ResultadoLote registrarUsuarios(List<Usuario> usuarios) {
+        List<Usuario> aInsertar = new ArrayList<>(usuarios.size());
+        for (Usuario u : usuarios) {
+            aInsertar.add(new Usuario(u.getNombre(), u.getCorreo(),
+                    hashSHA256(u.getPassword()), u.getTelefono(), u.getRol()));
+        }
+        return dao.insertarUsuarios(aInsertar);
+    }
+
     /**
      * Obtiene la lista de usuarios registrados.
      *
@@ -253,15 +425,62 @@ public class Gestor {
         dao.insertarTicket(t);
     }
 
+    /**
+     * Registra varios tickets en una carga masiva. Cada ticket debe tener
+     * asignados un usuario y un departamento existentes; los tickets que no
+     * cumplan esa condición se reportan como rechazados en el resultado.
+     *
+     * @param tickets tickets a registrar
+     * @return resultado con los tickets insertados y los rechazados
+     */
+    public ResultadoLote registrarTickets(List<Ticket> tickets) {
+        return dao.insertarTickets(tickets);
+    }
+
     /**
      * Obtiene la lista de tickets registrados.
      *
+     * <p>Carga todos los tickets en memoria; para volúmenes grandes utilice
+     * {@link #listarTicketsPagina(int, int)} o {@link #streamTickets()}.</p>
+     *
      * @return lista de tickets
      */
     public List<Ticket> listarTickets() {
         return dao.listarTickets();
     }
 
+    /**
+     * Obtiene una página de tickets ordenados por identificador.
+     *
+     * @param despuesDeId  id del último ticket de la página anterior, o 0 para la primera página
+     * @param tamanoPagina cantidad máxima de tickets a devolver (mayor que cero)
+     * @return tickets de la página; una lista vacía indica que no hay más
+     * @throws IllegalArgumentException si {@code tamanoPagina} no es mayor que cero
+     */
+    public List<Ticket> listarTicketsPagina(int despuesDeId, int tamanoPagina) {
+        return dao.listarTicketsPagina(despuesDeId, tamanoPagina);
+    }
+
+    /**
+     * Obtiene los tickets que se encuentran en un estado.
+     *
+     * @param estado estado a buscar
+     * @return tickets en ese estado, ordenados por identificador
+     */
+    public List<Ticket> listarTicketsPorEstado(String estado) {
+        return dao.listarTicketsPorEstado(estado);
+    }
+
+    /**
+     * Obtiene todos los tickets como un flujo perezoso. El flujo debe
+     * cerrarse después de usarlo para liberar su conexión.
+     *
+     * @return flujo de tickets ordenados por identificador
+     */
+    public Stream<Ticket> streamTickets() {
+        return dao.streamTickets();
+    }
+
     // ================= DICCIONARIOS Y PALABRAS =================
 
     /**
@@ -271,7 +490,9 @@ public class Gestor {
      */
     public void registrarDiccionario(String tipo) {
         Diccionario d = new Diccionario(tipo);
-        dao.insertarDiccionario(d);
+        if (dao.insertarDiccionario(d)) {
+            invalidarAnalisis();
+        }
     }
 
     /**
@@ -288,14 +509,18 @@ public class Gestor {
      *
      * @param idDiccionario identificador del diccionario
      * @param nuevoTipo     nuevo tipo
-     * @return {@code true} si se actualiza; {@code false} si el diccionario no existe
+     * @return {@code true} si se actualiza; {@code false} si el diccionario no
+     *         existe o la base de datos rechaza el cambio
      */
     public boolean actualizarDiccionario(int idDiccionario, String nuevoTipo) {
         Diccionario d = dao.buscarDiccionarioPorId(idDiccionario);
         if (d == null) return false;
         d.setTipo(nuevoTipo);
-        dao.actualizarDiccionario(d);
-        return true;
+        boolean actualizado = dao.actualizarDiccionario(d);
+        if (actualizado) {
+            invalidarAnalisis();
+        }
+        return actualizado;
     }
 
     /**
@@ -307,8 +532,11 @@ public class Gestor {
     public boolean eliminarDiccionario(int idDiccionario) {
         Diccionario d = dao.buscarDiccionarioPorId(idDiccionario);
         if (d == null) return false;
-        dao.eliminarDiccionario(idDiccionario);
-        return true;
+        boolean eliminado = dao.eliminarDiccionario(idDiccionario);
+        if (eliminado) {
+            invalidarAnalisis();
+        }
+        return eliminado;
     }
 
     /**
@@ -319,6 +547,7 @@ public class Gestor {
      * @param texto         texto de la palabra
      * @param categoria     categoría asociada
      * @return {@code true} si se agrega la palabra; {@code false} si ya existe
+     *         o la base de datos la rechaza
      */
     public boolean agregarPalabraADiccionario(int idDiccionario,
                                               String texto,
@@ -331,8 +560,34 @@ public class Gestor {
         }
 
         Palabra p = new Palabra(normalizado, categoria);
-        dao.insertarPalabra(p, idDiccionario);
-        return true;
+        boolean agregada = dao.insertarPalabra(p, idDiccionario);
+        if (agregada) {
+            invalidarAnalisis();
+        }
+        return agregada;
+    }
+
+    /**
+     * Agrega varias palabras a un diccionario en una carga masiva. Los
+     * textos se normalizan igual que en {@link #agregarPalabraADiccionario};
+     * las palabras que la base de datos rechace se reportan en el resultado
+     * sin detener la carga.
+     *
+     * @param idDiccionario identificador del diccionario
+     * @param palabras      palabras a agregar
+     * @return resultado con las palabras insertadas y las rechazadas
+     */
+    public ResultadoLote agregarPalabrasADiccionario(int idDiccionario, List<Palabra> palabras) {
+        List<Palabra> aInsertar = new ArrayList<>(palabras.size());
+        for (Palabra p : palabras) {
+            String texto = p.getTexto() == null ? null : p.getTexto().toLowerCase().trim();
+            aInsertar.add(new Palabra(texto, p.getCategoria()));
+        }
+        ResultadoLote resultado = dao.insertarPalabras(aInsertar, idDiccionario);
+        if (resultado.getInsertadas() > 0) {
+            invalidarAnalisis();
+        }
+        return resultado;
     }
 
     /**
@@ -360,12 +615,16 @@ public class Gestor {
                                                   String nuevaCategoria) {
 
         String nuevoNormalizado = nuevoTexto.toLowerCase().trim();
-        return dao.actualizarPalabraEnDiccionario(
+        boolean actualizada = dao.actualizarPalabraEnDiccionario(
                 idDiccionario,
                 textoOriginal,
                 nuevoNormalizado,
                 nuevaCategoria
         );
+        if (actualizada) {
+            invalidarAnalisis();
+        }
+        return actualizada;
     }
 
     /**
@@ -376,108 +635,1158 @@ public class Gestor {
      * @return {@code true} si la eliminación fue exitosa; {@code false} en caso contrario
      */
     public boolean eliminarPalabraDeDiccionario(int idDiccionario, String texto) {
-        return dao.eliminarPalabraDeDiccionario(idDiccionario, texto);
+        boolean eliminada = dao.eliminarPalabraDeDiccionario(idDiccionario, texto);
+        if (eliminada) {
+            invalidarAnalisis();
+        }
+        return eliminada;
+    }
+
+    // ================= STOPWORDS =================
+
+    /**
+     * Obtiene el idioma o inquilino cuyas stopwords se aplican.
+     *
+     * @return clave del conjunto de stopwords
+     */
+    public String getIdiomaStopwords() {
+        return idiomaStopwords;
+    }
+
+    /**
+     * Cambia el idioma o inquilino cuyas stopwords se aplican. Si la clave no
+     * tiene un conjunto registrado se usan las stopwords por defecto.
+     *
+     * @param idioma clave del conjunto de stopwords
+     */
+    public void setIdiomaStopwords(String idioma) {
+        this.idiomaStopwords = idioma == null ? Stopwords.IDIOMA_POR_DEFECTO : idioma;
+        invalidarAnalisis();
+    }
+
+    /**
+     * Registra una stopword para el idioma actual en la base de datos y
+     * recarga el conjunto.
+     *
+     * @param palabra palabra a registrar
+     * @return {@code true} si la palabra se registró; {@code false} si queda
+     *         vacía al normalizarla
+     */
+    public boolean agregarStopword(String palabra) {
+        String termino = Tokenizador.normalizar(palabra);
+        if (termino.isEmpty() || termino.indexOf(' ') >= 0) return false;
+
+        dao.insertarStopword(idiomaStopwords, termino);
+        recargarStopwords();
+        return true;
+    }
+
+    /**
+     * Carga las stopwords del idioma actual desde la base de datos y
+     * reemplaza el conjunto registrado, sin detener los análisis en curso.
+     * Si la base de datos no tiene stopwords para el idioma, se conserva el
+     * conjunto vigente.
+     *
+     * @return cantidad de stopwords del conjunto vigente
+     */
+    public int recargarStopwords() {
+        String idioma = idiomaStopwords;
+        List<String> palabras = dao.listarStopwords(idioma);
+        if (!palabras.isEmpty()) {
+            Stopwords.registrar(idioma, palabras);
+        }
+        invalidarAnalisis();
+        return Stopwords.obtener(idioma).tamano();
+    }
+
+    /**
+     * Carga las stopwords del idioma actual desde un archivo de recursos,
+     * con una palabra por línea, y reemplaza el conjunto registrado.
+     *
+     * @param ruta ruta del recurso en el classpath
+     * @return cantidad de stopwords cargadas
+     * @throws IOException si el recurso no existe o no se puede leer
+     */
+    public int cargarStopwordsDesdeRecurso(String ruta) throws IOException {
+        int cantidad = Stopwords.cargarRecurso(idiomaStopwords, ruta).tamano();
+        invalidarAnalisis();
+        return cantidad;
+    }
+
+    // ================= STEMMING =================
+
+    /**
+     * Indica si el análisis reduce las palabras a su raíz antes de
+     * compararlas con los diccionarios.
+     *
+     * @return {@code true} si se aplica stemming
+     */
+    public boolean isStemming() {
+        return stemming;
+    }
+
+    /**
+     * Activa o desactiva el stemming. Con stemming, una sola entrada como
+     * "conectar" en el diccionario también coincide con "conectado" o
+     * "conectados" en las descripciones. El cambio se aplica desde el
+     * próximo análisis.
+     *
+     * @param stemming {@code true} para comparar por raíces
+     */
+    public void setStemming(boolean stemming) {
+        this.stemming = stemming;
+        invalidarAnalisis();
+    }
+
+    // ================= CORRECCIÓN DE ERRORES DE TIPEO =================
+
+    /**
+     * Obtiene la distancia de edición máxima que se corrige.
+     *
+     * @return distancia máxima, o 0 si no se corrigen errores de tipeo
+     */
+    public int getDistanciaDifusa() {
+        return distanciaDifusa;
+    }
+
+    /**
+     * Obtiene el peso de una coincidencia con una palabra corregida.
+     *
+     * @return peso entre 0 y 1
+     */
+    public double getPesoDifuso() {
+        return pesoDifuso;
+    }
+
+    /**
+     * Configura la corrección de errores de tipeo. Con distancia 1 o 2, una
+     * palabra que no aparece en ningún diccionario se compara con la
+     * palabra de diccionario más cercana, así "conecsion" coincide con
+     * "conexion" e "impresoar" con "impresora". Las coincidencias corregidas
+     * valen {@code peso} en lugar de 1 al elegir la categoría. El cambio se
+     * aplica desde el próximo análisis.
+     *
+     * @param distanciaMaxima distancia de edición máxima, 1 o 2; 0 desactiva
+     *                        la corrección
+     * @param peso            peso de una coincidencia corregida, mayor que 0
+     *                        y hasta 1
+     * @throws IllegalArgumentException si algún parámetro está fuera de rango
+     */
+    public void configurarCorreccionDifusa(int distanciaMaxima, double peso) {
+        if (distanciaMaxima < 0 || distanciaMaxima > 2) {
+            throw new IllegalArgumentException("La distancia debe ser 0, 1 o 2: " + distanciaMaxima);
+        }
+        if (!(peso > 0.0 && peso <= 1.0)) {
+            throw new IllegalArgumentException("El peso debe estar entre 0 (exclusivo) y 1: " + peso);
+        }
+        this.distanciaDifusa = distanciaMaxima;
+        this.pesoDifuso = peso;
+        invalidarAnalisis();
+    }
+
+    // ================= TF-IDF =================
+
+    /**
+     * Indica si el análisis pondera las coincidencias con TF-IDF.
+     *
+     * @return {@code true} si se usa TF-IDF
+     */
+    public boolean isTfIdf() {
+        return tfIdf;
+    }
+
+    /**
+     * Activa o desactiva la ponderación TF-IDF. Con TF-IDF cada coincidencia
+     * suma el IDF de su término en lugar de 1, así que las palabras que
+     * aparecen en casi todos los tickets pesan menos que las que distinguen
+     * a unos pocos. El cambio se aplica desde el próximo análisis.
+     *
+     * @param tfIdf {@code true} para ponderar con TF-IDF
+     */
+    public void setTfIdf(boolean tfIdf) {
+        this.tfIdf = tfIdf;
+        invalidarAnalisis();
+    }
+
+    /**
+     * Recalcula los pesos TF-IDF con las estadísticas actuales del corpus,
+     * sin volver a cargar los diccionarios. Los resultados en caché
+     * calculados con los pesos anteriores dejan de usarse.
+     *
+     * @return {@code true} si se recalcularon los pesos; {@code false} si
+     *         TF-IDF está desactivado o la instantánea se reconstruirá de
+     *         todas formas
+     */
+    public boolean actualizarPesosTfIdf() {
+        if (!tfIdf) return false;
+
+        synchronized (lockInstantanea) {
+            InstantaneaAnalisis actual = instantanea;
+            if (actual == null || !actual.getAnalizador().isTfIdf()) return false;
+
+            // Si la versión ya cambió, el próximo análisis reconstruye la
+            // instantánea completa con pesos nuevos.
+            long version = actual.getVersion();
+            if (!versionDiccionarios.compareAndSet(version, version + 1)) return false;
+
+            instantanea = actual.conPesosIdf(version + 1, estadisticasCorpus());
+            return true;
+        }
+    }
+
+    /**
+     * Suma en la base de datos los documentos y las frecuencias de
+     * documento registrados desde el último guardado. Si el guardado
+     * falla, los cambios quedan pendientes para el siguiente.
+     *
+     * @return cantidad de términos guardados
+     */
+    public int guardarEstadisticasCorpus() {
+        EstadisticasCorpus estadisticas = estadisticasCorpus();
+        synchronized (estadisticas) {
+            long documentos = estadisticas.extraerDocumentosPendientes();
+            Map<String, Long> cambios = estadisticas.extraerPendientes();
+            if (documentos == 0 && cambios.isEmpty()) return 0;
+
+            if (!dao.guardarEstadisticasCorpus(documentos, cambios)) {
+                estadisticas.devolverPendientes(documentos, cambios);
+                return 0;
+            }
+            return cambios.size();
+        }
+    }
+
+    /**
+     * Programa el guardado periódico de las estadísticas del corpus y el
+     * recálculo de los pesos TF-IDF, reemplazando una programación anterior.
+     * La tarea corre en un hilo de fondo que no impide cerrar la aplicación.
+     *
+     * @param periodoSegundos segundos entre una ejecución y la siguiente
+     * @throws IllegalArgumentException si el periodo es menor que 1
+     */
+    public void programarEstadisticasCorpus(long periodoSegundos) {
+        if (periodoSegundos < 1) {
+            throw new IllegalArgumentException("El periodo debe ser al menos 1 segundo: " + periodoSegundos);
+        }
+        synchronized (lockTareas) {
+            if (tareaCorpus != null) {
+                tareaCorpus.cancel(false);
+            }
+            tareaCorpus = obtenerProgramador().scheduleWithFixedDelay(() -> {
+                try {
+                    guardarEstadisticasCorpus();
+                    actualizarPesosTfIdf();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }, periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Detiene el guardado periódico de las estadísticas del corpus.
+     */
+    public void detenerEstadisticasCorpus() {
+        synchronized (lockTareas) {
+            if (tareaCorpus != null) {
+                tareaCorpus.cancel(false);
+                tareaCorpus = null;
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de descripciones registradas en el corpus.
+     *
+     * @return cantidad de documentos
+     */
+    public long getDocumentosCorpus() {
+        return estadisticasCorpus().getDocumentos();
+    }
+
+    /**
+     * Obtiene la cantidad de descripciones del corpus que contienen un
+     * término.
+     *
+     * @param termino término; se normaliza antes de buscarlo
+     * @return frecuencia de documento del término
+     */
+    public long getFrecuenciaDocumento(String termino) {
+        return estadisticasCorpus().frecuencia(Tokenizador.normalizar(termino));
+    }
+
+    /**
+     * Obtiene las estadísticas del corpus, sumando las guardadas en la base
+     * de datos la primera vez.
+     */
+    private EstadisticasCorpus estadisticasCorpus() {
+        corpus.cargarSiHaceFalta(dao);
+        return corpus;
+    }
+
+    /**
+     * Obtiene el hilo de las tareas periódicas, creándolo si hace falta.
+     * Debe llamarse con {@link #lockTareas} tomado.
+     */
+    private ScheduledExecutorService obtenerProgramador() {
+        if (programador == null) {
+            programador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread hilo = new Thread(r, "helpdesk-tareas");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        return programador;
     }
 
     // ================= ANÁLISIS BAG OF WORDS =================
 
     /**
-     * Analiza una descripción de ticket para determinar el estado de ánimo
-     * y la categoría técnica predominante.
+     * Descarta la instantánea de análisis actual para que se reconstruya
+     * con los diccionarios de la base de datos en el próximo análisis.
+     * Útil cuando los diccionarios se modifican fuera de este {@code Gestor}.
+     */
+    public void recargarDiccionarios() {
+        invalidarAnalisis();
+    }
+
+    /**
+     * Marca la instantánea de análisis como desactualizada.
+     */
+    private void invalidarAnalisis() {
+        versionDiccionarios.incrementAndGet();
+    }
+
+    /**
+     * Obtiene la instantánea de análisis vigente. Solo consulta la base de
+     * datos cuando los diccionarios cambiaron desde la última construcción;
+     * en cualquier otro caso devuelve la instantánea compartida. También se
+     * reconstruye si el conjunto de stopwords fue reemplazado, aunque el
+     * cambio se haya hecho desde otro {@code Gestor}.
      *
-     * @param descripcion descripción del ticket
-     * @return arreglo con dos posiciones:
-     *         [0] estado de ánimo,
-     *         [1] categoría técnica
+     * <p>Solo la primera construcción detiene a los demás hilos. Después,
+     * un único hilo construye la instantánea nueva fuera del candado y el
+     * resto sigue usando la anterior hasta que la nueva esté lista.</p>
+     *
+     * @return instantánea con los diccionarios y el analizador
      */
-    public String[] analizarDescripcionTicket(String descripcion) {
+    private InstantaneaAnalisis obtenerInstantanea() {
+        InstantaneaAnalisis actual = instantanea;
+        if (vigente(actual, versionDiccionarios.get())) {
+            return actual;
+        }
+
+        if (actual == null) {
+            actual = construirPrimeraInstantanea();
+            if (vigente(actual, versionDiccionarios.get())) {
+                return actual;
+            }
+        }
 
-        List<Diccionario> diccionarios = dao.listarDiccionarios();
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            return actual;
+        }
+        try {
+            return reconstruirInstantanea();
+        } finally {
+            reconstruyendo.set(false);
+        }
+    }
 
-        Diccionario dicEmocional = null;
-        Diccionario dicTecnico   = null;
+    /**
+     * Construye la primera instantánea, desde el archivo de diccionarios si
+     * está configurado y es válido o, si no, desde la base de datos.
+     */
+    private InstantaneaAnalisis construirPrimeraInstantanea() {
+        synchronized (lockInstantanea) {
+            InstantaneaAnalisis actual = instantanea;
+            if (actual != null) {
+                return actual;
+            }
 
-        for (Diccionario d : diccionarios) {
-            if ("emocional".equalsIgnoreCase(d.getTipo())) {
-                dicEmocional = d;
-            } else if ("tecnico".equalsIgnoreCase(d.getTipo())) {
-                dicTecnico = d;
+            long version = versionDiccionarios.get();
+            List<DiccionarioCompacto> delArchivo = leerArchivoDiccionarios();
+            if (delArchivo != null) {
+                actual = construirInstantaneaCompilada(version, delArchivo);
+                programarVerificacionDiccionarios();
+            } else {
+                long remota = dao.obtenerVersionDiccionarios();
+                actual = construirInstantanea(version, dao.listarDiccionariosConPalabras());
+                versionRemota = remota;
+                if (archivoDiccionarios != null) {
+                    programarGuardadoArchivoDiccionarios(actual);
+                }
             }
+            instantanea = actual;
+            return actual;
         }
+    }
 
-        if (dicEmocional != null) {
-            List<Palabra> emoPalabras =
-                    dao.listarPalabrasPorDiccionario(dicEmocional.getId());
-            dicEmocional.setPalabras(emoPalabras);
+    /**
+     * Reemplaza una instantánea desactualizada. La nueva se construye fuera
+     * del candado, como en {@link #verificarDiccionarios()}, así que los
+     * análisis en curso no esperan la carga de los diccionarios. Solo debe
+     * llamarla el hilo que marcó {@link #reconstruyendo}.
+     */
+    private InstantaneaAnalisis reconstruirInstantanea() {
+        InstantaneaAnalisis actual = instantanea;
+        long version = versionDiccionarios.get();
+        if (vigente(actual, version)) {
+            return actual;
         }
 
-        if (dicTecnico != null) {
-            List<Palabra> tecPalabras =
-                    dao.listarPalabrasPorDiccionario(dicTecnico.getId());
-            dicTecnico.setPalabras(tecPalabras);
+        if (actual.getVersion() == version) {
+            // Otro Gestor reemplazó las stopwords: una versión nueva evita
+            // que la caché de análisis entregue resultados anteriores.
+            version = versionDiccionarios.incrementAndGet();
         }
 
-        AnalisisBow analizador = new AnalisisBow(dicTecnico, dicEmocional);
+        // Si otro hilo cambia los diccionarios durante la carga, la versión
+        // ya no coincidirá y el siguiente análisis volverá a construirla.
+        long remota = dao.obtenerVersionDiccionarios();
+        InstantaneaAnalisis nueva = construirInstantanea(version, dao.listarDiccionariosConPalabras());
+        synchronized (lockInstantanea) {
+            if (instantanea != actual) {
+                return instantanea;
+            }
+            retirarContadores(actual, nueva);
+            instantanea = nueva;
+        }
+        versionRemota = remota;
+        if (archivoDiccionarios != null) {
+            programarGuardadoArchivoDiccionarios(nueva);
+        }
+        return nueva;
+    }
+
+    /**
+     * Construye una instantánea con las opciones de análisis actuales.
+     */
+    private InstantaneaAnalisis construirInstantanea(long version, List<Diccionario> diccionarios) {
+        return new InstantaneaAnalisis(version, diccionarios, Stopwords.obtener(idiomaStopwords),
+                stemming, distanciaDifusa, pesoDifuso, tfIdf ? estadisticasCorpus() : null);
+    }
 
-        String estadoAnimo   = analizador.detectarEstadoAnimo(descripcion);
-        String categoriaTec  = analizador.sugerirCategoriaTecnica(descripcion);
+    /**
+     * Construye una instantánea a partir de diccionarios compilados con las
+     * opciones de análisis actuales.
+     */
+    private InstantaneaAnalisis construirInstantaneaCompilada(long version, List<DiccionarioCompacto> diccionarios) {
+        return InstantaneaAnalisis.desdeCompilados(version, diccionarios, Stopwords.obtener(idiomaStopwords),
+                stemming, distanciaDifusa, pesoDifuso, tfIdf ? estadisticasCorpus() : null);
+    }
 
-        return new String[]{estadoAnimo, categoriaTec};
+    /**
+     * Indica si una instantánea corresponde a la versión de diccionarios y
+     * al conjunto de stopwords vigentes, con las opciones de stemming,
+     * corrección de errores de tipeo y TF-IDF actuales.
+     */
+    private boolean vigente(InstantaneaAnalisis actual, long version) {
+        if (actual == null) return false;
+
+        AnalisisBow analizador = actual.getAnalizador();
+        return actual.getVersion() == version
+                && actual.getStopwords() == Stopwords.obtener(idiomaStopwords)
+                && analizador.isStemming() == stemming
+                && analizador.getDistanciaDifusa() == distanciaDifusa
+                && (distanciaDifusa == 0 || analizador.getPesoDifuso() == pesoDifuso)
+                && analizador.isTfIdf() == tfIdf;
     }
 
     /**
-     * Analiza una descripción de ticket de forma detallada, incluyendo
-     * el vector de frecuencias y las palabras detectadas.
+     * Analiza una descripción de ticket en una sola pasada con los
+     * diccionarios vigentes.
      *
      * @param descripcion descripción del ticket
-     * @return arreglo con cuatro posiciones:
-     *         [0] estado de ánimo,
-     *         [1] categoría técnica,
-     *         [2] mapa TF como texto,
-     *         [3] lista de palabras detectadas
+     * @return resultado con estado de ánimo, categoría técnica, puntajes,
+     *         mapa TF y términos detectados
      */
-    public String[] analizarDescripcionTicketDetallado(String descripcion) {
+    public ResultadoAnalisis analizarDescripcion(String descripcion) {
+        InstantaneaAnalisis actual = obtenerInstantanea();
+        CacheResultados cache = cacheAnalisis;
+        if (!cache.activa() || descripcion == null || descripcion.isBlank()) {
+            return actual.getAnalizador().analizar(descripcion);
+        }
+
+        long huella = CacheResultados.huella(descripcion);
+        ResultadoAnalisis resultado = cache.obtener(huella, actual.getVersion());
+        if (resultado == null) {
+            resultado = actual.getAnalizador().analizar(descripcion);
+            cache.guardar(huella, actual.getVersion(), resultado);
+        } else {
+            actual.getAnalizador().contarCoincidencias(resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Analiza una descripción muy larga leyéndola por tramos, sin cargarla
+     * completa en memoria, y se detiene al alcanzar una cantidad máxima de
+     * tokens.
+     *
+     * @param lector       fuente de la descripción; no se cierra
+     * @param maximoTokens cantidad máxima de tokens a procesar, al menos 1
+     * @return resultado del análisis
+     * @throws IOException si ocurre un error al leer
+     */
+    public ResultadoAnalisis analizarDescripcion(Reader lector, int maximoTokens) throws IOException {
+        return obtenerInstantanea().getAnalizador().analizar(lector, maximoTokens);
+    }
+
+    // ================= DICCIONARIOS COMPILADOS =================
+
+    /**
+     * Obtiene el diccionario compilado de un tipo, con las palabras de
+     * todos los diccionarios de ese tipo. Puede serializarse con
+     * {@link DiccionarioCompacto#aBytes()} para guardarlo o compartirlo.
+     *
+     * @param tipo tipo del diccionario, sin distinguir mayúsculas
+     * @return diccionario compacto o {@code null} si no hay diccionarios de
+     *         ese tipo
+     */
+    public DiccionarioCompacto obtenerDiccionarioCompacto(String tipo) {
+        return obtenerInstantanea().getDiccionario(tipo);
+    }
+
+    /**
+     * Busca la categoría de una palabra o frase en los diccionarios de un
+     * tipo, con la misma normalización del análisis y sin consultar la base
+     * de datos.
+     *
+     * @param tipo  tipo del diccionario, sin distinguir mayúsculas
+     * @param texto palabra o frase a buscar
+     * @return categoría o {@code null} si no se encuentra
+     */
+    public String buscarCategoria(String tipo, String texto) {
+        DiccionarioCompacto diccionario = obtenerDiccionarioCompacto(tipo);
+        return diccionario == null ? null : diccionario.buscarCategoria(texto);
+    }
+
+    /**
+     * Lista las palabras de los diccionarios de un tipo que empiezan con un
+     * prefijo, en orden alfabético. Sirve, por ejemplo, para autocompletar.
+     *
+     * @param tipo    tipo del diccionario, sin distinguir mayúsculas
+     * @param prefijo inicio de las palabras
+     * @param maximo  cantidad máxima de palabras a devolver
+     * @return palabras normalizadas con su categoría
+     */
+    public List<Palabra> buscarPorPrefijo(String tipo, String prefijo, int maximo) {
+        DiccionarioCompacto diccionario = obtenerDiccionarioCompacto(tipo);
+        return diccionario == null ? new ArrayList<>() : diccionario.buscarPorPrefijo(prefijo, maximo);
+    }
+
+    // ================= ARCHIVO DE DICCIONARIOS =================
+
+    /**
+     * Indica el archivo donde se guardan los diccionarios compilados. Si
+     * todavía no se ha analizado nada, el primer análisis mapea este archivo
+     * en memoria en lugar de cargar las palabras desde la base de datos, y
+     * luego revisa en segundo plano si la base de datos tiene cambios. Cada
+     * vez que los diccionarios se cargan desde la base de datos, el archivo
+     * se actualiza en segundo plano.
+     *
+     * @param archivo ruta del archivo, o {@code null} para no usar archivo
+     */
+    public void setArchivoDiccionarios(Path archivo) {
+        this.archivoDiccionarios = archivo;
+        this.huellaArchivo = 0L;
+    }
+
+    /**
+     * Obtiene el archivo de diccionarios compilados.
+     *
+     * @return ruta del archivo o {@code null} si no se usa
+     */
+    public Path getArchivoDiccionarios() {
+        return archivoDiccionarios;
+    }
+
+    /**
+     * Guarda en el archivo de diccionarios los diccionarios de la
+     * instantánea actual.
+     *
+     * @return {@code true} si se guardó el archivo; {@code false} si no hay
+     *         archivo configurado, aún no hay instantánea o ocurrió un error
+     */
+    public boolean guardarArchivoDiccionarios() {
+        InstantaneaAnalisis actual = instantanea;
+        if (actual == null) return false;
+        return guardarArchivoDiccionarios(actual.getCompilados());
+    }
+
+    /**
+     * Carga los diccionarios desde la base de datos y, si su contenido es
+     * distinto del de la instantánea actual, la reemplaza por una nueva sin
+     * detener los análisis en curso. También actualiza el archivo de
+     * diccionarios si está desactualizado.
+     *
+     * @return {@code true} si se reemplazó la instantánea
+     */
+    public boolean verificarDiccionarios() {
+        long remota = dao.obtenerVersionDiccionarios();
+        List<DiccionarioCompacto> diccionarios = InstantaneaAnalisis.compilar(dao.listarDiccionariosConPalabras());
+        long huella = InstantaneaAnalisis.huella(diccionarios);
+
+        // La instantánea nueva se construye fuera del candado: mientras tanto
+        // los análisis siguen usando la anterior.
+        boolean reemplazada = false;
+        InstantaneaAnalisis actual = instantanea;
+        long version = versionDiccionarios.get();
+        // Si la versión ya cambió, el próximo análisis reconstruye la
+        // instantánea de todas formas.
+        if (actual != null && actual.getVersion() == version && actual.getHuella() != huella) {
+            InstantaneaAnalisis nueva = construirInstantaneaCompilada(version + 1, diccionarios);
+            synchronized (lockInstantanea) {
+                if (instantanea == actual && versionDiccionarios.compareAndSet(version, version + 1)) {
+                    retirarContadores(actual, nueva);
+                    instantanea = nueva;
+                    reemplazada = true;
+                }
+            }
+        }
+        if (reemplazada || (actual != null && actual.getHuella() == huella)) {
+            versionRemota = remota;
+        }
+
+        if (archivoDiccionarios != null && huella != huellaArchivo) {
+            guardarArchivoDiccionarios(diccionarios);
+        }
+        return reemplazada;
+    }
+
+    /**
+     * Lee los diccionarios del archivo configurado.
+     *
+     * @return diccionarios del archivo, o {@code null} si no hay archivo o
+     *         no se puede leer
+     */
+    private List<DiccionarioCompacto> leerArchivoDiccionarios() {
+        Path archivo = archivoDiccionarios;
+        if (archivo == null || !Files.isRegularFile(archivo)) return null;
+        try {
+            List<DiccionarioCompacto> diccionarios = ArchivoDiccionarios.leer(archivo);
+            huellaArchivo = InstantaneaAnalisis.huella(diccionarios);
+            return diccionarios;
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Escribe diccionarios compilados en el archivo configurado.
+     */
+    private boolean guardarArchivoDiccionarios(List<DiccionarioCompacto> diccionarios) {
+        Path archivo = archivoDiccionarios;
+        if (archivo == null) return false;
+        try {
+            ArchivoDiccionarios.guardar(archivo, diccionarios);
+            huellaArchivo = InstantaneaAnalisis.huella(diccionarios);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Programa en segundo plano la revisión de los diccionarios contra la
+     * base de datos.
+     */
+    private void programarVerificacionDiccionarios() {
+        synchronized (lockTareas) {
+            obtenerProgramador().execute(() -> {
+                try {
+                    verificarDiccionarios();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    /**
+     * Programa en segundo plano el guardado de los diccionarios de una
+     * instantánea, si el archivo no los tiene ya. Los diccionarios se
+     * compilan en ese mismo hilo.
+     */
+    private void programarGuardadoArchivoDiccionarios(InstantaneaAnalisis actual) {
+        synchronized (lockTareas) {
+            obtenerProgramador().execute(() -> {
+                try {
+                    if (actual.getHuella() != huellaArchivo) {
+                        guardarArchivoDiccionarios(actual.getCompilados());
+                    }
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    // ================= SONDEO DE DICCIONARIOS =================
+
+    /**
+     * Programa la revisión periódica de la versión de los diccionarios en el
+     * repositorio, reemplazando una programación anterior. Cada escritura en
+     * diccionarios o palabras incrementa esa versión, así que cuando otra
+     * instancia de la aplicación los modifica, la revisión lo detecta,
+     * vuelve a cargarlos y reemplaza la instantánea sin detener los
+     * análisis en curso. Si la versión no cambió solo se lee un número.
+     *
+     * @param periodoSegundos segundos entre una revisión y la siguiente
+     * @throws IllegalArgumentException si el periodo es menor que 1
+     */
+    public void programarSondeoDiccionarios(long periodoSegundos) {
+        if (periodoSegundos < 1) {
+            throw new IllegalArgumentException("El periodo debe ser al menos 1 segundo: " + periodoSegundos);
+        }
+        synchronized (lockTareas) {
+            if (tareaDiccionarios != null) {
+                tareaDiccionarios.cancel(false);
+            }
+            tareaDiccionarios = obtenerProgramador().scheduleWithFixedDelay(() -> {
+                try {
+                    sondearDiccionarios();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }, periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Detiene la revisión periódica de la versión de los diccionarios.
+     */
+    public void detenerSondeoDiccionarios() {
+        synchronized (lockTareas) {
+            if (tareaDiccionarios != null) {
+                tareaDiccionarios.cancel(false);
+                tareaDiccionarios = null;
+            }
+        }
+    }
+
+    /**
+     * Compara la versión de los diccionarios del repositorio con la de la
+     * instantánea actual y, si cambió, los vuelve a cargar. Mientras no
+     * haya instantánea, o la actual ya esté marcada como desactualizada, no
+     * hace nada, porque el próximo análisis los carga de todas formas.
+     *
+     * @return {@code true} si se reemplazó la instantánea
+     */
+    private boolean sondearDiccionarios() {
+        InstantaneaAnalisis actual = instantanea;
+        if (actual == null || actual.getVersion() != versionDiccionarios.get()) return false;
+
+        long remota = dao.obtenerVersionDiccionarios();
+        if (remota < 0 || remota == versionRemota) return false;
+        return verificarDiccionarios();
+    }
+
+    // ================= COINCIDENCIAS DE DICCIONARIOS =================
+
+    /**
+     * Obtiene cuántas veces sumó al puntaje cada palabra o frase de un tipo
+     * de diccionario en los análisis, sumando las coincidencias guardadas y
+     * las que faltan por guardar. Incluye todas las palabras de los
+     * diccionarios actuales, así que las que quedan en 0 nunca coincidieron
+     * y son candidatas a eliminarse.
+     *
+     * @param tipo tipo de diccionario, sin distinguir mayúsculas
+     * @return término normalizado -&gt; coincidencias, en el orden de los
+     *         diccionarios; vacío si no hay diccionarios de ese tipo
+     */
+    public Map<String, Long> getCoincidenciasPorTermino(String tipo) {
+        return coincidencias(tipo, true);
+    }
+
+    /**
+     * Obtiene cuántas veces sumó cada categoría de un tipo de diccionario en
+     * los análisis, sumando las coincidencias guardadas y las que faltan por
+     * guardar. Incluye todas las categorías de los diccionarios actuales.
+     *
+     * @param tipo tipo de diccionario, sin distinguir mayúsculas
+     * @return categoría -&gt; coincidencias; vacío si no hay diccionarios de
+     *         ese tipo
+     */
+    public Map<String, Long> getCoincidenciasPorCategoria(String tipo) {
+        return coincidencias(tipo, false);
+    }
+
+    /**
+     * Suma en la base de datos las coincidencias contadas desde el último
+     * guardado, de la instantánea actual y de las ya reemplazadas.
+     *
+     * @return cantidad de términos con coincidencias guardadas
+     */
+    public int guardarCoincidencias() {
+        synchronized (lockCoincidencias) {
+            InstantaneaAnalisis actual = instantanea;
+            if (actual != null) {
+                actual.getAnalizador().getContadores().extraerPendientes(terminosPendientes, categoriasPendientes);
+            }
 
-        List<Diccionario> diccionarios = dao.listarDiccionarios();
+            Set<String> tipos = new HashSet<>(terminosPendientes.keySet());
+            tipos.addAll(categoriasPendientes.keySet());
+            int guardados = 0;
+            for (String tipo : tipos) {
+                Map<String, Long> terminos = terminosPendientes.getOrDefault(tipo, Collections.emptyMap());
+                dao.guardarCoincidencias(tipo, terminos,
+                        categoriasPendientes.getOrDefault(tipo, Collections.emptyMap()));
+                guardados += terminos.size();
+            }
+            terminosPendientes.clear();
+            categoriasPendientes.clear();
+            return guardados;
+        }
+    }
 
-        Diccionario dicEmocional = null;
-        Diccionario dicTecnico   = null;
+    /**
+     * Programa el guardado periódico de las coincidencias de los
+     * diccionarios, reemplazando una programación anterior. La tarea corre
+     * en un hilo de fondo que no impide cerrar la aplicación.
+     *
+     * @param periodoSegundos segundos entre una ejecución y la siguiente
+     * @throws IllegalArgumentException si el periodo es menor que 1
+     */
+    public void programarGuardadoCoincidencias(long periodoSegundos) {
+        if (periodoSegundos < 1) {
+            throw new IllegalArgumentException("El periodo debe ser al menos 1 segundo: " + periodoSegundos);
+        }
+        synchronized (lockTareas) {
+            if (tareaCoincidencias != null) {
+                tareaCoincidencias.cancel(false);
+            }
+            tareaCoincidencias = obtenerProgramador().scheduleWithFixedDelay(() -> {
+                try {
+                    guardarCoincidencias();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }, periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+        }
+    }
 
-        for (Diccionario d : diccionarios) {
-            if ("emocional".equalsIgnoreCase(d.getTipo())) {
-                dicEmocional = d;
-            } else if ("tecnico".equalsIgnoreCase(d.getTipo())) {
-                dicTecnico = d;
+    /**
+     * Detiene el guardado periódico de las coincidencias de los diccionarios.
+     */
+    public void detenerGuardadoCoincidencias() {
+        synchronized (lockTareas) {
+            if (tareaCoincidencias != null) {
+                tareaCoincidencias.cancel(false);
+                tareaCoincidencias = null;
             }
         }
+    }
 
-        if (dicEmocional != null) {
-            List<Palabra> emoPalabras =
-                    dao.listarPalabrasPorDiccionario(dicEmocional.getId());
-            dicEmocional.setPalabras(emoPalabras);
+    /**
+     * Combina las coincidencias guardadas, las pendientes de instantáneas
+     * reemplazadas y las aún sin guardar de la instantánea actual.
+     */
+    private Map<String, Long> coincidencias(String tipo, boolean porTermino) {
+        if (tipo == null) return Collections.emptyMap();
+
+        ContadoresCoincidencias contadores = obtenerInstantanea().getAnalizador().getContadores();
+        String clave = tipo.toLowerCase(Locale.ROOT);
+        synchronized (lockCoincidencias) {
+            Map<String, Long> conteo = porTermino
+                    ? contadores.porTermino(tipo, true)
+                    : contadores.porCategoria(tipo, true);
+            Map<String, Long> guardadas = porTermino
+                    ? dao.listarCoincidenciasPorTermino(clave)
+                    : dao.listarCoincidenciasPorCategoria(clave);
+            Map<String, Long> pendientes = (porTermino ? terminosPendientes : categoriasPendientes)
+                    .getOrDefault(clave, Collections.emptyMap());
+            for (Map.Entry<String, Long> e : conteo.entrySet()) {
+                e.setValue(e.getValue()
+                        + guardadas.getOrDefault(e.getKey(), 0L)
+                        + pendientes.getOrDefault(e.getKey(), 0L));
+            }
+            return Collections.unmodifiableMap(conteo);
         }
+    }
+
+    /**
+     * Guarda como pendientes las coincidencias de una instantánea que se
+     * reemplaza por otra con un vocabulario distinto. Debe llamarse con
+     * {@link #lockInstantanea} tomado. Las coincidencias de análisis que
+     * todavía usan la instantánea anterior después de este punto no se
+     * cuentan.
+     */
+    private void retirarContadores(InstantaneaAnalisis anterior, InstantaneaAnalisis nueva) {
+        if (anterior == null) return;
 
-        if (dicTecnico != null) {
-            List<Palabra> tecPalabras =
-                    dao.listarPalabrasPorDiccionario(dicTecnico.getId());
-            dicTecnico.setPalabras(tecPalabras);
+        ContadoresCoincidencias contadores = anterior.getAnalizador().getContadores();
+        if (contadores == nueva.getAnalizador().getContadores()) return;
+        synchronized (lockCoincidencias) {
+            contadores.extraerPendientes(terminosPendientes, categoriasPendientes);
+        }
+    }
+
+    // ================= CACHÉ DE ANÁLISIS =================
+
+    /**
+     * Reemplaza la caché de resultados de {@link #analizarDescripcion(String)}
+     * por una vacía con la configuración indicada. Las descripciones con la
+     * misma secuencia de palabras normalizadas comparten resultado mientras
+     * los diccionarios no cambien.
+     *
+     * @param capacidad cantidad máxima de resultados; 0 desactiva la caché
+     * @param ttlMillis antigüedad máxima de un resultado en milisegundos; 0
+     *                  para que no venzan
+     * @throws IllegalArgumentException si algún valor es negativo
+     */
+    public void configurarCacheAnalisis(int capacidad, long ttlMillis) {
+        if (capacidad < 0 || ttlMillis < 0) {
+            throw new IllegalArgumentException("La capacidad y la antigüedad no pueden ser negativas");
         }
+        cacheAnalisis = new CacheResultados(capacidad, ttlMillis);
+    }
+
+    /**
+     * Obtiene las métricas de la caché de análisis desde su última
+     * configuración.
+     *
+     * @return aciertos, fallos, expulsiones, tamaño y tasa de aciertos
+     */
+    public EstadisticasCache getEstadisticasCacheAnalisis() {
+        return cacheAnalisis.estadisticas();
+    }
 
-        AnalisisBow analizador = new AnalisisBow(dicTecnico, dicEmocional);
+    /**
+     * Vacía la caché de análisis sin cambiar su configuración. No hace falta
+     * llamarlo al editar diccionarios: los resultados anteriores se
+     * descartan solos al cambiar la versión.
+     */
+    public void limpiarCacheAnalisis() {
+        cacheAnalisis.limpiar();
+    }
 
-        String estadoAnimo   = analizador.detectarEstadoAnimo(descripcion);
-        String categoriaTec  = analizador.sugerirCategoriaTecnica(descripcion);
+    // ================= ANÁLISIS POR LOTES =================
 
-        Map<String, Integer> tfMap = analizador.vectorizarTFMap(descripcion);
-        String tfComoTexto = analizador.tfMapToString(tfMap);
+    /**
+     * Obtiene la cantidad de hilos que procesan un lote.
+     *
+     * @return paralelismo de los lotes
+     */
+    public int getParalelismoLote() {
+        return paralelismoLote;
+    }
 
-        StringBuilder sb = new StringBuilder();
-        for (String palabra : tfMap.keySet()) {
-            if (sb.length() > 0) sb.append(", ");
-            sb.append(palabra);
+    /**
+     * Cambia la cantidad de hilos que procesan un lote. Con 1 el lote se
+     * analiza en el hilo que lo solicita. Los lotes en curso terminan con
+     * el paralelismo anterior.
+     *
+     * @param paralelismo cantidad de hilos, al menos 1
+     * @throws IllegalArgumentException si el paralelismo es menor que 1
+     */
+    public void setParalelismoLote(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1: " + paralelismo);
         }
-        String palabrasDetectadas = sb.toString();
+        synchronized (lockLote) {
+            paralelismoLote = paralelismo;
+            // El pool anterior termina los lotes en curso y libera sus hilos.
+            ForkJoinPool anterior = poolLote;
+            poolLote = null;
+            if (anterior != null) {
+                anterior.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Analiza varias descripciones con una sola instantánea de los
+     * diccionarios, repartiéndolas entre varios hilos con fork/join.
+     *
+     * @param descripciones descripciones a analizar
+     * @return lista de solo lectura con un resultado por descripción, en el
+     *         mismo orden
+     */
+    public List<ResultadoAnalisis> analizarLote(List<String> descripciones) {
+        if (descripciones == null || descripciones.isEmpty()) return Collections.emptyList();
+
+        AnalisisBow analizador = obtenerInstantanea().getAnalizador();
+        String[] entrada = descripciones.toArray(new String[0]);
+        return Collections.unmodifiableList(Arrays.asList(analizarEnPool(analizador, entrada)));
+    }
+
+    /**
+     * Analiza un flujo de descripciones, por ejemplo uno construido a partir
+     * de {@link #streamTickets()}. Las descripciones se toman en bloques y
+     * cada bloque se reparte entre los hilos como en
+     * {@link #analizarLote(List)}, así que el flujo completo nunca se carga
+     * en memoria. Todo el flujo usa la instantánea de diccionarios vigente
+     * al llamar a este método. Cerrar el flujo devuelto cierra el original.
+     *
+     * @param descripciones flujo de descripciones
+     * @return flujo perezoso de resultados, en el mismo orden
+     */
+    public Stream<ResultadoAnalisis> analizarLote(Stream<String> descripciones) {
+        AnalisisBow analizador = obtenerInstantanea().getAnalizador();
+        Iterator<String> origen = descripciones.iterator();
+
+        Iterator<ResultadoAnalisis> resultados = new Iterator<>() {
+            private ResultadoAnalisis[] bloque = new ResultadoAnalisis[0];
+            private int posicion;
+
+            @Override
+            public boolean hasNext() {
+                if (posicion < bloque.length) return true;
+                if (!origen.hasNext()) return false;
+
+                String[] entrada = new String[TAMANO_BLOQUE_FLUJO];
+                int cantidad = 0;
+                while (cantidad < entrada.length && origen.hasNext()) {
+                    entrada[cantidad++] = origen.next();
+                }
+                bloque = analizarEnPool(analizador, Arrays.copyOf(entrada, cantidad));
+                posicion = 0;
+                return true;
+            }
+
+            @Override
+            public ResultadoAnalisis next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return bloque[posicion++];
+            }
+        };
+
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(resultados, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(descripciones::close);
+    }
+
+    /**
+     * Analiza un arreglo de descripciones en el pool de lotes, o en el hilo
+     * actual si el paralelismo es 1.
+     */
+    private ResultadoAnalisis[] analizarEnPool(AnalisisBow analizador, String[] descripciones) {
+        ResultadoAnalisis[] resultados = new ResultadoAnalisis[descripciones.length];
+        int paralelismo = paralelismoLote;
+
+        if (paralelismo == 1 || descripciones.length == 1) {
+            AnalisisLote.analizarRango(analizador, descripciones, resultados, 0, descripciones.length);
+        } else {
+            while (true) {
+                try {
+                    obtenerPoolLote().invoke(new AnalisisLote(analizador, descripciones, resultados, paralelismo));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    // El pool se reemplazó entre obtenerlo y usarlo: se usa el nuevo.
+                }
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Obtiene el pool de los lotes, creándolo si hace falta.
+     */
+    private ForkJoinPool obtenerPoolLote() {
+        ForkJoinPool pool = poolLote;
+        if (pool != null) return pool;
+
+        synchronized (lockLote) {
+            if (poolLote == null) {
+                poolLote = new ForkJoinPool(paralelismoLote);
+            }
+            return poolLote;
+        }
+    }
+
+    // ================= CLASIFICADOR BAYESIANO =================
+
+    /**
+     * Entrena un clasificador Naive Bayes con todos los tickets registrados,
+     * usando como etiqueta el nombre del departamento de cada ticket. Los
+     * tickets se leen como flujo, sin cargarlos todos en memoria, y se usan
+     * las stopwords y la opción de stemming vigentes. El modelo reemplaza al
+     * anterior al terminar; mientras tanto el anterior sigue respondiendo.
+     *
+     * @return modelo entrenado
+     */
+    public ModeloBayes entrenarClasificador() {
+        EntrenadorBayes entrenador = new EntrenadorBayes(Stopwords.obtener(idiomaStopwords), stemming);
+        try (Stream<Ticket> tickets = dao.streamTickets()) {
+            tickets.forEach(t -> {
+                if (t.getDepartamento() != null) {
+                    entrenador.agregar(t.getDescripcion(), t.getDepartamento().getNombre());
+                }
+            });
+        }
+
+        ModeloBayes modelo = entrenador.compilar();
+        clasificador = modelo;
+        return modelo;
+    }
+
+    /**
+     * Obtiene el clasificador entrenado.
+     *
+     * @return modelo vigente o {@code null} si aún no se ha entrenado
+     */
+    public ModeloBayes getClasificador() {
+        return clasificador;
+    }
+
+    /**
+     * Sugiere el departamento que debería atender una descripción según el
+     * clasificador entrenado con los tickets históricos. Es una alternativa
+     * a {@link AnalisisBow#sugerirCategoriaTecnica(String)} que no depende
+     * de las palabras registradas en los diccionarios.
+     *
+     * @param descripcion descripción del ticket
+     * @return nombre del departamento sugerido o {@code null} si no hay un
+     *         clasificador entrenado
+     */
+    public String sugerirDepartamento(String descripcion) {
+        ModeloBayes modelo = clasificador;
+        return modelo != null ? modelo.sugerirCategoria(descripcion) : null;
+    }
+
+    /**
+     * Analiza una descripción de ticket para determinar el estado de ánimo
+     * y la categoría técnica predominante.
+     *
+     * @param descripcion descripción del ticket
+     * @return arreglo con dos posiciones:
+     *         [0] estado de ánimo,
+     *         [1] categoría técnica
+     * @deprecated usar {@link #analizarDescripcion(String)}, que devuelve el
+     *             resultado estructurado
+     */
+    @Deprecated
+    public String[] analizarDescripcionTicket(String descripcion) {
+        ResultadoAnalisis r = analizarDescripcion(descripcion);
+        return new String[]{r.getEstadoAnimo(), r.getCategoriaTecnica()};
+    }
+
+    /**
+     * Analiza una descripción de ticket de forma detallada, incluyendo
+     * el vector de frecuencias y las palabras detectadas.
+     *
+     * @param descripcion descripción del ticket
+     * @return arreglo con cuatro posiciones:
+     *         [0] estado de ánimo,
+     *         [1] categoría técnica,
+     *         [2] mapa TF como texto,
+     *         [3] lista de palabras detectadas
+     * @deprecated usar {@link #analizarDescripcion(String)}, que devuelve el
+     *             resultado estructurado
+     */
+    @Deprecated
+    public String[] analizarDescripcionTicketDetallado(String descripcion) {
+        AnalisisBow analizador = obtenerInstantanea().getAnalizador();
+        ResultadoAnalisis r = analizarDescripcion(descripcion);
+
+        String tfComoTexto = analizador.tfMapToString(r.getTf());
+        String palabrasDetectadas = String.join(", ", r.getTf().keySet());
 
-        return new String[]{estadoAnimo, categoriaTec, tfComoTexto, palabrasDetectadas};
+        return new String[]{r.getEstadoAnimo(), r.getCategoriaTecnica(), tfComoTexto, palabrasDetectadas};
     }
 }
@@ -0,0 +1,287 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Índice de borrados simétricos (al estilo SymSpell) sobre los tokens de un
+ * {@link Vocabulario}, para tolerar errores de tipeo como "conecsion" o
+ * "impresoar".
+ *
+ * <p>Al construirlo se generan, para cada token del vocabulario, todas las
+ * variantes que resultan de borrarle hasta {@link #getDistanciaMaxima()}
+ * letras, y se guarda qué tokens produce cada variante. Para corregir una
+ * palabra basta generar sus propias variantes por borrado y buscarlas en
+ * el índice: dos palabras a distancia de edición {@code k} siempre
+ * comparten una variante con {@code k} borrados o menos entre ambas. Los
+ * candidatos encontrados se confirman con la distancia de
+ * Damerau-Levenshtein restringida. Así el costo de una consulta depende del
+ * largo de la palabra y no del tamaño de los diccionarios.</p>
+ *
+ * <p>Las variantes se numeran con una {@link TablaTerminos} y los tokens de
+ * cada variante se guardan seguidos en un arreglo de enteros. Una consulta
+ * usa buffers reutilizables por hilo y no crea objetos.</p>
+ *
+ * <p>Una instancia no cambia después de construida, por lo que puede
+ * compartirse entre hilos.</p>
+ */
+final class IndiceDifuso {
+
+    /** Largo mínimo de una palabra para corregirla con distancia 1. */
+    static final int LARGO_MINIMO = 4;
+
+    /** Largo mínimo de una palabra para corregirla con distancia 2. */
+    static final int LARGO_MINIMO_DISTANCIA_2 = 7;
+
+    /** Largo máximo de una palabra que se intenta corregir. */
+    static final int LARGO_MAXIMO = 32;
+
+    /** Buffers de consulta, uno por hilo. */
+    private static final ThreadLocal<Consulta> CONSULTA = ThreadLocal.withInitial(Consulta::new);
+
+    /** Cantidad máxima de letras borradas o cambiadas que se toleran. */
+    private final int distanciaMaxima;
+
+    /** Stemmer de los tokens, o {@code null} si no se reducen a raíces. */
+    private final StemmerEspanol stemmer;
+
+    /** Caracteres de cada token del vocabulario, por identificador de token. */
+    private final char[][] tokens;
+
+    /** Variantes por borrado de todos los tokens. */
+    private final TablaTerminos variantes;
+
+    /**
+     * Primer token de cada variante; la posición {@code v + 1} es el fin
+     * (exclusivo) de los tokens de la variante {@code v}.
+     */
+    private final int[] iniciosVariante;
+
+    /** Tokens de cada variante, seguidos y en orden de identificador. */
+    private final int[] tokensVariante;
+
+    /**
+     * Construye el índice.
+     *
+     * @param vocabulario     vocabulario cuyos tokens se indexan
+     * @param distanciaMaxima distancia de edición máxima, 1 o 2
+     * @param stemmer         stemmer que se aplica a las palabras consultadas,
+     *                        o {@code null}; debe ser el del vocabulario
+     */
+    IndiceDifuso(Vocabulario vocabulario, int distanciaMaxima, StemmerEspanol stemmer) {
+        this.distanciaMaxima = distanciaMaxima;
+        this.stemmer = stemmer;
+
+        int cantidad = vocabulario.cantidadTokens();
+        this.tokens = new char[cantidad][];
+        this.variantes = new TablaTerminos(cantidad * 8);
+
+        // Pares (variante, token) en orden de token; luego se agrupan por variante.
+        int[] parVariante = new int[Math.max(16, cantidad * 8)];
+        int[] parToken = new int[parVariante.length];
+        int pares = 0;
+
+        Set<String> propias = new HashSet<>();
+        for (int id = 0; id < cantidad; id++) {
+            String token = vocabulario.token(id);
+            tokens[id] = token.toCharArray();
+            if (token.length() > LARGO_MAXIMO) continue;
+
+            propias.clear();
+            propias.add(token);
+            agregarBorrados(token, distanciaMaxima, 0, propias);
+            for (String variante : propias) {
+                if (pares == parVariante.length) {
+                    parVariante = Arrays.copyOf(parVariante, pares * 2);
+                    parToken = Arrays.copyOf(parToken, pares * 2);
+                }
+                parVariante[pares] = variantes.agregar(variante);
+                parToken[pares] = id;
+                pares++;
+            }
+        }
+
+        int cantidadVariantes = variantes.tamano();
+        this.iniciosVariante = new int[cantidadVariantes + 1];
+        for (int p = 0; p < pares; p++) {
+            iniciosVariante[parVariante[p] + 1]++;
+        }
+        for (int v = 0; v < cantidadVariantes; v++) {
+            iniciosVariante[v + 1] += iniciosVariante[v];
+        }
+        this.tokensVariante = new int[pares];
+        int[] siguiente = Arrays.copyOf(iniciosVariante, cantidadVariantes);
+        for (int p = 0; p < pares; p++) {
+            tokensVariante[siguiente[parVariante[p]]++] = parToken[p];
+        }
+    }
+
+    /**
+     * Obtiene la distancia de edición máxima que tolera el índice.
+     *
+     * @return distancia máxima
+     */
+    int getDistanciaMaxima() {
+        return distanciaMaxima;
+    }
+
+    /**
+     * Busca el token del vocabulario más cercano a una palabra que no
+     * aparece tal cual. Las palabras de menos de {@value #LARGO_MINIMO}
+     * letras, las que tienen dígitos y las de más de {@value #LARGO_MAXIMO}
+     * no se corrigen; hasta {@value #LARGO_MINIMO_DISTANCIA_2} letras se
+     * tolera solo una edición. Entre dos candidatos a la misma distancia
+     * gana el de menor identificador, es decir, el primero de los
+     * diccionarios.
+     *
+     * @param buffer   palabra normalizada, desde la posición 0
+     * @param longitud cantidad de caracteres de la palabra
+     * @return identificador del token más cercano o
+     *         {@link TablaTerminos#NO_ENCONTRADO}
+     */
+    int corregir(char[] buffer, int longitud) {
+        if (longitud < LARGO_MINIMO || longitud > LARGO_MAXIMO) return TablaTerminos.NO_ENCONTRADO;
+        for (int i = 0; i < longitud; i++) {
+            if (buffer[i] >= '0' && buffer[i] <= '9') return TablaTerminos.NO_ENCONTRADO;
+        }
+        int permitida = longitud < LARGO_MINIMO_DISTANCIA_2 ? Math.min(1, distanciaMaxima) : distanciaMaxima;
+
+        if (stemmer != null) {
+            longitud = stemmer.longitudRaiz(buffer, longitud);
+        }
+
+        Consulta c = CONSULTA.get();
+        c.iniciar(buffer, longitud, permitida);
+        char[] palabra = c.palabra;
+        char[] variante = c.variante;
+
+        revisar(c, palabra, longitud);
+        for (int i = 0; i < longitud; i++) {
+            borrar(palabra, longitud, i, variante);
+            revisar(c, variante, longitud - 1);
+        }
+        if (permitida >= 2 && c.mejorDistancia > 1) {
+            for (int i = 0; i < longitud; i++) {
+                borrar(palabra, longitud, i, variante);
+                for (int j = i; j < longitud - 1; j++) {
+                    borrar(variante, longitud - 1, j, c.variante2);
+                    revisar(c, c.variante2, longitud - 2);
+                }
+            }
+        }
+        return c.mejor;
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Busca una variante de la consulta y confirma la distancia de cada
+     * token que la comparte.
+     */
+    private void revisar(Consulta c, char[] variante, int longitud) {
+        int v = variantes.buscar(variante, 0, longitud);
+        if (v == TablaTerminos.NO_ENCONTRADO) return;
+
+        for (int k = iniciosVariante[v]; k < iniciosVariante[v + 1]; k++) {
+            int token = tokensVariante[k];
+            if (token == c.mejor) continue;
+            int d = c.distancia(tokens[token]);
+            if (d < c.mejorDistancia || (d == c.mejorDistancia && token < c.mejor)) {
+                c.mejorDistancia = d;
+                c.mejor = token;
+            }
+        }
+    }
+
+    /**
+     * Copia una palabra en el destino sin el carácter de la posición indicada.
+     */
+    private static void borrar(char[] origen, int longitud, int posicion, char[] destino) {
+        System.arraycopy(origen, 0, destino, 0, posicion);
+        System.arraycopy(origen, posicion + 1, destino, posicion, longitud - posicion - 1);
+    }
+
+    /**
+     * Agrega al conjunto las variantes de una palabra con hasta
+     * {@code restantes} borrados, borrando en orden de posición para no
+     * repetir combinaciones.
+     */
+    private static void agregarBorrados(String palabra, int restantes, int desde, Set<String> destino) {
+        if (restantes == 0) return;
+        for (int i = desde; i < palabra.length(); i++) {
+            String variante = palabra.substring(0, i) + palabra.substring(i + 1);
+            if (!variante.isEmpty()) {
+                destino.add(variante);
+                agregarBorrados(variante, restantes - 1, i, destino);
+            }
+        }
+    }
+
+    /**
+     * Estado y buffers de una consulta. La distancia de Damerau-Levenshtein
+     * restringida se calcula con tres filas reutilizables.
+     */
+    private static final class Consulta {
+        final char[] palabra = new char[LARGO_MAXIMO];
+        final char[] variante = new char[LARGO_MAXIMO];
+        final char[] variante2 = new char[LARGO_MAXIMO];
+        private int longitud;
+        private int permitida;
+        private int[] anterior2 = new int[LARGO_MAXIMO + 1];
+        private int[] anterior = new int[LARGO_MAXIMO + 1];
+        private int[] actual = new int[LARGO_MAXIMO + 1];
+        int mejor;
+        int mejorDistancia;
+
+        void iniciar(char[] buffer, int longitud, int permitida) {
+            System.arraycopy(buffer, 0, palabra, 0, longitud);
+            this.longitud = longitud;
+            this.permitida = permitida;
+            this.mejor = TablaTerminos.NO_ENCONTRADO;
+            this.mejorDistancia = permitida + 1;
+        }
+
+        /**
+         * Calcula la distancia entre la palabra consultada y un token, o
+         * devuelve un valor mayor que la distancia permitida en cuanto se
+         * sabe que la supera.
+         */
+        int distancia(char[] token) {
+            int m = longitud;
+            int n = token.length;
+            if (Math.abs(m - n) > permitida) return permitida + 1;
+            if (n + 1 > actual.length) {
+                anterior2 = new int[n + 1];
+                anterior = new int[n + 1];
+                actual = new int[n + 1];
+            }
+
+            for (int j = 0; j <= n; j++) {
+                anterior[j] = j;
+            }
+            for (int i = 1; i <= m; i++) {
+                actual[0] = i;
+                int minimoFila = i;
+                char a = palabra[i - 1];
+                for (int j = 1; j <= n; j++) {
+                    char b = token[j - 1];
+                    int d = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1),
+                            anterior[j - 1] + (a == b ? 0 : 1));
+                    if (i > 1 && j > 1 && a == token[j - 2] && palabra[i - 2] == b) {
+                        d = Math.min(d, anterior2[j - 2] + 1);
+                    }
+                    actual[j] = d;
+                    minimoFila = Math.min(minimoFila, d);
+                }
+                if (minimoFila > permitida) return permitida + 1;
+
+                int[] t = anterior2;
+                anterior2 = anterior;
+                anterior = actual;
+                actual = t;
+            }
+            return anterior[n];
+        }
+    }
+}
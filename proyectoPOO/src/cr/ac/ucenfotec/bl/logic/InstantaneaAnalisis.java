@@ -0,0 +1,314 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Diccionario;
+import cr.ac.ucenfotec.bl.entities.Palabra;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fotografía inmutable de los diccionarios y del analizador construido a
+ * partir de ellos. {@link Gestor} comparte una misma instancia entre todos
+ * los hilos y la reemplaza completa cuando los diccionarios cambian.
+ *
+ * <p>Los diccionarios también se guardan compilados en
+ * {@link DiccionarioCompacto}, uno por diccionario y en el mismo orden.
+ * Cuando la instantánea se arma desde la base de datos se compilan la
+ * primera vez que se piden, para no demorar el primer análisis; cuando se
+ * arma desde un archivo de diccionarios ya vienen compilados.</p>
+ */
+final class InstantaneaAnalisis {
+
+    /** Versión de los diccionarios con la que se construyó la instantánea. */
+    private final long version;
+
+    /** Diccionarios de la instantánea, compartidos con sus copias. */
+    private final Fuente fuente;
+
+    /** Stopwords con las que se construyó el analizador. */
+    private final ConjuntoStopwords stopwords;
+
+    /** Analizador listo para usar. */
+    private final AnalisisBow analizador;
+
+    /**
+     * Construye la instantánea a partir de los diccionarios cargados.
+     *
+     * @param version         versión de los diccionarios
+     * @param diccionarios    diccionarios con sus palabras
+     * @param stopwords       stopwords a descartar durante el análisis
+     * @param stemming        {@code true} para comparar las palabras por su raíz
+     * @param distanciaDifusa distancia de edición máxima de la corrección de
+     *                        errores de tipeo, o 0 para no corregir
+     * @param pesoDifuso      peso de una coincidencia corregida
+     * @param corpus          estadísticas para ponderar con TF-IDF, o
+     *                        {@code null} para sumar coincidencias
+     */
+    InstantaneaAnalisis(long version,
+                        List<Diccionario> diccionarios,
+                        ConjuntoStopwords stopwords,
+                        boolean stemming,
+                        int distanciaDifusa,
+                        double pesoDifuso,
+                        EstadisticasCorpus corpus) {
+        this(version, new Fuente(copiar(diccionarios), null), stopwords, stemming,
+                distanciaDifusa, pesoDifuso, corpus);
+    }
+
+    /**
+     * Construye la instantánea a partir de diccionarios ya compilados, por
+     * ejemplo los de un archivo de diccionarios.
+     *
+     * @param version         versión de los diccionarios
+     * @param compilados      diccionarios compilados, uno por diccionario
+     * @param stopwords       stopwords a descartar durante el análisis
+     * @param stemming        {@code true} para comparar las palabras por su raíz
+     * @param distanciaDifusa distancia de edición máxima de la corrección de
+     *                        errores de tipeo, o 0 para no corregir
+     * @param pesoDifuso      peso de una coincidencia corregida
+     * @param corpus          estadísticas para ponderar con TF-IDF, o
+     *                        {@code null} para sumar coincidencias
+     * @return instantánea
+     */
+    static InstantaneaAnalisis desdeCompilados(long version,
+                                               List<DiccionarioCompacto> compilados,
+                                               ConjuntoStopwords stopwords,
+                                               boolean stemming,
+                                               int distanciaDifusa,
+                                               double pesoDifuso,
+                                               EstadisticasCorpus corpus) {
+        List<Diccionario> expandidos = new ArrayList<>(compilados.size());
+        for (DiccionarioCompacto d : compilados) {
+            Diccionario expandido = new Diccionario(d.getTipo());
+            expandido.setPalabras(Collections.unmodifiableList(d.getPalabras()));
+            expandidos.add(expandido);
+        }
+        Fuente fuente = new Fuente(Collections.unmodifiableList(expandidos),
+                Collections.unmodifiableList(new ArrayList<>(compilados)));
+        return new InstantaneaAnalisis(version, fuente, stopwords, stemming, distanciaDifusa, pesoDifuso, corpus);
+    }
+
+    private InstantaneaAnalisis(long version,
+                                Fuente fuente,
+                                ConjuntoStopwords stopwords,
+                                boolean stemming,
+                                int distanciaDifusa,
+                                double pesoDifuso,
+                                EstadisticasCorpus corpus) {
+        this.version = version;
+        this.fuente = fuente;
+        this.stopwords = stopwords;
+        AnalisisBow base = new AnalisisBow(fuente.diccionarios, stopwords, stemming);
+        if (distanciaDifusa > 0) {
+            base = base.conCorreccionDifusa(distanciaDifusa, pesoDifuso);
+        }
+        this.analizador = corpus != null ? base.conPesosIdf(corpus) : base;
+    }
+
+    /**
+     * Crea una copia de otra instantánea con otro analizador.
+     */
+    private InstantaneaAnalisis(InstantaneaAnalisis base, long version, AnalisisBow analizador) {
+        this.version = version;
+        this.fuente = base.fuente;
+        this.stopwords = base.stopwords;
+        this.analizador = analizador;
+    }
+
+    /**
+     * Crea una instantánea con los mismos diccionarios y los pesos TF-IDF
+     * recalculados a partir de las estadísticas actuales del corpus. No
+     * vuelve a compilar el vocabulario.
+     *
+     * @param version versión de la nueva instantánea
+     * @param corpus  estadísticas del corpus
+     * @return instantánea con los pesos actualizados
+     */
+    InstantaneaAnalisis conPesosIdf(long version, EstadisticasCorpus corpus) {
+        return new InstantaneaAnalisis(this, version, analizador.conPesosIdf(corpus));
+    }
+
+    /**
+     * Obtiene la versión de los diccionarios de esta instantánea.
+     *
+     * @return versión de los diccionarios
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtiene los diccionarios de esta instantánea.
+     *
+     * @return lista de solo lectura de diccionarios
+     */
+    List<Diccionario> getDiccionarios() {
+        return fuente.diccionarios;
+    }
+
+    /**
+     * Obtiene los diccionarios compilados de esta instantánea,
+     * compilándolos si hace falta.
+     *
+     * @return lista de solo lectura, uno por diccionario en el mismo orden
+     */
+    List<DiccionarioCompacto> getCompilados() {
+        return fuente.compilados();
+    }
+
+    /**
+     * Obtiene la huella del contenido de los diccionarios. Dos instantáneas
+     * con los mismos diccionarios tienen la misma huella, sin importar la
+     * versión ni las opciones del analizador.
+     *
+     * @return huella de los diccionarios
+     */
+    long getHuella() {
+        return fuente.huella();
+    }
+
+    /**
+     * Obtiene el diccionario compilado de un tipo, con las palabras de todos
+     * los diccionarios de ese tipo. Si un término se repite, conserva la
+     * categoría del primer diccionario.
+     *
+     * @param tipo tipo del diccionario, sin distinguir mayúsculas
+     * @return diccionario compacto o {@code null} si no hay diccionarios de
+     *         ese tipo
+     */
+    DiccionarioCompacto getDiccionario(String tipo) {
+        return tipo == null ? null : fuente.porTipo(tipo.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Obtiene el conjunto de stopwords de esta instantánea.
+     *
+     * @return conjunto de stopwords
+     */
+    ConjuntoStopwords getStopwords() {
+        return stopwords;
+    }
+
+    /**
+     * Obtiene el analizador de esta instantánea.
+     *
+     * @return analizador compartido
+     */
+    AnalisisBow getAnalizador() {
+        return analizador;
+    }
+
+    /**
+     * Compila cada diccionario en un diccionario compacto, en el mismo
+     * orden. Los diccionarios sin tipo se ignoran.
+     *
+     * @param diccionarios diccionarios con sus palabras
+     * @return diccionarios compilados
+     */
+    static List<DiccionarioCompacto> compilar(List<Diccionario> diccionarios) {
+        List<DiccionarioCompacto> compilados = new ArrayList<>(diccionarios.size());
+        for (Diccionario d : diccionarios) {
+            if (d == null || d.getTipo() == null) continue;
+            compilados.add(DiccionarioCompacto.compilar(d));
+        }
+        return compilados;
+    }
+
+    /**
+     * Combina las huellas de una lista de diccionarios compilados.
+     *
+     * @param diccionarios diccionarios compilados
+     * @return huella de la lista
+     */
+    static long huella(List<DiccionarioCompacto> diccionarios) {
+        long h = diccionarios.size();
+        for (DiccionarioCompacto d : diccionarios) {
+            h = h * 31 + d.huella();
+        }
+        return h;
+    }
+
+    // ------------ INTERNOS ------------
+
+    private static List<Diccionario> copiar(List<Diccionario> diccionarios) {
+        List<Diccionario> copias = new ArrayList<>(diccionarios.size());
+        for (Diccionario d : diccionarios) {
+            if (d == null || d.getTipo() == null) continue;
+            Diccionario copia = new Diccionario(d.getTipo());
+            copia.setId(d.getId());
+            copia.setPalabras(Collections.unmodifiableList(new ArrayList<>(d.getPalabras())));
+            copias.add(copia);
+        }
+        return Collections.unmodifiableList(copias);
+    }
+
+    /**
+     * Diccionarios de una instantánea y sus versiones compiladas, que se
+     * calculan una sola vez y se comparten entre la instantánea y sus
+     * copias con otros pesos.
+     */
+    private static final class Fuente {
+        final List<Diccionario> diccionarios;
+        private volatile List<DiccionarioCompacto> compilados;
+        private volatile long huella;
+        private final ConcurrentHashMap<String, DiccionarioCompacto> porTipo = new ConcurrentHashMap<>();
+
+        Fuente(List<Diccionario> diccionarios, List<DiccionarioCompacto> compilados) {
+            this.diccionarios = diccionarios;
+            if (compilados != null) {
+                this.huella = InstantaneaAnalisis.huella(compilados);
+                this.compilados = compilados;
+            }
+        }
+
+        List<DiccionarioCompacto> compilados() {
+            List<DiccionarioCompacto> lista = compilados;
+            if (lista != null) return lista;
+
+            synchronized (this) {
+                if (compilados == null) {
+                    List<DiccionarioCompacto> nuevos = Collections.unmodifiableList(compilar(diccionarios));
+                    huella = InstantaneaAnalisis.huella(nuevos);
+                    compilados = nuevos;
+                }
+                return compilados;
+            }
+        }
+
+        long huella() {
+            compilados();
+            return huella;
+        }
+
+        /**
+         * Obtiene el diccionario combinado de un tipo. Un tipo con un solo
+         * diccionario usa ese mismo; los demás se combinan la primera vez.
+         */
+        DiccionarioCompacto porTipo(String clave) {
+            DiccionarioCompacto combinado = porTipo.get(clave);
+            if (combinado != null) return combinado;
+
+            List<DiccionarioCompacto> delTipo = new ArrayList<>();
+            for (DiccionarioCompacto d : compilados()) {
+                if (d.getTipo().toLowerCase(Locale.ROOT).equals(clave)) {
+                    delTipo.add(d);
+                }
+            }
+            if (delTipo.isEmpty()) return null;
+            if (delTipo.size() == 1) {
+                combinado = delTipo.get(0);
+            } else {
+                List<Palabra> palabras = new ArrayList<>();
+                for (DiccionarioCompacto d : delTipo) {
+                    palabras.addAll(d.getPalabras());
+                }
+                combinado = DiccionarioCompacto.compilar(delTipo.get(0).getTipo(), palabras);
+            }
+            DiccionarioCompacto anterior = porTipo.putIfAbsent(clave, combinado);
+            return anterior != null ? anterior : combinado;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clasificador Naive Bayes multinomial compilado, alternativo a la votación
+ * por diccionario de {@link AnalisisBow}: sugiere una categoría a partir de
+ * los términos de descripciones ya etiquetadas, sin que nadie tenga que
+ * registrarlos en un diccionario.
+ *
+ * <p>El modelo es una tabla plana de logaritmos de probabilidad: la fila
+ * de un término tiene una columna por clase, en la posición
+ * {@code término * clases + clase}. Clasificar una descripción es sumar la
+ * fila de cada término conocido a los logaritmos de las probabilidades
+ * previas y elegir la clase mayor. Los tokens se buscan directamente desde
+ * el buffer del {@link Tokenizador} y los puntajes se acumulan en un
+ * arreglo reutilizable por hilo, así que {@link #sugerirCategoria(String)}
+ * no crea objetos.</p>
+ *
+ * <p>Se obtiene con {@link Gestor#entrenarClasificador()}. Una instancia no
+ * cambia después de construida, por lo que puede compartirse entre
+ * hilos.</p>
+ */
+public final class ModeloBayes {
+
+    /** Puntajes del hilo actual. */
+    private static final ThreadLocal<Puntuacion> PUNTUACION = ThreadLocal.withInitial(Puntuacion::new);
+
+    /** Términos del modelo, con el mismo identificador que su fila. */
+    private final TablaTerminos terminos;
+
+    /** Nombre de cada clase, por identificador. */
+    private final String[] clases;
+
+    /** Logaritmo de la probabilidad previa de cada clase. */
+    private final double[] logPrevias;
+
+    /** Logaritmo de la probabilidad de cada término en cada clase. */
+    private final double[] logVerosimilitudes;
+
+    /** Stopwords que se descartan antes de clasificar. */
+    private final ConjuntoStopwords stopwords;
+
+    /** Stemmer de los términos, o {@code null} si no se reducen a raíces. */
+    private final StemmerEspanol stemmer;
+
+    /** Cantidad de descripciones con que se entrenó el modelo. */
+    private final long documentos;
+
+    ModeloBayes(TablaTerminos terminos,
+                String[] clases,
+                double[] logPrevias,
+                double[] logVerosimilitudes,
+                ConjuntoStopwords stopwords,
+                StemmerEspanol stemmer,
+                long documentos) {
+        this.terminos = terminos;
+        this.clases = clases;
+        this.logPrevias = logPrevias;
+        this.logVerosimilitudes = logVerosimilitudes;
+        this.stopwords = stopwords;
+        this.stemmer = stemmer;
+        this.documentos = documentos;
+    }
+
+    /**
+     * Sugiere la categoría más probable para una descripción. Los términos
+     * que no aparecieron en el entrenamiento se ignoran; si no queda
+     * ninguno, gana la clase más frecuente.
+     *
+     * @param descripcion texto a clasificar
+     * @return categoría sugerida o {@code null} si el modelo no tiene clases
+     */
+    public String sugerirCategoria(String descripcion) {
+        if (clases.length == 0) return null;
+
+        double[] puntajes = puntuar(descripcion);
+        int mejor = 0;
+        for (int c = 1; c < clases.length; c++) {
+            if (puntajes[c] > puntajes[mejor]) {
+                mejor = c;
+            }
+        }
+        return clases[mejor];
+    }
+
+    /**
+     * Calcula la probabilidad de cada clase para una descripción.
+     *
+     * @param descripcion texto a clasificar
+     * @return clase -&gt; probabilidad, en el orden de las clases; las
+     *         probabilidades suman 1
+     */
+    public Map<String, Double> probabilidades(String descripcion) {
+        Map<String, Double> resultado = new LinkedHashMap<>();
+        if (clases.length == 0) return resultado;
+
+        double[] puntajes = puntuar(descripcion);
+        double maximo = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < clases.length; c++) {
+            maximo = Math.max(maximo, puntajes[c]);
+        }
+        // Se resta el máximo antes de exponenciar para no desbordar.
+        double suma = 0.0;
+        for (int c = 0; c < clases.length; c++) {
+            suma += Math.exp(puntajes[c] - maximo);
+        }
+        for (int c = 0; c < clases.length; c++) {
+            resultado.put(clases[c], Math.exp(puntajes[c] - maximo) / suma);
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene las clases del modelo.
+     *
+     * @return nombres de las clases, en orden de aparición en el entrenamiento
+     */
+    public List<String> getClases() {
+        return Collections.unmodifiableList(Arrays.asList(clases));
+    }
+
+    /**
+     * Obtiene la cantidad de términos distintos del modelo.
+     *
+     * @return cantidad de términos
+     */
+    public int getCantidadTerminos() {
+        return terminos.tamano();
+    }
+
+    /**
+     * Obtiene la cantidad de descripciones con que se entrenó el modelo.
+     *
+     * @return cantidad de descripciones
+     */
+    public long getDocumentos() {
+        return documentos;
+    }
+
+    @Override
+    public String toString() {
+        return "ModeloBayes{clases=" + clases.length +
+                ", terminos=" + terminos.tamano() +
+                ", documentos=" + documentos +
+                '}';
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Suma los logaritmos de la descripción en el arreglo del hilo. El
+     * arreglo se reutiliza en la siguiente llamada del mismo hilo.
+     */
+    private double[] puntuar(String descripcion) {
+        Puntuacion p = PUNTUACION.get();
+        p.iniciar(this);
+        if (descripcion != null && !descripcion.isBlank()) {
+            Tokenizador.delHilo().recorrer(descripcion, p);
+        }
+        // Se suelta el modelo para no retenerlo en el hilo tras reentrenar.
+        p.modelo = null;
+        return p.puntajes;
+    }
+
+    /**
+     * Acumulador de puntajes por clase de un hilo. Recibe los tokens del
+     * {@link Tokenizador} y suma la fila de cada término conocido.
+     */
+    private static final class Puntuacion implements Tokenizador.ReceptorTokens {
+        private ModeloBayes modelo;
+        double[] puntajes = new double[8];
+
+        void iniciar(ModeloBayes modelo) {
+            this.modelo = modelo;
+            int cantidad = modelo.clases.length;
+            if (puntajes.length < cantidad) {
+                puntajes = new double[cantidad];
+            }
+            System.arraycopy(modelo.logPrevias, 0, puntajes, 0, cantidad);
+        }
+
+        @Override
+        public void token(char[] buffer, int longitud) {
+            ModeloBayes m = modelo;
+            if (m.stopwords.contiene(buffer, longitud)) return;
+            if (m.stemmer != null) {
+                longitud = m.stemmer.longitudRaiz(buffer, longitud);
+            }
+            int id = m.terminos.buscar(buffer, 0, longitud);
+            if (id == TablaTerminos.NO_ENCONTRADO) return;
+
+            int cantidad = m.clases.length;
+            double[] fila = m.logVerosimilitudes;
+            for (int c = 0, i = id * cantidad; c < cantidad; c++, i++) {
+                puntajes[c] += fila[i];
+            }
+        }
+    }
+}
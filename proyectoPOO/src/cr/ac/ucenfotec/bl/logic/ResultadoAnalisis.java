@@ -0,0 +1,455 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado del análisis Bag of Words de una descripción de ticket.
+ *
+ * <p>Reúne en un solo objeto la categoría predominante de cada tipo de
+ * diccionario (por ejemplo, el estado de ánimo y la categoría técnica), los
+ * puntajes por categoría, el mapa de frecuencias (TF) y las palabras o
+ * frases que coincidieron con algún diccionario, para que quien lo consuma
+ * no tenga que volver a procesar la descripción.</p>
+ *
+ * <p>Internamente guarda frecuencias y puntajes en arreglos de enteros. Los
+ * mapas y listas de los getters se construyen la primera vez que se piden;
+ * quien solo necesita el estado de ánimo y la categoría no paga por ellos.
+ * Los términos se recorren sin crear mapas con {@link #getCantidadTerminos()},
+ * {@link #getTermino(int)} y {@link #getFrecuencia(int)}.</p>
+ */
+public class ResultadoAnalisis {
+
+    /** Estado de ánimo usado cuando no hay coincidencias emocionales. */
+    public static final String SIN_EMOCION = "Neutralidad";
+
+    /** Categoría usada cuando no hay coincidencias técnicas. */
+    public static final String SIN_CATEGORIA = "General";
+
+    /** Vocabulario con que se analizó la descripción; define dimensiones y categorías. */
+    private final Vocabulario vocabulario;
+
+    /** Puntaje por identificador global de categoría. */
+    private final int[] puntajes;
+
+    /**
+     * Puntaje ponderado por identificador global de categoría, con TF-IDF o
+     * con coincidencias corregidas, o {@code null} sin ponderación.
+     */
+    private final double[] ponderados;
+
+    /** Indica si los puntajes ponderados usan pesos IDF. */
+    private final boolean tfIdf;
+
+    /** Caracteres de los términos de la descripción, uno tras otro. */
+    private final char[] caracteres;
+
+    /** Posición final (exclusiva) de cada término en {@link #caracteres}. */
+    private final int[] fines;
+
+    /** Frecuencia de cada término. */
+    private final int[] frecuencias;
+
+    /** Identificadores de los patrones detectados, en orden de aparición. */
+    private final int[] detectados;
+
+    /** Asignaciones distintas del vocabulario que sumaron al puntaje. */
+    private final int[] asignaciones;
+
+    /** Coincidencias de cada asignación de {@link #asignaciones}. */
+    private final int[] veces;
+
+    /** Indica si el análisis se detuvo antes del final del texto. */
+    private final boolean truncado;
+
+    private final String estadoAnimo;
+    private final String categoriaTecnica;
+
+    private volatile Map<String, Integer> tf;
+    private volatile Map<String, Integer> puntajesEmocionales;
+    private volatile Map<String, Integer> puntajesTecnicos;
+    private volatile Map<String, Double> pesosEmocionales;
+    private volatile Map<String, Double> pesosTecnicos;
+    private volatile List<String> terminosDetectados;
+
+    /**
+     * Crea un resultado de análisis. Los arreglos pasan a ser propiedad del
+     * resultado y no deben modificarse después.
+     *
+     * @param vocabulario   vocabulario con que se analizó la descripción
+     * @param puntajes      puntaje por identificador global de categoría
+     * @param ponderados    puntaje ponderado por categoría, o {@code null}
+     * @param tfIdf         si los puntajes ponderados usan pesos IDF
+     * @param caracteres    caracteres de los términos, uno tras otro
+     * @param fines         posición final de cada término
+     * @param frecuencias   frecuencia de cada término
+     * @param detectados    identificadores de los patrones detectados
+     * @param asignaciones  asignaciones distintas que sumaron al puntaje
+     * @param veces         coincidencias de cada asignación
+     * @param truncado      si el análisis se detuvo antes del final del texto
+     */
+    ResultadoAnalisis(Vocabulario vocabulario,
+                      int[] puntajes,
+                      double[] ponderados,
+                      boolean tfIdf,
+                      char[] caracteres,
+                      int[] fines,
+                      int[] frecuencias,
+                      int[] detectados,
+                      int[] asignaciones,
+                      int[] veces,
+                      boolean truncado) {
+        this.vocabulario = vocabulario;
+        this.puntajes = puntajes;
+        this.ponderados = ponderados;
+        this.tfIdf = tfIdf;
+        this.caracteres = caracteres;
+        this.fines = fines;
+        this.frecuencias = frecuencias;
+        this.detectados = detectados;
+        this.asignaciones = asignaciones;
+        this.veces = veces;
+        this.truncado = truncado;
+
+        String emocion = predominante(vocabulario.getDimensionEmocional());
+        String categoria = predominante(vocabulario.getDimensionTecnica());
+        this.estadoAnimo = emocion != null ? emocion : SIN_EMOCION;
+        this.categoriaTecnica = categoria != null ? categoria : SIN_CATEGORIA;
+    }
+
+    /**
+     * Obtiene el estado de ánimo predominante.
+     *
+     * @return emoción predominante o {@link #SIN_EMOCION}
+     */
+    public String getEstadoAnimo() {
+        return estadoAnimo;
+    }
+
+    /**
+     * Obtiene la categoría técnica sugerida.
+     *
+     * @return categoría predominante o {@link #SIN_CATEGORIA}
+     */
+    public String getCategoriaTecnica() {
+        return categoriaTecnica;
+    }
+
+    /**
+     * Obtiene los tipos de diccionario con los que se analizó la
+     * descripción, en el orden en que se cargaron.
+     *
+     * @return lista de solo lectura de tipos
+     */
+    public List<String> getTiposDiccionario() {
+        return Collections.unmodifiableList(Arrays.asList(vocabulario.getTipos()));
+    }
+
+    /**
+     * Obtiene la categoría predominante de un tipo de diccionario. Con
+     * TF-IDF o corrección de errores de tipeo se elige por el puntaje
+     * ponderado. En caso de empate gana la
+     * categoría que aparece primero en el diccionario.
+     *
+     * @param tipo tipo de diccionario, sin importar mayúsculas
+     * @return categoría predominante o {@code null} si no hubo coincidencias
+     *         o no existe un diccionario de ese tipo
+     */
+    public String getPredominante(String tipo) {
+        return predominante(vocabulario.buscarDimension(tipo));
+    }
+
+    /**
+     * Obtiene el puntaje acumulado por cada categoría encontrada de un tipo
+     * de diccionario.
+     *
+     * @param tipo tipo de diccionario, sin importar mayúsculas
+     * @return mapa de solo lectura categoría -&gt; puntaje; vacío si no existe
+     *         un diccionario de ese tipo
+     */
+    public Map<String, Integer> getPuntajes(String tipo) {
+        return aMapa(vocabulario.buscarDimension(tipo));
+    }
+
+    /**
+     * Obtiene el puntaje ponderado de cada categoría encontrada de un tipo
+     * de diccionario, con TF-IDF o con las coincidencias corregidas
+     * rebajadas. Sin ponderación coincide con {@link #getPuntajes(String)}.
+     *
+     * @param tipo tipo de diccionario, sin importar mayúsculas
+     * @return mapa de solo lectura categoría -&gt; puntaje ponderado; vacío si
+     *         no existe un diccionario de ese tipo
+     */
+    public Map<String, Double> getPesos(String tipo) {
+        return aMapaPesos(vocabulario.buscarDimension(tipo));
+    }
+
+    /**
+     * Indica si los puntajes se ponderaron con TF-IDF. En ese caso, igual que
+     * con la corrección de errores de tipeo, el estado de ánimo y la
+     * categoría se eligen por {@link #getPesosEmocionales()} y
+     * {@link #getPesosTecnicos()} en lugar de por la cantidad de
+     * coincidencias.
+     *
+     * @return {@code true} si el análisis usó pesos IDF
+     */
+    public boolean isTfIdf() {
+        return tfIdf;
+    }
+
+    /**
+     * Obtiene el puntaje acumulado por cada emoción encontrada.
+     *
+     * @return mapa de solo lectura emoción -&gt; puntaje
+     */
+    public Map<String, Integer> getPuntajesEmocionales() {
+        Map<String, Integer> m = puntajesEmocionales;
+        if (m == null) {
+            m = aMapa(vocabulario.getDimensionEmocional());
+            puntajesEmocionales = m;
+        }
+        return m;
+    }
+
+    /**
+     * Obtiene el puntaje acumulado por cada categoría técnica encontrada.
+     *
+     * @return mapa de solo lectura categoría -&gt; puntaje
+     */
+    public Map<String, Integer> getPuntajesTecnicos() {
+        Map<String, Integer> m = puntajesTecnicos;
+        if (m == null) {
+            m = aMapa(vocabulario.getDimensionTecnica());
+            puntajesTecnicos = m;
+        }
+        return m;
+    }
+
+    /**
+     * Obtiene el puntaje ponderado de cada emoción encontrada. Sin ponderación
+     * coincide con {@link #getPuntajesEmocionales()}.
+     *
+     * @return mapa de solo lectura emoción -&gt; puntaje ponderado
+     */
+    public Map<String, Double> getPesosEmocionales() {
+        Map<String, Double> m = pesosEmocionales;
+        if (m == null) {
+            m = aMapaPesos(vocabulario.getDimensionEmocional());
+            pesosEmocionales = m;
+        }
+        return m;
+    }
+
+    /**
+     * Obtiene el puntaje ponderado de cada categoría técnica encontrada. Sin
+     * ponderación coincide con {@link #getPuntajesTecnicos()}.
+     *
+     * @return mapa de solo lectura categoría -&gt; puntaje ponderado
+     */
+    public Map<String, Double> getPesosTecnicos() {
+        Map<String, Double> m = pesosTecnicos;
+        if (m == null) {
+            m = aMapaPesos(vocabulario.getDimensionTecnica());
+            pesosTecnicos = m;
+        }
+        return m;
+    }
+
+    /**
+     * Obtiene el mapa de frecuencias de la descripción, sin stopwords.
+     *
+     * @return mapa de solo lectura palabra -&gt; cantidad de apariciones
+     */
+    public Map<String, Integer> getTf() {
+        Map<String, Integer> m = tf;
+        if (m == null) {
+            Map<String, Integer> nuevo = new HashMap<>();
+            for (int i = 0; i < frecuencias.length; i++) {
+                nuevo.put(getTermino(i), frecuencias[i]);
+            }
+            m = Collections.unmodifiableMap(nuevo);
+            tf = m;
+        }
+        return m;
+    }
+
+    /**
+     * Obtiene las palabras y frases de los diccionarios que se encontraron
+     * en la descripción, normalizadas y en orden de aparición.
+     *
+     * @return lista de solo lectura de términos detectados
+     */
+    public List<String> getTerminosDetectados() {
+        List<String> l = terminosDetectados;
+        if (l == null) {
+            List<String> nueva = new ArrayList<>(detectados.length);
+            String[] patrones = vocabulario.getPatrones();
+            for (int i : detectados) {
+                nueva.add(patrones[i]);
+            }
+            l = Collections.unmodifiableList(nueva);
+            terminosDetectados = l;
+        }
+        return l;
+    }
+
+    /**
+     * Obtiene la cantidad de términos distintos de la descripción, sin
+     * stopwords.
+     *
+     * @return cantidad de términos
+     */
+    public int getCantidadTerminos() {
+        return frecuencias.length;
+    }
+
+    /**
+     * Obtiene un término de la descripción, en orden de aparición.
+     *
+     * @param i posición del término, entre 0 y {@link #getCantidadTerminos()} - 1
+     * @return término normalizado
+     */
+    public String getTermino(int i) {
+        int inicio = i == 0 ? 0 : fines[i - 1];
+        return new String(caracteres, inicio, fines[i] - inicio);
+    }
+
+    /**
+     * Obtiene la frecuencia de un término de la descripción.
+     *
+     * @param i posición del término, entre 0 y {@link #getCantidadTerminos()} - 1
+     * @return cantidad de apariciones del término
+     */
+    public int getFrecuencia(int i) {
+        return frecuencias[i];
+    }
+
+    /**
+     * Indica si el análisis se detuvo al alcanzar la cantidad máxima de
+     * tokens y quedó texto sin analizar.
+     *
+     * @return {@code true} si el resultado corresponde solo al inicio del texto
+     */
+    public boolean isTruncado() {
+        return truncado;
+    }
+
+    /**
+     * Obtiene el vocabulario con que se analizó la descripción.
+     *
+     * @return vocabulario del análisis
+     */
+    Vocabulario getVocabulario() {
+        return vocabulario;
+    }
+
+    /**
+     * Obtiene las asignaciones distintas del vocabulario que sumaron al
+     * puntaje. El arreglo es compartido y no debe modificarse.
+     *
+     * @return asignaciones, sin repeticiones
+     */
+    int[] getAsignaciones() {
+        return asignaciones;
+    }
+
+    /**
+     * Obtiene cuántas coincidencias sumó cada asignación de
+     * {@link #getAsignaciones()}, en el mismo orden. El arreglo es
+     * compartido y no debe modificarse.
+     *
+     * @return coincidencias por asignación
+     */
+    int[] getVeces() {
+        return veces;
+    }
+
+    /**
+     * Devuelve una representación textual del resultado.
+     *
+     * @return cadena con el estado de ánimo, la categoría y los términos detectados
+     */
+    @Override
+    public String toString() {
+        return "ResultadoAnalisis{estadoAnimo='" + estadoAnimo + '\'' +
+                ", categoriaTecnica='" + categoriaTecnica + '\'' +
+                ", terminosDetectados=" + getTerminosDetectados() +
+                '}';
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Obtiene la categoría con el mayor puntaje de una dimensión, o con el
+     * mayor puntaje ponderado si lo hay. En caso de empate conserva la
+     * de menor identificador, es decir, la que aparece primero en el
+     * diccionario.
+     *
+     * @return categoría predominante o {@code null} si no hubo coincidencias
+     */
+    private String predominante(int dimension) {
+        if (dimension == Vocabulario.SIN_DIMENSION) return null;
+
+        int fin = vocabulario.finCategorias(dimension);
+        int mejor = -1;
+        if (ponderados != null) {
+            double mejorPeso = 0.0;
+            for (int i = vocabulario.inicioCategorias(dimension); i < fin; i++) {
+                if (ponderados[i] > mejorPeso) {
+                    mejorPeso = ponderados[i];
+                    mejor = i;
+                }
+            }
+        } else {
+            int mejorPuntaje = 0;
+            for (int i = vocabulario.inicioCategorias(dimension); i < fin; i++) {
+                if (puntajes[i] > mejorPuntaje) {
+                    mejorPuntaje = puntajes[i];
+                    mejor = i;
+                }
+            }
+        }
+
+        return mejor < 0 ? null : vocabulario.getCategorias()[mejor];
+    }
+
+    /**
+     * Convierte los puntajes ponderados de una dimensión, o los puntajes si
+     * no hay ponderación, en un mapa con las categorías que tuvieron
+     * coincidencias.
+     */
+    private Map<String, Double> aMapaPesos(int dimension) {
+        if (dimension == Vocabulario.SIN_DIMENSION) return Collections.emptyMap();
+
+        String[] nombres = vocabulario.getCategorias();
+        Map<String, Double> m = new LinkedHashMap<>();
+        for (int i = vocabulario.inicioCategorias(dimension); i < vocabulario.finCategorias(dimension); i++) {
+            if (puntajes[i] > 0) {
+                m.put(nombres[i], ponderados != null ? ponderados[i] : puntajes[i]);
+            }
+        }
+        return Collections.unmodifiableMap(m);
+    }
+
+    /**
+     * Convierte los puntajes de una dimensión en un mapa con las categorías
+     * mayores que cero.
+     */
+    private Map<String, Integer> aMapa(int dimension) {
+        if (dimension == Vocabulario.SIN_DIMENSION) return Collections.emptyMap();
+
+        String[] nombres = vocabulario.getCategorias();
+        Map<String, Integer> m = new LinkedHashMap<>();
+        for (int i = vocabulario.inicioCategorias(dimension); i < vocabulario.finCategorias(dimension); i++) {
+            if (puntajes[i] > 0) {
+                m.put(nombres[i], puntajes[i]);
+            }
+        }
+        return Collections.unmodifiableMap(m);
+    }
+}
@@ -0,0 +1,183 @@
+package cr.ac.ucenfotec.bl.logic;
+
+/**
+ * Reductor ligero de palabras en español a su raíz (stemmer).
+ *
+ * <p>Trabaja sobre tokens ya normalizados (minúsculas, sin tildes) y
+ * elimina el sufijo más largo de una lista de terminaciones frecuentes de
+ * plural, género, participios, infinitivos y derivaciones, siempre que la
+ * raíz conserve al menos {@value #RAIZ_MINIMA} letras. Así "conectar",
+ * "conectado" y "conectados" se reducen a {@code "conect"}. Como solo
+ * elimina sufijos, la raíz es siempre un prefijo del token.</p>
+ *
+ * <p>Tampoco se usa una raíz que sea la de una stopword por defecto, como
+ * {@code "est"} de "esta" y "estaba": en ese caso se prueba el siguiente
+ * sufijo, de modo que "estado" se reduce a {@code "estad"} y no se
+ * confunde con esas stopwords.</p>
+ *
+ * <p>Los resultados se memorizan en una caché acotada de acceso directo:
+ * cada token ocupa una casilla según su hash y un token nuevo reemplaza al
+ * anterior de esa casilla. Las entradas son inmutables, por lo que la caché
+ * se comparte entre hilos sin bloqueos, y una consulta que acierta no crea
+ * objetos.</p>
+ */
+final class StemmerEspanol {
+
+    /** Instancia compartida por los analizadores. */
+    static final StemmerEspanol COMPARTIDO = new StemmerEspanol(8192);
+
+    /** Cantidad mínima de letras que debe conservar la raíz. */
+    static final int RAIZ_MINIMA = 3;
+
+    /** Sufijos que se eliminan, del más largo al más corto. */
+    private static final char[][] SUFIJOS = sufijos(
+            "amientos", "imientos",
+            "aciones", "iciones", "amiento", "imiento",
+            "adoras", "adores", "idades",
+            "acion", "icion", "adora", "ables", "ibles", "ismos", "istas",
+            "iones", "mente", "ieron", "iendo",
+            "ador", "idad", "able", "ible", "ismo", "ista", "ando",
+            "ados", "adas", "idos", "idas", "aron", "aban", "iera",
+            "ado", "ada", "ido", "ida", "ion", "aba", "ian", "ias",
+            "ar", "er", "ir", "es", "os", "as", "ia",
+            "o", "a", "e", "s"
+    );
+
+    /** Raíces de las stopwords por defecto, que no se asignan a otras palabras. */
+    private static final TablaTerminos RAICES_STOPWORDS = raicesStopwords();
+
+    /** Casillas de la caché; {@code null} indica una casilla libre. */
+    private final Entrada[] entradas;
+
+    /** Máscara para convertir un hash en una casilla. */
+    private final int mascara;
+
+    /**
+     * Crea un stemmer con una caché de la capacidad indicada.
+     *
+     * @param capacidad cantidad máxima de tokens memorizados, se redondea a
+     *                  una potencia de dos
+     */
+    StemmerEspanol(int capacidad) {
+        int casillas = 1;
+        while (casillas < capacidad) {
+            casillas <<= 1;
+        }
+        this.entradas = new Entrada[casillas];
+        this.mascara = casillas - 1;
+    }
+
+    /**
+     * Obtiene la longitud de la raíz de un token, consultando primero la
+     * caché.
+     *
+     * @param buffer   buffer con el token, desde la posición 0
+     * @param longitud cantidad de caracteres del token
+     * @return longitud de la raíz; la raíz son los primeros caracteres del token
+     */
+    int longitudRaiz(char[] buffer, int longitud) {
+        if (longitud <= RAIZ_MINIMA) return longitud;
+
+        int h = 0;
+        for (int i = 0; i < longitud; i++) {
+            h = 31 * h + buffer[i];
+        }
+        int casilla = (h ^ (h >>> 16)) & mascara;
+
+        Entrada e = entradas[casilla];
+        if (e != null && e.hash == h && e.coincide(buffer, longitud)) {
+            return e.raiz;
+        }
+
+        int raiz = calcular(buffer, longitud);
+        char[] token = new char[longitud];
+        System.arraycopy(buffer, 0, token, 0, longitud);
+        entradas[casilla] = new Entrada(token, h, raiz);
+        return raiz;
+    }
+
+    /**
+     * Obtiene la raíz de un término normalizado.
+     *
+     * @param termino término normalizado
+     * @return raíz del término
+     */
+    String raiz(String termino) {
+        char[] chars = termino.toCharArray();
+        return new String(chars, 0, longitudRaiz(chars, chars.length));
+    }
+
+    /**
+     * Calcula la longitud de la raíz sin usar la caché.
+     */
+    static int calcular(char[] buffer, int longitud) {
+        return calcular(buffer, longitud, RAICES_STOPWORDS);
+    }
+
+    /**
+     * Calcula la longitud de la raíz descartando las raíces de la tabla
+     * indicada, o ninguna si es {@code null}.
+     */
+    private static int calcular(char[] buffer, int longitud, TablaTerminos prohibidas) {
+        for (char[] sufijo : SUFIJOS) {
+            int raiz = longitud - sufijo.length;
+            if (raiz < RAIZ_MINIMA) continue;
+
+            boolean termina = true;
+            for (int k = 0; k < sufijo.length; k++) {
+                if (buffer[raiz + k] != sufijo[k]) {
+                    termina = false;
+                    break;
+                }
+            }
+            if (termina && (prohibidas == null
+                    || prohibidas.buscar(buffer, 0, raiz) == TablaTerminos.NO_ENCONTRADO)) {
+                return raiz;
+            }
+        }
+        return longitud;
+    }
+
+    private static TablaTerminos raicesStopwords() {
+        TablaTerminos raices = new TablaTerminos(64);
+        for (String stopword : Stopwords.getDefault()) {
+            char[] chars = stopword.toCharArray();
+            int raiz = calcular(chars, chars.length, null);
+            if (raiz < chars.length) {
+                raices.agregar(chars, 0, raiz);
+            }
+        }
+        return raices;
+    }
+
+    private static char[][] sufijos(String... textos) {
+        char[][] resultado = new char[textos.length][];
+        for (int i = 0; i < textos.length; i++) {
+            resultado[i] = textos[i].toCharArray();
+        }
+        return resultado;
+    }
+
+    /**
+     * Entrada inmutable de la caché: un token y la longitud de su raíz.
+     */
+    private static final class Entrada {
+        final char[] token;
+        final int hash;
+        final int raiz;
+
+        Entrada(char[] token, int hash, int raiz) {
+            this.token = token;
+            this.hash = hash;
+            this.raiz = raiz;
+        }
+
+        boolean coincide(char[] buffer, int longitud) {
+            if (token.length != longitud) return false;
+            for (int i = 0; i < longitud; i++) {
+                if (token[i] != buffer[i]) return false;
+            }
+            return true;
+        }
+    }
+}
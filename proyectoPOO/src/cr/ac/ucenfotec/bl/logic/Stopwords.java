@@ -1,11 +1,33 @@
 package cr.ac.ucenfotec.bl.logic;
 
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
- * Proporciona una lista básica de palabras vacías (stopwords) en español,
- * utilizadas durante el análisis de texto para el enfoque Bag of Words.
+ * Proporciona las listas de palabras vacías (stopwords) utilizadas durante
+ * el análisis de texto para el enfoque Bag of Words.
+ *
+ * <p>Mantiene un registro de {@link ConjuntoStopwords} por clave, que puede
+ * ser un idioma ({@code "es"}, {@code "en"}) o un inquilino. Los conjuntos
+ * se cargan desde la base de datos o desde un archivo de recursos y se
+ * reemplazan en tiempo de ejecución sin reiniciar la aplicación. La clave
+ * {@link #IDIOMA_POR_DEFECTO} empieza con una lista básica en español.</p>
  */
 public class Stopwords {
 
+    /** Clave del conjunto utilizado cuando no se indica otro. */
+    public static final String IDIOMA_POR_DEFECTO = "es";
+
     /** Arreglo de stopwords por defecto. */
     private static final String[] DEFAULT = {
             "a","al","algo","algunas","algunos","ante","antes","como","con","contra",
@@ -16,6 +38,13 @@ public class Stopwords {
             "te","tu","tus","un","una","unas","unos","y","ya"
     };
 
+    /** Conjuntos registrados por idioma o inquilino. */
+    private static final ConcurrentMap<String, ConjuntoStopwords> CONJUNTOS = new ConcurrentHashMap<>();
+
+    static {
+        CONJUNTOS.put(IDIOMA_POR_DEFECTO, new ConjuntoStopwords(Arrays.asList(DEFAULT)));
+    }
+
     /**
      * Obtiene el arreglo de stopwords por defecto.
      *
@@ -26,18 +55,81 @@ public class Stopwords {
     }
 
     /**
-     * Determina si una palabra pertenece a la lista de stopwords.
+     * Determina si una palabra pertenece al conjunto de stopwords por defecto.
      *
      * @param palabra palabra previamente normalizada
      * @return {@code true} si la palabra es una stopword; {@code false} en caso contrario
      */
     public static boolean esStopword(String palabra) {
-        if (palabra == null || palabra.isEmpty()) return false;
-        for (String s : DEFAULT) {
-            if (s.equals(palabra)) {
-                return true;
+        return obtener(IDIOMA_POR_DEFECTO).contiene(palabra);
+    }
+
+    /**
+     * Obtiene el conjunto registrado para una clave. Si la clave no tiene
+     * conjunto propio se devuelve el conjunto por defecto.
+     *
+     * @param clave idioma o inquilino
+     * @return conjunto de stopwords vigente
+     */
+    public static ConjuntoStopwords obtener(String clave) {
+        ConjuntoStopwords conjunto = clave == null ? null : CONJUNTOS.get(clave);
+        return conjunto != null ? conjunto : CONJUNTOS.get(IDIOMA_POR_DEFECTO);
+    }
+
+    /**
+     * Indica si existe un conjunto registrado para una clave.
+     *
+     * @param clave idioma o inquilino
+     * @return {@code true} si la clave tiene conjunto propio
+     */
+    public static boolean existe(String clave) {
+        return clave != null && CONJUNTOS.containsKey(clave);
+    }
+
+    /**
+     * Registra o reemplaza el conjunto de una clave. Los análisis en curso
+     * terminan con el conjunto anterior; los siguientes usan el nuevo.
+     *
+     * @param clave    idioma o inquilino
+     * @param palabras stopwords del conjunto
+     * @return conjunto registrado
+     */
+    public static ConjuntoStopwords registrar(String clave, Collection<String> palabras) {
+        if (clave == null || clave.isBlank()) {
+            throw new IllegalArgumentException("La clave del conjunto de stopwords es obligatoria");
+        }
+        ConjuntoStopwords conjunto = new ConjuntoStopwords(palabras);
+        CONJUNTOS.put(clave, conjunto);
+        return conjunto;
+    }
+
+    /**
+     * Carga y registra el conjunto de una clave desde un archivo de
+     * recursos en UTF-8, con una palabra por línea. Se ignoran las líneas
+     * vacías y las que empiezan con {@code #}.
+     *
+     * @param clave idioma o inquilino
+     * @param ruta  ruta del recurso en el classpath, por ejemplo
+     *              {@code "/stopwords/en.txt"}
+     * @return conjunto registrado
+     * @throws IOException si el recurso no existe o no se puede leer
+     */
+    public static ConjuntoStopwords cargarRecurso(String clave, String ruta) throws IOException {
+        InputStream in = Stopwords.class.getResourceAsStream(ruta);
+        if (in == null) {
+            throw new FileNotFoundException("No se encontró el recurso " + ruta);
+        }
+
+        List<String> palabras = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                linea = linea.trim();
+                if (!linea.isEmpty() && !linea.startsWith("#")) {
+                    palabras.add(linea);
+                }
             }
         }
-        return false;
+        return registrar(clave, palabras);
     }
 }
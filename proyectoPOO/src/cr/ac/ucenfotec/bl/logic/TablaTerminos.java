@@ -0,0 +1,283 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de términos que asigna a cada término distinto un
+ * identificador entero denso (0, 1, 2...), en orden de inserción.
+ *
+ * <p>Los caracteres de todos los términos se guardan seguidos en un solo
+ * arreglo y la tabla usa direccionamiento abierto con un factor de carga
+ * máximo de 0,5. Agregar o buscar un término guardado en un buffer de
+ * caracteres no crea objetos, lo que permite usarla en el camino crítico
+ * del análisis.</p>
+ *
+ * <p>No es segura para escrituras concurrentes. Una vez construida, las
+ * búsquedas pueden hacerse desde varios hilos.</p>
+ */
+final class TablaTerminos {
+
+    /** Valor devuelto cuando un término no existe en la tabla. */
+    static final int NO_ENCONTRADO = -1;
+
+    /** Caracteres de todos los términos, uno tras otro. */
+    private char[] caracteres;
+
+    /** Cantidad de posiciones usadas de {@link #caracteres}. */
+    private int usados;
+
+    /** Posición inicial de cada término en {@link #caracteres}, por identificador. */
+    private int[] inicios;
+
+    /** Longitud de cada término, por identificador. */
+    private int[] longitudes;
+
+    /** Hash de cada término, por identificador. */
+    private int[] hashes;
+
+    /** Casilla que ocupa cada término, por identificador. */
+    private int[] casillaDe;
+
+    /** Casillas de la tabla: identificador + 1, o 0 si la casilla está libre. */
+    private int[] casillas;
+
+    /** Máscara para convertir un hash en una casilla. */
+    private int mascara;
+
+    /** Cantidad de términos. */
+    private int tamano;
+
+    /**
+     * Crea una tabla vacía.
+     *
+     * @param capacidad cantidad de términos esperada
+     */
+    TablaTerminos(int capacidad) {
+        int casillasIniciales = 8;
+        while (casillasIniciales < capacidad * 2) {
+            casillasIniciales <<= 1;
+        }
+        this.casillas = new int[casillasIniciales];
+        this.mascara = casillasIniciales - 1;
+        int terminos = casillasIniciales / 2;
+        this.inicios = new int[terminos];
+        this.longitudes = new int[terminos];
+        this.hashes = new int[terminos];
+        this.casillaDe = new int[terminos];
+        this.caracteres = new char[terminos * 8];
+    }
+
+    /**
+     * Agrega un término si no existe.
+     *
+     * @param termino término a agregar
+     * @return identificador del término, nuevo o existente
+     */
+    int agregar(String termino) {
+        return agregar(termino.toCharArray(), 0, termino.length());
+    }
+
+    /**
+     * Agrega un término guardado en un buffer si no existe. Los caracteres
+     * se copian, por lo que el buffer puede reutilizarse.
+     *
+     * @param buffer   buffer con el término
+     * @param desde    posición inicial del término
+     * @param longitud cantidad de caracteres del término
+     * @return identificador del término, nuevo o existente
+     */
+    int agregar(char[] buffer, int desde, int longitud) {
+        int h = hash(buffer, desde, longitud);
+        int i = h & mascara;
+        int id;
+        while ((id = casillas[i] - 1) >= 0) {
+            if (hashes[id] == h && iguales(id, buffer, desde, longitud)) {
+                return id;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        id = tamano++;
+        if (id == inicios.length) {
+            crecerTerminos();
+        }
+        if (usados + longitud > caracteres.length) {
+            caracteres = Arrays.copyOf(caracteres, Math.max(caracteres.length * 2, usados + longitud));
+        }
+        System.arraycopy(buffer, desde, caracteres, usados, longitud);
+        inicios[id] = usados;
+        longitudes[id] = longitud;
+        hashes[id] = h;
+        usados += longitud;
+
+        casillas[i] = id + 1;
+        casillaDe[id] = i;
+        if (tamano * 2 > casillas.length) {
+            redistribuir();
+        }
+        return id;
+    }
+
+    /**
+     * Busca un término.
+     *
+     * @param termino término a buscar
+     * @return identificador del término o {@link #NO_ENCONTRADO}
+     */
+    int buscar(String termino) {
+        int h = 0;
+        for (int k = 0; k < termino.length(); k++) {
+            h = 31 * h + termino.charAt(k);
+        }
+        h = mezclar(h);
+
+        int id;
+        for (int i = h & mascara; (id = casillas[i] - 1) >= 0; i = (i + 1) & mascara) {
+            if (hashes[id] == h && iguales(id, termino)) {
+                return id;
+            }
+        }
+        return NO_ENCONTRADO;
+    }
+
+    /**
+     * Busca un término guardado en un buffer.
+     *
+     * @param buffer   buffer con el término
+     * @param desde    posición inicial del término
+     * @param longitud cantidad de caracteres del término
+     * @return identificador del término o {@link #NO_ENCONTRADO}
+     */
+    int buscar(char[] buffer, int desde, int longitud) {
+        int h = hash(buffer, desde, longitud);
+        int id;
+        for (int i = h & mascara; (id = casillas[i] - 1) >= 0; i = (i + 1) & mascara) {
+            if (hashes[id] == h && iguales(id, buffer, desde, longitud)) {
+                return id;
+            }
+        }
+        return NO_ENCONTRADO;
+    }
+
+    /**
+     * Busca en esta tabla un término de otra tabla.
+     *
+     * @param otra tabla que contiene el término
+     * @param id   identificador del término en la otra tabla
+     * @return identificador del término en esta tabla o {@link #NO_ENCONTRADO}
+     */
+    int buscar(TablaTerminos otra, int id) {
+        return buscar(otra.caracteres, otra.inicios[id], otra.longitudes[id]);
+    }
+
+    /**
+     * Obtiene la cantidad de términos.
+     *
+     * @return cantidad de términos
+     */
+    int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Obtiene el texto de un término.
+     *
+     * @param id identificador del término
+     * @return texto del término
+     */
+    String termino(int id) {
+        return new String(caracteres, inicios[id], longitudes[id]);
+    }
+
+    /**
+     * Deja la tabla vacía conservando su capacidad, para reutilizarla.
+     */
+    void limpiar() {
+        for (int id = 0; id < tamano; id++) {
+            casillas[casillaDe[id]] = 0;
+        }
+        tamano = 0;
+        usados = 0;
+    }
+
+    /**
+     * Copia los caracteres de los términos, en orden de identificador.
+     *
+     * @return arreglo con los caracteres de todos los términos
+     */
+    char[] copiarCaracteres() {
+        return Arrays.copyOf(caracteres, usados);
+    }
+
+    /**
+     * Copia la posición final (exclusiva) de cada término dentro de
+     * {@link #copiarCaracteres()}, en orden de identificador.
+     *
+     * @return arreglo con el fin de cada término
+     */
+    int[] copiarFines() {
+        int[] fines = new int[tamano];
+        for (int id = 0; id < tamano; id++) {
+            fines[id] = inicios[id] + longitudes[id];
+        }
+        return fines;
+    }
+
+    // ------------ INTERNOS ------------
+
+    private boolean iguales(int id, char[] buffer, int desde, int longitud) {
+        if (longitudes[id] != longitud) return false;
+        int inicio = inicios[id];
+        for (int k = 0; k < longitud; k++) {
+            if (caracteres[inicio + k] != buffer[desde + k]) return false;
+        }
+        return true;
+    }
+
+    private boolean iguales(int id, String termino) {
+        if (longitudes[id] != termino.length()) return false;
+        int inicio = inicios[id];
+        for (int k = 0; k < termino.length(); k++) {
+            if (caracteres[inicio + k] != termino.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private void crecerTerminos() {
+        int nueva = inicios.length * 2;
+        inicios = Arrays.copyOf(inicios, nueva);
+        longitudes = Arrays.copyOf(longitudes, nueva);
+        hashes = Arrays.copyOf(hashes, nueva);
+        casillaDe = Arrays.copyOf(casillaDe, nueva);
+    }
+
+    private void redistribuir() {
+        casillas = new int[casillas.length * 2];
+        mascara = casillas.length - 1;
+        for (int id = 0; id < tamano; id++) {
+            int i = hashes[id] & mascara;
+            while (casillas[i] != 0) {
+                i = (i + 1) & mascara;
+            }
+            casillas[i] = id + 1;
+            casillaDe[id] = i;
+        }
+    }
+
+    private static int hash(char[] buffer, int desde, int longitud) {
+        int h = 0;
+        for (int k = desde; k < desde + longitud; k++) {
+            h = 31 * h + buffer[k];
+        }
+        return mezclar(h);
+    }
+
+    /**
+     * Dispersa los bits del hash para que los bits bajos, que eligen la
+     * casilla, dependan de todos los caracteres.
+     */
+    private static int mezclar(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,299 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalizador y tokenizador de una sola pasada.
+ *
+ * <p>Recorre el texto carácter por carácter y produce los mismos tokens que
+ * la secuencia original de {@link AnalisisBow}: minúsculas, descomposición
+ * NFD, eliminación de marcas diacríticas, reemplazo de todo lo que no sea
+ * {@code [a-z0-9]} por separadores y división por espacios. No usa
+ * expresiones regulares ni crea cadenas intermedias: cada token se arma en
+ * un buffer reutilizable y se entrega directamente a un
+ * {@link ReceptorTokens}.</p>
+ *
+ * <p>Los caracteres ASCII se resuelven con comparaciones simples, sin pasar
+ * por la descomposición Unicode. Para el resto se consulta una tabla que se
+ * llena la primera vez que aparece cada carácter.</p>
+ *
+ * <p>El texto puede entregarse por tramos con {@link #procesar} y
+ * {@link #terminar}: el token en construcción y un par sustituto partido
+ * entre dos tramos se conservan de una llamada a la siguiente, así que los
+ * tokens son los mismos que si el texto llegara completo.</p>
+ *
+ * <p>Una instancia no es segura para uso concurrente; {@link #delHilo()}
+ * entrega una instancia reutilizable por hilo.</p>
+ */
+final class Tokenizador {
+
+    /**
+     * Recibe los tokens producidos. El buffer pertenece al tokenizador y
+     * solo es válido durante la llamada.
+     */
+    interface ReceptorTokens {
+
+        /**
+         * Procesa un token.
+         *
+         * @param buffer   caracteres del token, desde la posición 0
+         * @param longitud cantidad de caracteres del token
+         */
+        void token(char[] buffer, int longitud);
+    }
+
+    /** Acción de la tabla: aún no calculada. */
+    private static final char DESCONOCIDO = 0;
+
+    /** Acción de la tabla: el carácter se elimina sin separar (marca diacrítica). */
+    private static final char OMITIR = 1;
+
+    /** Acción de la tabla: el carácter separa tokens. */
+    private static final char SEPARAR = 2;
+
+    /** Acción de la tabla: la descomposición produce varias acciones. */
+    private static final char COMPUESTO = 3;
+
+    /**
+     * Acción por carácter del plano básico: una de las constantes anteriores
+     * o el carácter {@code [a-z0-9]} que se agrega al token. Se llena de forma
+     * perezosa; escribir el mismo valor desde varios hilos es inofensivo.
+     */
+    private static final char[] ACCIONES = new char[Character.MAX_VALUE + 1];
+
+    /** Instancia reutilizable por hilo. */
+    private static final ThreadLocal<Tokenizador> POR_HILO = ThreadLocal.withInitial(Tokenizador::new);
+
+    /** Caracteres del token en construcción. */
+    private char[] buffer = new char[64];
+
+    /** Longitud del token en construcción. */
+    private int longitud;
+
+    /**
+     * Sustituto alto con el que terminó el tramo anterior, o 0. Se combina
+     * con el sustituto bajo al inicio del tramo siguiente.
+     */
+    private char altoPendiente;
+
+    /**
+     * Obtiene la instancia de tokenizador asociada al hilo actual. No debe
+     * usarse de forma anidada desde un {@link ReceptorTokens}.
+     *
+     * @return tokenizador del hilo, sin token pendiente
+     */
+    static Tokenizador delHilo() {
+        Tokenizador t = POR_HILO.get();
+        t.longitud = 0;
+        t.altoPendiente = 0;
+        return t;
+    }
+
+    /**
+     * Recorre un texto completo y entrega cada token al receptor.
+     *
+     * @param texto    texto a recorrer; {@code null} no produce tokens
+     * @param receptor receptor de los tokens
+     */
+    void recorrer(CharSequence texto, ReceptorTokens receptor) {
+        longitud = 0;
+        altoPendiente = 0;
+        if (texto != null) {
+            procesar(texto, 0, texto.length(), receptor);
+        }
+        terminar(receptor);
+    }
+
+    /**
+     * Procesa un tramo de texto. El último token puede quedar pendiente
+     * hasta el siguiente tramo o hasta llamar a {@link #terminar}.
+     *
+     * @param texto    texto a procesar
+     * @param desde    posición inicial (inclusive)
+     * @param hasta    posición final (exclusiva)
+     * @param receptor receptor de los tokens completos
+     */
+    void procesar(CharSequence texto, int desde, int hasta, ReceptorTokens receptor) {
+        int i = desde;
+        if (altoPendiente != 0 && i < hasta) {
+            char alto = altoPendiente;
+            altoPendiente = 0;
+            if (Character.isLowSurrogate(texto.charAt(i))) {
+                aplicarLento(Character.toCodePoint(alto, texto.charAt(i)), receptor);
+                i++;
+            } else {
+                // Un sustituto alto aislado separa tokens, como en calcularAccion.
+                emitir(receptor);
+            }
+        }
+
+        for (; i < hasta; i++) {
+            char c = texto.charAt(i);
+
+            if (c < 0x80) {
+                if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    agregar(c);
+                } else if (c >= 'A' && c <= 'Z') {
+                    agregar((char) (c + ('a' - 'A')));
+                } else {
+                    emitir(receptor);
+                }
+                continue;
+            }
+
+            if (Character.isHighSurrogate(c)) {
+                if (i + 1 == hasta) {
+                    altoPendiente = c;
+                    continue;
+                }
+                if (Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    aplicarLento(Character.toCodePoint(c, texto.charAt(i + 1)), receptor);
+                    i++;
+                    continue;
+                }
+            }
+
+            char accion = ACCIONES[c];
+            if (accion == DESCONOCIDO) {
+                accion = calcularAccion(c);
+                ACCIONES[c] = accion;
+            }
+
+            if (accion == OMITIR) {
+                // Las marcas diacríticas se eliminan sin separar el token.
+            } else if (accion == SEPARAR) {
+                emitir(receptor);
+            } else if (accion == COMPUESTO) {
+                aplicarLento(c, receptor);
+            } else {
+                agregar(accion);
+            }
+        }
+    }
+
+    /**
+     * Entrega el token pendiente, si lo hay. Un sustituto alto pendiente sin
+     * su pareja se descarta como separador.
+     *
+     * @param receptor receptor del token
+     */
+    void terminar(ReceptorTokens receptor) {
+        altoPendiente = 0;
+        emitir(receptor);
+    }
+
+    // ------------ UTILIDADES ------------
+
+    /**
+     * Normaliza un texto: tokens separados por un espacio simple.
+     *
+     * @param texto texto original
+     * @return texto normalizado o cadena vacía si el texto es {@code null}
+     */
+    static String normalizar(String texto) {
+        if (texto == null) return "";
+        StringBuilder sb = new StringBuilder(texto.length());
+        delHilo().recorrer(texto, (buf, len) -> {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(buf, 0, len);
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Obtiene los tokens normalizados de un texto.
+     *
+     * @param texto texto original
+     * @return lista de tokens
+     */
+    static List<String> tokens(String texto) {
+        List<String> lista = new ArrayList<>();
+        delHilo().recorrer(texto, (buf, len) -> lista.add(new String(buf, 0, len)));
+        return lista;
+    }
+
+    // ------------ INTERNOS ------------
+
+    private void agregar(char c) {
+        if (longitud == buffer.length) {
+            char[] mayor = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, mayor, 0, longitud);
+            buffer = mayor;
+        }
+        buffer[longitud++] = c;
+    }
+
+    private void emitir(ReceptorTokens receptor) {
+        if (longitud > 0) {
+            int len = longitud;
+            longitud = 0;
+            receptor.token(buffer, len);
+        }
+    }
+
+    /**
+     * Aplica al token en construcción las acciones de un código Unicode que
+     * no se resuelve con la tabla.
+     */
+    private void aplicarLento(int codigo, ReceptorTokens receptor) {
+        String descompuesto = descomponer(codigo);
+        for (int j = 0; j < descompuesto.length(); ) {
+            int d = descompuesto.codePointAt(j);
+            j += Character.charCount(d);
+            char accion = clasificar(d);
+            if (accion == SEPARAR) {
+                emitir(receptor);
+            } else if (accion != OMITIR) {
+                agregar(accion);
+            }
+        }
+    }
+
+    /**
+     * Calcula la acción de la tabla para un carácter del plano básico.
+     */
+    private static char calcularAccion(char c) {
+        if (Character.isSurrogate(c)) {
+            return SEPARAR;
+        }
+        String descompuesto = descomponer(c);
+        char resultado = OMITIR;
+        for (int j = 0; j < descompuesto.length(); ) {
+            int d = descompuesto.codePointAt(j);
+            j += Character.charCount(d);
+            char accion = clasificar(d);
+            if (accion == OMITIR) continue;
+            if (resultado != OMITIR) return COMPUESTO;
+            resultado = accion;
+        }
+        return resultado;
+    }
+
+    /**
+     * Pasa un código Unicode a minúsculas y lo descompone en forma NFD.
+     */
+    private static String descomponer(int codigo) {
+        String minuscula = new String(Character.toChars(codigo)).toLowerCase(Locale.ROOT);
+        return Normalizer.normalize(minuscula, Normalizer.Form.NFD);
+    }
+
+    /**
+     * Clasifica un código ya descompuesto: lo conserva si es
+     * {@code [a-z0-9]}, lo omite si es una marca y en otro caso separa.
+     */
+    private static char clasificar(int d) {
+        if ((d >= 'a' && d <= 'z') || (d >= '0' && d <= '9')) {
+            return (char) d;
+        }
+        int tipo = Character.getType(d);
+        if (tipo == Character.NON_SPACING_MARK
+                || tipo == Character.ENCLOSING_MARK
+                || tipo == Character.COMBINING_SPACING_MARK) {
+            return OMITIR;
+        }
+        return SEPARAR;
+    }
+}
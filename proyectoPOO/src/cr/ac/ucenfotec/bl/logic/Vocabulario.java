@@ -0,0 +1,461 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Diccionario;
+import cr.ac.ucenfotec.bl.entities.Palabra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Vocabulario compilado de los diccionarios del análisis.
+ *
+ * <p>Cada entrada de diccionario, ya normalizada, es un patrón: una
+ * palabra o una frase de varias palabras como {@code "no funciona"}. El
+ * vocabulario asigna un identificador entero a cada token que aparece en
+ * algún patrón y a cada patrón, y compila los patrones de todos los
+ * diccionarios en un solo {@link AutomataFrases} sobre los identificadores
+ * de token, de modo que agregar un diccionario no agrega otro recorrido
+ * del texto.</p>
+ *
+ * <p>Cada tipo de diccionario distinto ({@code "emocional"},
+ * {@code "tecnico"}, {@code "urgencia"}...) es una dimensión del análisis,
+ * con sus propias categorías. Las categorías de todas las dimensiones se
+ * numeran seguidas, las de la dimensión {@code d} entre
+ * {@link #inicioCategorias(int)} y {@link #finCategorias(int)}, para que el
+ * análisis acumule todos los puntajes en un solo arreglo de enteros. Cada
+ * patrón tiene una lista compacta de asignaciones (dimensión, categoría),
+ * una por cada diccionario en que aparece.</p>
+ *
+ * <p>Los patrones de una sola palabra que son stopwords se descartan, porque
+ * esas palabras se eliminan del texto antes de clasificarlo. Las frases sí
+ * pueden contener stopwords.</p>
+ *
+ * <p>Si se indica un {@link StemmerEspanol}, cada token de los patrones se
+ * reduce a su raíz al compilar y cada token del texto al buscarlo, de modo
+ * que "conectado" en un diccionario también coincide con "conectar" o
+ * "conectados" en la descripción. Dos entradas con la misma raíz forman un
+ * solo patrón, cuyo texto es el de la primera.</p>
+ *
+ * <p>Una instancia no cambia después de construida, por lo que puede
+ * compartirse entre hilos.</p>
+ */
+final class Vocabulario {
+
+    /** Valor que indica que un patrón no tiene categoría en un diccionario. */
+    static final int SIN_CATEGORIA = -1;
+
+    /** Valor que indica que no existe una dimensión del tipo buscado. */
+    static final int SIN_DIMENSION = -1;
+
+    /** Tokens que aparecen en algún patrón. */
+    private final TablaTerminos tokens;
+
+    /** Patrones distintos, por su texto normalizado y reducido a raíces. */
+    private final TablaTerminos patrones;
+
+    /** Texto de cada patrón, por identificador de patrón. */
+    private final String[] textos;
+
+    /** Tipo de cada dimensión, por identificador de dimensión. */
+    private final String[] tipos;
+
+    /**
+     * Primera categoría de cada dimensión; la posición {@code d + 1} es el
+     * fin (exclusivo) de la dimensión {@code d}.
+     */
+    private final int[] iniciosCategorias;
+
+    /** Nombre de cada categoría, por identificador global de categoría. */
+    private final String[] categorias;
+
+    /**
+     * Primera asignación de cada patrón; la posición {@code p + 1} es el fin
+     * (exclusivo) de las asignaciones del patrón {@code p}.
+     */
+    private final int[] iniciosAsignaciones;
+
+    /** Dimensión de cada asignación. */
+    private final int[] dimensionDe;
+
+    /** Categoría global de cada asignación. */
+    private final int[] categoriaDe;
+
+    /** Dimensión del diccionario emocional, o {@link #SIN_DIMENSION}. */
+    private final int dimensionEmocional;
+
+    /** Dimensión del diccionario técnico, o {@link #SIN_DIMENSION}. */
+    private final int dimensionTecnica;
+
+    /** Autómata con todos los patrones. */
+    private final AutomataFrases automata = new AutomataFrases();
+
+    /** Stemmer de los tokens, o {@code null} si no se reducen a raíces. */
+    private final StemmerEspanol stemmer;
+
+    /** Texto normalizado de la primera entrada de cada patrón, mientras se compila. */
+    private final List<String> superficies = new ArrayList<>();
+
+    /**
+     * Compila el vocabulario. Los diccionarios del mismo tipo, sin importar
+     * mayúsculas, forman una sola dimensión; los diccionarios sin tipo se
+     * ignoran. Si dos palabras de una misma dimensión se normalizan al mismo
+     * patrón, conserva la categoría de la primera.
+     *
+     * @param diccionarios diccionarios a compilar, en el orden de sus dimensiones
+     * @param stopwords    stopwords que se eliminan del texto analizado
+     * @param stemmer      stemmer de los tokens, o {@code null} para comparar
+     *                     las palabras tal como aparecen
+     */
+    Vocabulario(List<Diccionario> diccionarios,
+                ConjuntoStopwords stopwords,
+                StemmerEspanol stemmer) {
+        this.stemmer = stemmer;
+        int capacidad = 0;
+        for (Diccionario d : diccionarios) {
+            capacidad += cantidadPalabras(d);
+        }
+        this.tokens = new TablaTerminos(capacidad);
+        this.patrones = new TablaTerminos(capacidad);
+
+        // Categoría local de cada patrón, por dimensión, mientras se compila.
+        Map<String, Integer> idDimension = new HashMap<>();
+        List<String> nombresTipos = new ArrayList<>();
+        List<List<String>> nombresCategorias = new ArrayList<>();
+        List<Map<String, Integer>> idsCategorias = new ArrayList<>();
+        List<int[]> categoriasLocales = new ArrayList<>();
+
+        for (Diccionario d : diccionarios) {
+            if (d == null || d.getTipo() == null) continue;
+
+            String clave = d.getTipo().toLowerCase(Locale.ROOT);
+            Integer dimension = idDimension.get(clave);
+            if (dimension == null) {
+                dimension = nombresTipos.size();
+                idDimension.put(clave, dimension);
+                nombresTipos.add(d.getTipo());
+                nombresCategorias.add(new ArrayList<>());
+                idsCategorias.add(new HashMap<>());
+                categoriasLocales.add(new int[0]);
+            }
+            categoriasLocales.set(dimension, compilar(d, stopwords, categoriasLocales.get(dimension),
+                    idsCategorias.get(dimension), nombresCategorias.get(dimension)));
+        }
+
+        int dimensiones = nombresTipos.size();
+        this.tipos = nombresTipos.toArray(new String[0]);
+        this.iniciosCategorias = new int[dimensiones + 1];
+        List<String> todas = new ArrayList<>();
+        for (int d = 0; d < dimensiones; d++) {
+            iniciosCategorias[d] = todas.size();
+            todas.addAll(nombresCategorias.get(d));
+        }
+        iniciosCategorias[dimensiones] = todas.size();
+        this.categorias = todas.toArray(new String[0]);
+        this.dimensionEmocional = buscarDimension(AnalisisBow.DICCIONARIO_EMOCIONAL);
+        this.dimensionTecnica = buscarDimension(AnalisisBow.DICCIONARIO_TECNICO);
+
+        int tamano = patrones.tamano();
+        this.iniciosAsignaciones = new int[tamano + 1];
+        int[] dimensionTemporal = new int[Math.max(8, tamano)];
+        int[] categoriaTemporal = new int[Math.max(8, tamano)];
+        int asignaciones = 0;
+        for (int p = 0; p < tamano; p++) {
+            iniciosAsignaciones[p] = asignaciones;
+            for (int d = 0; d < dimensiones; d++) {
+                int[] locales = categoriasLocales.get(d);
+                if (p >= locales.length || locales[p] == SIN_CATEGORIA) continue;
+
+                if (asignaciones == dimensionTemporal.length) {
+                    dimensionTemporal = Arrays.copyOf(dimensionTemporal, asignaciones * 2);
+                    categoriaTemporal = Arrays.copyOf(categoriaTemporal, asignaciones * 2);
+                }
+                dimensionTemporal[asignaciones] = d;
+                categoriaTemporal[asignaciones] = iniciosCategorias[d] + locales[p];
+                asignaciones++;
+            }
+        }
+        iniciosAsignaciones[tamano] = asignaciones;
+        this.dimensionDe = Arrays.copyOf(dimensionTemporal, asignaciones);
+        this.categoriaDe = Arrays.copyOf(categoriaTemporal, asignaciones);
+
+        this.textos = superficies.toArray(new String[0]);
+        superficies.clear();
+
+        for (int id = 0; id < tamano; id++) {
+            String[] partes = patrones.termino(id).split(" ");
+            int[] secuencia = new int[partes.length];
+            for (int k = 0; k < partes.length; k++) {
+                secuencia[k] = tokens.agregar(partes[k]);
+            }
+            automata.agregar(secuencia, id);
+        }
+        automata.construir();
+    }
+
+    /**
+     * Busca un token guardado en un buffer.
+     *
+     * @param buffer   buffer con el token, desde la posición 0
+     * @param longitud cantidad de caracteres del token
+     * @return identificador del token o {@link AutomataFrases#NINGUNO} si no
+     *         aparece en ningún patrón
+     */
+    int idToken(char[] buffer, int longitud) {
+        if (stemmer != null) {
+            longitud = stemmer.longitudRaiz(buffer, longitud);
+        }
+        return tokens.buscar(buffer, 0, longitud);
+    }
+
+    /**
+     * Obtiene la cantidad de tokens distintos de los patrones.
+     *
+     * @return cantidad de tokens
+     */
+    int cantidadTokens() {
+        return tokens.tamano();
+    }
+
+    /**
+     * Obtiene el texto de un token de los patrones, reducido a su raíz si
+     * hay stemmer.
+     *
+     * @param id identificador del token
+     * @return texto del token
+     */
+    String token(int id) {
+        return tokens.termino(id);
+    }
+
+    /**
+     * Obtiene el autómata de los patrones.
+     *
+     * @return autómata compartido
+     */
+    AutomataFrases getAutomata() {
+        return automata;
+    }
+
+    /**
+     * Obtiene la primera asignación (dimensión, categoría) de un patrón.
+     *
+     * @param patron identificador del patrón
+     * @return posición de la primera asignación
+     */
+    int inicioAsignaciones(int patron) {
+        return iniciosAsignaciones[patron];
+    }
+
+    /**
+     * Obtiene el fin de las asignaciones de un patrón.
+     *
+     * @param patron identificador del patrón
+     * @return posición siguiente a la última asignación del patrón
+     */
+    int finAsignaciones(int patron) {
+        return iniciosAsignaciones[patron + 1];
+    }
+
+    /**
+     * Obtiene la dimensión de una asignación.
+     *
+     * @param asignacion posición de la asignación
+     * @return identificador de la dimensión
+     */
+    int dimension(int asignacion) {
+        return dimensionDe[asignacion];
+    }
+
+    /**
+     * Obtiene la categoría de una asignación.
+     *
+     * @param asignacion posición de la asignación
+     * @return identificador global de la categoría
+     */
+    int categoria(int asignacion) {
+        return categoriaDe[asignacion];
+    }
+
+    /**
+     * Obtiene la cantidad total de asignaciones (dimensión, categoría) de
+     * todos los patrones.
+     *
+     * @return cantidad de asignaciones
+     */
+    int cantidadAsignaciones() {
+        return dimensionDe.length;
+    }
+
+    /**
+     * Obtiene la cantidad de patrones.
+     *
+     * @return cantidad de patrones
+     */
+    int cantidadPatrones() {
+        return textos.length;
+    }
+
+    /**
+     * Obtiene la cantidad de dimensiones, es decir, de tipos de diccionario
+     * distintos.
+     *
+     * @return cantidad de dimensiones
+     */
+    int cantidadDimensiones() {
+        return tipos.length;
+    }
+
+    /**
+     * Obtiene la cantidad total de categorías de todas las dimensiones.
+     *
+     * @return cantidad de categorías
+     */
+    int cantidadCategorias() {
+        return categorias.length;
+    }
+
+    /**
+     * Obtiene la primera categoría de una dimensión.
+     *
+     * @param dimension identificador de la dimensión
+     * @return identificador global de la primera categoría
+     */
+    int inicioCategorias(int dimension) {
+        return iniciosCategorias[dimension];
+    }
+
+    /**
+     * Obtiene el fin de las categorías de una dimensión.
+     *
+     * @param dimension identificador de la dimensión
+     * @return identificador global siguiente a la última categoría
+     */
+    int finCategorias(int dimension) {
+        return iniciosCategorias[dimension + 1];
+    }
+
+    /**
+     * Busca la dimensión de un tipo de diccionario, sin importar mayúsculas.
+     *
+     * @param tipo tipo de diccionario
+     * @return identificador de la dimensión o {@link #SIN_DIMENSION} si no existe
+     */
+    int buscarDimension(String tipo) {
+        for (int d = 0; d < tipos.length; d++) {
+            if (tipos[d].equalsIgnoreCase(tipo)) return d;
+        }
+        return SIN_DIMENSION;
+    }
+
+    /**
+     * Obtiene la dimensión del diccionario emocional.
+     *
+     * @return identificador de la dimensión o {@link #SIN_DIMENSION}
+     */
+    int getDimensionEmocional() {
+        return dimensionEmocional;
+    }
+
+    /**
+     * Obtiene la dimensión del diccionario técnico.
+     *
+     * @return identificador de la dimensión o {@link #SIN_DIMENSION}
+     */
+    int getDimensionTecnica() {
+        return dimensionTecnica;
+    }
+
+    /**
+     * Obtiene el texto de los patrones, por identificador. El arreglo es
+     * compartido y no debe modificarse.
+     *
+     * @return textos normalizados de los patrones
+     */
+    String[] getPatrones() {
+        return textos;
+    }
+
+    /**
+     * Obtiene el tipo de cada dimensión, por identificador. El arreglo es
+     * compartido y no debe modificarse.
+     *
+     * @return tipos de diccionario
+     */
+    String[] getTipos() {
+        return tipos;
+    }
+
+    /**
+     * Obtiene los nombres de las categorías, por identificador global. El
+     * arreglo es compartido y no debe modificarse.
+     *
+     * @return nombres de las categorías
+     */
+    String[] getCategorias() {
+        return categorias;
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Agrega los patrones de un diccionario a su dimensión y devuelve la
+     * categoría local de cada patrón de la dimensión, por identificador de
+     * patrón.
+     */
+    private int[] compilar(Diccionario diccionario,
+                           ConjuntoStopwords stopwords,
+                           int[] categoriaDe,
+                           Map<String, Integer> idPorNombre,
+                           List<String> nombres) {
+        if (diccionario.getPalabras() == null) return categoriaDe;
+
+        for (Palabra p : diccionario.getPalabras()) {
+            if (p.getTexto() == null) continue;
+            String patron = Tokenizador.normalizar(p.getTexto());
+            if (patron.isEmpty()) continue;
+            if (patron.indexOf(' ') < 0 && stopwords.contiene(patron)) continue;
+
+            int antes = patrones.tamano();
+            int id = patrones.agregar(raices(patron));
+            if (id == antes) {
+                superficies.add(patron);
+            }
+            if (id >= categoriaDe.length) {
+                int anterior = categoriaDe.length;
+                categoriaDe = Arrays.copyOf(categoriaDe, Math.max(Math.max(8, anterior * 2), id + 1));
+                Arrays.fill(categoriaDe, anterior, categoriaDe.length, SIN_CATEGORIA);
+            }
+            if (categoriaDe[id] != SIN_CATEGORIA) continue;
+
+            Integer idCategoria = idPorNombre.get(p.getCategoria());
+            if (idCategoria == null) {
+                idCategoria = nombres.size();
+                idPorNombre.put(p.getCategoria(), idCategoria);
+                nombres.add(p.getCategoria());
+            }
+            categoriaDe[id] = idCategoria;
+        }
+        return categoriaDe;
+    }
+
+    /**
+     * Reduce a su raíz cada token de un patrón normalizado.
+     */
+    private String raices(String patron) {
+        if (stemmer == null) return patron;
+
+        String[] partes = patron.split(" ");
+        for (int k = 0; k < partes.length; k++) {
+            partes[k] = stemmer.raiz(partes[k]);
+        }
+        return String.join(" ", partes);
+    }
+
+    private static int cantidadPalabras(Diccionario d) {
+        return d == null || d.getPalabras() == null ? 0 : d.getPalabras().size();
+    }
+}
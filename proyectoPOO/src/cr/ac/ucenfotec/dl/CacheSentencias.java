@@ -0,0 +1,77 @@
+package cr.ac.ucenfotec.dl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU de sentencias preparadas asociada a una conexión física del pool.
+ *
+ * <p>Solo guarda sentencias que no están en uso: al tomar una sentencia se
+ * retira del cache y al devolverla vuelve a insertarse como la más
+ * reciente. Cuando se supera la capacidad se cierra la sentencia usada hace
+ * más tiempo.</p>
+ */
+final class CacheSentencias {
+
+    /** Cantidad máxima de sentencias guardadas. */
+    private final int capacidad;
+
+    /** Sentencias disponibles por texto SQL, de la menos a la más reciente. */
+    private final LinkedHashMap<String, PreparedStatement> libres = new LinkedHashMap<>();
+
+    /**
+     * Crea un cache con la capacidad indicada.
+     *
+     * @param capacidad cantidad máxima de sentencias; cero desactiva el cache
+     */
+    CacheSentencias(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Retira del cache la sentencia preparada para el SQL indicado.
+     *
+     * @param sql texto SQL de la sentencia
+     * @return sentencia disponible o {@code null} si no hay ninguna
+     */
+    synchronized PreparedStatement tomar(String sql) {
+        return libres.remove(sql);
+    }
+
+    /**
+     * Devuelve una sentencia al cache. Si ya existe otra para el mismo SQL
+     * o el cache está desactivado, la sentencia se cierra.
+     *
+     * @param sql texto SQL de la sentencia
+     * @param ps  sentencia a guardar
+     */
+    void devolver(String sql, PreparedStatement ps) {
+        List<PreparedStatement> aCerrar = new ArrayList<>(1);
+
+        synchronized (this) {
+            if (capacidad <= 0 || libres.containsKey(sql)) {
+                aCerrar.add(ps);
+            } else {
+                libres.put(sql, ps);
+                Iterator<Map.Entry<String, PreparedStatement>> it = libres.entrySet().iterator();
+                while (libres.size() > capacidad && it.hasNext()) {
+                    aCerrar.add(it.next().getValue());
+                    it.remove();
+                }
+            }
+        }
+
+        for (PreparedStatement p : aCerrar) {
+            try {
+                p.close();
+            } catch (SQLException e) {
+                // La sentencia ya no es utilizable; no hay nada más que hacer.
+            }
+        }
+    }
+}
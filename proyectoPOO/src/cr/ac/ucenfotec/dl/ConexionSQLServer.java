@@ -6,15 +6,81 @@
 package cr.ac.ucenfotec.dl;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+/**
+ * Punto único de acceso a las conexiones con SQL Server.
+ *
+ * <p>Las conexiones se obtienen de un {@link PoolConexiones} compartido que
+ * se crea la primera vez que se solicita una conexión. Cerrar la conexión
+ * obtenida la devuelve al pool.</p>
+ */
 public class ConexionSQLServer {
     private static final String URL = "jdbc:sqlserver://localhost:1433;databaseName=pooproyecto;encrypt=false;trustServerCertificate=true;";
     private static final String USER = "sa";
     private static final String PASS = "12345";
 
+    /** Configuración con la que se crea el pool. */
+    private static ConfiguracionPool configuracion = new ConfiguracionPool();
+
+    /** Pool compartido; se crea de forma perezosa. */
+    private static volatile PoolConexiones pool;
+
+    /**
+     * Obtiene una conexión del pool compartido.
+     *
+     * @return conexión prestada; al cerrarla vuelve al pool
+     * @throws SQLException si no se puede obtener una conexión
+     */
     public static Connection obtenerConexion() throws SQLException {
-        return DriverManager.getConnection("jdbc:sqlserver://localhost:1433;databaseName=pooproyecto;encrypt=false;trustServerCertificate=true;", "sa", "12345");
+        return pool().obtenerConexion();
+    }
+
+    /**
+     * Reemplaza la configuración del pool. Si el pool ya existía se cierra
+     * y se crea uno nuevo con la configuración indicada en la siguiente
+     * solicitud de conexión.
+     *
+     * @param nuevaConfiguracion configuración a utilizar
+     */
+    public static synchronized void configurarPool(ConfiguracionPool nuevaConfiguracion) {
+        configuracion = nuevaConfiguracion;
+        cerrarPool();
+    }
+
+    /**
+     * Obtiene las métricas actuales del pool compartido.
+     *
+     * @return métricas del pool
+     */
+    public static MetricasPool obtenerMetricasPool() {
+        return pool().obtenerMetricas();
+    }
+
+    /**
+     * Cierra el pool compartido y sus conexiones disponibles.
+     */
+    public static synchronized void cerrarPool() {
+        if (pool != null) {
+            pool.cerrar();
+            pool = null;
+        }
+    }
+
+    /**
+     * Devuelve el pool compartido, creándolo si aún no existe.
+     */
+    private static PoolConexiones pool() {
+        PoolConexiones p = pool;
+        if (p == null) {
+            synchronized (ConexionSQLServer.class) {
+                p = pool;
+                if (p == null) {
+                    p = new PoolConexiones(configuracion, URL, USER, PASS);
+                    pool = p;
+                }
+            }
+        }
+        return p;
     }
 }
@@ -0,0 +1,200 @@
+package cr.ac.ucenfotec.dl;
+
+/**
+ * Parámetros de configuración del pool de conexiones utilizado por
+ * {@link ConexionSQLServer}.
+ *
+ * <p>Todos los valores tienen un valor por defecto razonable, por lo que
+ * basta con modificar únicamente los que se necesiten antes de invocar
+ * {@link ConexionSQLServer#configurarPool(ConfiguracionPool)}.</p>
+ */
+public class ConfiguracionPool {
+
+    /** Cantidad mínima de conexiones que el pool intenta mantener abiertas. */
+    private int minimoConexiones = 2;
+
+    /** Cantidad máxima de conexiones físicas abiertas al mismo tiempo. */
+    private int maximoConexiones = 10;
+
+    /** Tiempo máximo de espera para obtener una conexión, en milisegundos. */
+    private long tiempoEsperaMs = 30_000;
+
+    /** Tiempo que una conexión puede permanecer inactiva antes de cerrarse, en milisegundos. */
+    private long tiempoMaximoInactivaMs = 600_000;
+
+    /** Intervalo entre revisiones de conexiones inactivas, en milisegundos. */
+    private long intervaloRevisionMs = 30_000;
+
+    /** Indica si la conexión se valida antes de entregarla. */
+    private boolean validarAlPrestar = true;
+
+    /** Tiempo máximo para validar una conexión, en segundos. */
+    private int tiempoValidacionSegundos = 2;
+
+    /** Cantidad de sentencias preparadas guardadas por conexión. */
+    private int tamanoCacheSentencias = 50;
+
+    /**
+     * Crea una configuración con los valores por defecto.
+     */
+    public ConfiguracionPool() {
+    }
+
+    /**
+     * Obtiene la cantidad mínima de conexiones del pool.
+     *
+     * @return mínimo de conexiones
+     */
+    public int getMinimoConexiones() {
+        return minimoConexiones;
+    }
+
+    /**
+     * Establece la cantidad mínima de conexiones del pool.
+     *
+     * @param minimoConexiones mínimo de conexiones (cero o mayor)
+     */
+    public void setMinimoConexiones(int minimoConexiones) {
+        if (minimoConexiones < 0) {
+            throw new IllegalArgumentException("El mínimo de conexiones no puede ser negativo");
+        }
+        this.minimoConexiones = minimoConexiones;
+    }
+
+    /**
+     * Obtiene la cantidad máxima de conexiones del pool.
+     *
+     * @return máximo de conexiones
+     */
+    public int getMaximoConexiones() {
+        return maximoConexiones;
+    }
+
+    /**
+     * Establece la cantidad máxima de conexiones del pool.
+     *
+     * @param maximoConexiones máximo de conexiones (mayor que cero)
+     */
+    public void setMaximoConexiones(int maximoConexiones) {
+        if (maximoConexiones <= 0) {
+            throw new IllegalArgumentException("El máximo de conexiones debe ser mayor que cero");
+        }
+        this.maximoConexiones = maximoConexiones;
+    }
+
+    /**
+     * Obtiene el tiempo máximo de espera para obtener una conexión.
+     *
+     * @return tiempo de espera en milisegundos
+     */
+    public long getTiempoEsperaMs() {
+        return tiempoEsperaMs;
+    }
+
+    /**
+     * Establece el tiempo máximo de espera para obtener una conexión.
+     *
+     * @param tiempoEsperaMs tiempo de espera en milisegundos
+     */
+    public void setTiempoEsperaMs(long tiempoEsperaMs) {
+        this.tiempoEsperaMs = tiempoEsperaMs;
+    }
+
+    /**
+     * Obtiene el tiempo máximo que una conexión puede permanecer inactiva.
+     *
+     * @return tiempo de inactividad en milisegundos
+     */
+    public long getTiempoMaximoInactivaMs() {
+        return tiempoMaximoInactivaMs;
+    }
+
+    /**
+     * Establece el tiempo máximo que una conexión puede permanecer inactiva
+     * antes de ser cerrada por el pool.
+     *
+     * @param tiempoMaximoInactivaMs tiempo de inactividad en milisegundos
+     */
+    public void setTiempoMaximoInactivaMs(long tiempoMaximoInactivaMs) {
+        this.tiempoMaximoInactivaMs = tiempoMaximoInactivaMs;
+    }
+
+    /**
+     * Obtiene el intervalo entre revisiones de conexiones inactivas.
+     *
+     * @return intervalo en milisegundos
+     */
+    public long getIntervaloRevisionMs() {
+        return intervaloRevisionMs;
+    }
+
+    /**
+     * Establece el intervalo entre revisiones de conexiones inactivas.
+     *
+     * @param intervaloRevisionMs intervalo en milisegundos (mayor que cero)
+     */
+    public void setIntervaloRevisionMs(long intervaloRevisionMs) {
+        if (intervaloRevisionMs <= 0) {
+            throw new IllegalArgumentException("El intervalo de revisión debe ser mayor que cero");
+        }
+        this.intervaloRevisionMs = intervaloRevisionMs;
+    }
+
+    /**
+     * Indica si las conexiones se validan antes de entregarlas.
+     *
+     * @return {@code true} si se validan al prestarse
+     */
+    public boolean isValidarAlPrestar() {
+        return validarAlPrestar;
+    }
+
+    /**
+     * Activa o desactiva la validación de conexiones antes de entregarlas.
+     *
+     * @param validarAlPrestar {@code true} para validar cada préstamo
+     */
+    public void setValidarAlPrestar(boolean validarAlPrestar) {
+        this.validarAlPrestar = validarAlPrestar;
+    }
+
+    /**
+     * Obtiene el tiempo máximo para validar una conexión.
+     *
+     * @return tiempo en segundos
+     */
+    public int getTiempoValidacionSegundos() {
+        return tiempoValidacionSegundos;
+    }
+
+    /**
+     * Establece el tiempo máximo para validar una conexión.
+     *
+     * @param tiempoValidacionSegundos tiempo en segundos
+     */
+    public void setTiempoValidacionSegundos(int tiempoValidacionSegundos) {
+        this.tiempoValidacionSegundos = tiempoValidacionSegundos;
+    }
+
+    /**
+     * Obtiene la cantidad de sentencias preparadas que se guardan por conexión.
+     *
+     * @return tamaño del cache de sentencias
+     */
+    public int getTamanoCacheSentencias() {
+        return tamanoCacheSentencias;
+    }
+
+    /**
+     * Establece la cantidad de sentencias preparadas que se guardan por
+     * conexión. Un valor de cero desactiva el cache.
+     *
+     * @param tamanoCacheSentencias tamaño del cache (cero o mayor)
+     */
+    public void setTamanoCacheSentencias(int tamanoCacheSentencias) {
+        if (tamanoCacheSentencias < 0) {
+            throw new IllegalArgumentException("El tamaño del cache de sentencias no puede ser negativo");
+        }
+        this.tamanoCacheSentencias = tamanoCacheSentencias;
+    }
+}
@@ -11,14 +11,60 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Proporciona operaciones de acceso a datos para el sistema HelpDesk U.
  * Gestiona la persistencia de usuarios, departamentos, tickets,
  * diccionarios y palabras.
+ *
+ * <p>Es la implementación de {@link RepositorioHelpDesk} sobre SQL Server.
+ * Las tablas de apoyo del análisis ({@code VersionDiccionarios},
+ * {@code Stopwords}, {@code FrecuenciaDocumentos},
+ * {@code CoincidenciasTermino} y {@code CoincidenciasCategoria}) se crean
+ * con {@code sql/esquema_analisis.sql}.</p>
  */
-public class HelpDeskDao {
+public class HelpDeskDao implements RepositorioHelpDesk {
+
+    /** Tamaño de lote por defecto para las inserciones masivas. */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
+
+    /** Cantidad de filas enviadas por lote y confirmadas por transacción. */
+    private int tamanoLote = TAMANO_LOTE_POR_DEFECTO;
+
+    /** Reciben los tickets insertados correctamente. */
+    private final List<ObservadorTickets> observadoresTickets = new CopyOnWriteArrayList<>();
+
+    /**
+     * Obtiene el tamaño de lote usado en las inserciones masivas.
+     *
+     * @return filas por lote
+     */
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    /**
+     * Establece el tamaño de lote usado en las inserciones masivas. Cada
+     * lote se envía con JDBC batching y se confirma en su propia transacción.
+     *
+     * @param tamanoLote filas por lote (mayor que cero)
+     */
+    public void setTamanoLote(int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        this.tamanoLote = tamanoLote;
+    }
 
     // ------------ USUARIOS ------------
 
@@ -27,6 +73,7 @@ public class HelpDeskDao {
      *
      * @param u usuario a registrar
      */
+    @Override
     public void insertarUsuario(Usuario u) {
         String sql = "INSERT INTO Usuarios (nombre, correo, password, telefono, rol) " +
                 "VALUES (?, ?, ?, ?, ?)";
@@ -45,11 +92,32 @@ public class HelpDeskDao {
         }
     }
 
+    /**
+     * Inserta varios usuarios utilizando lotes.
+     *
+     * @param usuarios usuarios a registrar
+     * @return resultado con las filas insertadas y las rechazadas
+     */
+    @Override
+    public ResultadoLote insertarUsuarios(List<Usuario> usuarios) {
+        String sql = "INSERT INTO Usuarios (nombre, correo, password, telefono, rol) " +
+                "VALUES (?, ?, ?, ?, ?)";
+
+        return insertarEnLotes(sql, usuarios, false, (ps, u) -> {
+            ps.setString(1, u.getNombre());
+            ps.setString(2, u.getCorreo());
+            ps.setString(3, u.getPassword());
+            ps.setString(4, u.getTelefono());
+            ps.setString(5, u.getRol());
+        });
+    }
+
     /**
      * Obtiene todos los usuarios registrados.
      *
      * @return lista de usuarios
      */
+    @Override
     public List<Usuario> listarUsuarios() {
         List<Usuario> lista = new ArrayList<>();
 
@@ -84,6 +152,7 @@ public class HelpDeskDao {
      * @param id identificador del usuario
      * @return usuario encontrado o {@code null} si no existe
      */
+    @Override
     public Usuario buscarUsuarioPorId(int id) {
         String sql = "SELECT idUsuario, nombre, correo, password, telefono, rol " +
                 "FROM Usuarios WHERE idUsuario = ?";
@@ -119,6 +188,7 @@ public class HelpDeskDao {
      * @param passwordHasheado contraseña en formato hash
      * @return usuario encontrado o {@code null} si las credenciales no coinciden
      */
+    @Override
     public Usuario buscarUsuarioPorCredenciales(String correo, String passwordHasheado) {
 
         String sql = "SELECT idUsuario, nombre, correo, password, telefono, rol " +
@@ -155,6 +225,7 @@ public class HelpDeskDao {
      * @param correo correo a buscar
      * @return usuario encontrado o {@code null} si no existe
      */
+    @Override
     public Usuario buscarUsuarioPorCorreo(String correo) {
         String sql = "SELECT idUsuario, nombre, correo, password, telefono, rol " +
                 "FROM Usuarios WHERE correo = ?";
@@ -188,6 +259,7 @@ public class HelpDeskDao {
      *
      * @param u usuario con la información actualizada
      */
+    @Override
     public void actualizarUsuario(Usuario u) {
         String sql = "UPDATE Usuarios " +
                 "SET nombre = ?, correo = ?, password = ?, telefono = ?, rol = ? " +
@@ -214,6 +286,7 @@ public class HelpDeskDao {
      *
      * @param idUsuario identificador del usuario
      */
+    @Override
     public void eliminarUsuario(int idUsuario) {
         String sql = "DELETE FROM Usuarios WHERE idUsuario = ?";
 
@@ -234,6 +307,7 @@ public class HelpDeskDao {
      *
      * @param d departamento a registrar
      */
+    @Override
     public void insertarDepartamento(Departamento d) {
         String sql = "INSERT INTO Departamentos (nombre, descripcion, correoContacto) " +
                 "VALUES (?, ?, ?)";
@@ -256,6 +330,7 @@ public class HelpDeskDao {
      *
      * @return lista de departamentos
      */
+    @Override
     public List<Departamento> listarDepartamentos() {
         List<Departamento> lista = new ArrayList<>();
 
@@ -288,6 +363,7 @@ public class HelpDeskDao {
      * @param id identificador del departamento
      * @return departamento encontrado o {@code null} si no existe
      */
+    @Override
     public Departamento buscarDepartamentoPorId(int id) {
         String sql = "SELECT idDepartamento, nombre, descripcion, correoContacto " +
                 "FROM Departamentos WHERE idDepartamento = ?";
@@ -320,6 +396,7 @@ public class HelpDeskDao {
      *
      * @param d departamento con la información actualizada
      */
+    @Override
     public void actualizarDepartamento(Departamento d) {
         String sql = "UPDATE Departamentos " +
                 "SET nombre = ?, descripcion = ?, correoContacto = ? " +
@@ -344,6 +421,7 @@ public class HelpDeskDao {
      *
      * @param idDepartamento identificador del departamento
      */
+    @Override
     public void eliminarDepartamento(int idDepartamento) {
         String sql = "DELETE FROM Departamentos WHERE idDepartamento = ?";
 
@@ -359,12 +437,123 @@ public class HelpDeskDao {
 
     // ------------ TICKETS ------------
 
+    /** Cantidad de filas que se solicitan por viaje al recorrer tickets en flujo. */
+    public static final int TAMANO_FETCH_TICKETS = 500;
+
+    /** Columnas y uniones comunes a las consultas de tickets. */
+    private static final String COLUMNAS_TICKETS =
+            "  t.idTicket, t.asunto, t.descripcion, t.estado, " +
+                    "  u.idUsuario, u.nombre AS nombreUsuario, u.correo, u.password, u.telefono, u.rol, " +
+                    "  d.idDepartamento, d.nombre AS nombreDepto, d.descripcion AS descripcionDepto, d.correoContacto " +
+                    "FROM Tickets t " +
+                    "JOIN Usuarios u ON t.idUsuario = u.idUsuario " +
+                    "JOIN Departamentos d ON t.idDepartamento = d.idDepartamento";
+
+    /** Consulta base de tickets con su usuario y departamento. */
+    private static final String SELECT_TICKETS = "SELECT " + COLUMNAS_TICKETS;
+
+    /** Consulta base de tickets limitada por {@code TOP (?)}. */
+    private static final String SELECT_TICKETS_TOP = "SELECT TOP (?) " + COLUMNAS_TICKETS;
+
+    /**
+     * Construye un ticket, con su usuario y departamento, a partir de la
+     * fila actual de una consulta de tickets.
+     *
+     * @param rs resultado posicionado en la fila a leer
+     * @return ticket construido
+     * @throws SQLException si no se pueden leer las columnas
+     */
+    private Ticket mapearTicket(ResultSet rs) throws SQLException {
+        Usuario u = new Usuario(
+                rs.getInt("idUsuario"),
+                rs.getString("nombreUsuario"),
+                rs.getString("correo"),
+                rs.getString("password"),
+                rs.getString("telefono"),
+                rs.getString("rol")
+        );
+
+        Departamento d = new Departamento(
+                rs.getString("nombreDepto"),
+                rs.getString("descripcionDepto"),
+                rs.getString("correoContacto")
+        );
+        d.setId(rs.getInt("idDepartamento"));
+
+        Ticket t = new Ticket(
+                rs.getString("asunto"),
+                rs.getString("descripcion"),
+                rs.getString("estado"),
+                u,
+                d
+        );
+        t.setId(rs.getInt("idTicket"));
+        return t;
+    }
+
+    /**
+     * Recorre un resultado de tickets fila por fila y libera la conexión al
+     * terminar o al cerrarse el flujo.
+     */
+    private final class RecorridoTickets extends Spliterators.AbstractSpliterator<Ticket> {
+
+        private final Connection conn;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private boolean cerrado;
+
+        RecorridoTickets(Connection conn, PreparedStatement ps, ResultSet rs) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.ps = ps;
+            this.rs = rs;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Ticket> accion) {
+            if (cerrado) return false;
+            try {
+                if (rs.next()) {
+                    accion.accept(mapearTicket(rs));
+                    return true;
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            cerrar();
+            return false;
+        }
+
+        void cerrar() {
+            if (!cerrado) {
+                cerrado = true;
+                HelpDeskDao.cerrar(rs, ps, conn);
+            }
+        }
+    }
+
+    /**
+     * Cierra los recursos indicados ignorando los que sean {@code null}.
+     */
+    private static void cerrar(AutoCloseable... recursos) {
+        for (AutoCloseable r : recursos) {
+            if (r == null) continue;
+            try {
+                r.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Inserta un nuevo ticket en la base de datos.
      *
      * @param t ticket a registrar
+     * @return {@code true} si el ticket se insertó
      */
-    public void insertarTicket(Ticket t) {
+    @Override
+    public boolean insertarTicket(Ticket t) {
         String sql = "INSERT INTO Tickets (asunto, descripcion, estado, idUsuario, idDepartamento) " +
                 "VALUES (?, ?, ?, ?, ?)";
 
@@ -380,57 +569,142 @@ public class HelpDeskDao {
             ps.executeUpdate();
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
+        }
+
+        for (ObservadorTickets observador : observadoresTickets) {
+            observador.ticketInsertado(t);
+        }
+        return true;
+    }
+
+    /**
+     * Inserta varios tickets utilizando lotes.
+     *
+     * @param tickets tickets a registrar
+     * @return resultado con las filas insertadas y las rechazadas
+     */
+    @Override
+    public ResultadoLote insertarTickets(List<Ticket> tickets) {
+        String sql = "INSERT INTO Tickets (asunto, descripcion, estado, idUsuario, idDepartamento) " +
+                "VALUES (?, ?, ?, ?, ?)";
+
+        ResultadoLote resultado = insertarEnLotes(sql, tickets, false, (ps, t) -> {
+            ps.setString(1, t.getAsunto());
+            ps.setString(2, t.getDescripcion());
+            ps.setString(3, t.getEstado());
+            ps.setInt(4, t.getUsuario().getId());
+            ps.setInt(5, t.getDepartamento().getId());
+        });
+
+        for (ObservadorTickets observador : observadoresTickets) {
+            for (int i = 0; i < tickets.size(); i++) {
+                if (!resultado.getErrores().containsKey(i)) {
+                    observador.ticketInsertado(tickets.get(i));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public void agregarObservadorTickets(ObservadorTickets observador) {
+        if (observador == null) {
+            throw new IllegalArgumentException("El observador no puede ser nulo");
         }
+        observadoresTickets.add(observador);
     }
 
     /**
      * Obtiene todos los tickets, incluyendo la información del usuario y el departamento asociados.
      *
+     * <p>Carga todas las filas en memoria; para volúmenes grandes utilice
+     * {@link #listarTicketsPagina(int, int)} o {@link #streamTickets()}.</p>
+     *
      * @return lista de tickets
      */
+    @Override
     public List<Ticket> listarTickets() {
         List<Ticket> lista = new ArrayList<>();
 
-        String sql =
-                "SELECT " +
-                        "  t.idTicket, t.asunto, t.descripcion, t.estado, " +
-                        "  u.idUsuario, u.nombre AS nombreUsuario, u.correo, u.password, u.telefono, u.rol, " +
-                        "  d.idDepartamento, d.nombre AS nombreDepto, d.descripcion, d.correoContacto " +
-                        "FROM Tickets t " +
-                        "JOIN Usuarios u ON t.idUsuario = u.idUsuario " +
-                        "JOIN Departamentos d ON t.idDepartamento = d.idDepartamento";
+        String sql = SELECT_TICKETS + " ORDER BY t.idTicket";
 
         try (Connection conn = ConexionSQLServer.obtenerConexion();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
+                lista.add(mapearTicket(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
 
-                Usuario u = new Usuario(
-                        rs.getInt("idUsuario"),
-                        rs.getString("nombreUsuario"),
-                        rs.getString("correo"),
-                        rs.getString("password"),
-                        rs.getString("telefono"),
-                        rs.getString("rol")
-                );
+        return lista;
+    }
 
-                Departamento d = new Departamento(
-                        rs.getString("nombreDepto"),
-                        rs.getString("descripcion"),
-                        rs.getString("correoContacto")
-                );
-                d.setId(rs.getInt("idDepartamento"));
+    /**
+     * Obtiene una página de tickets ordenados por identificador, usando
+     * paginación por llave: la consulta parte del último identificador
+     * recibido en lugar de saltar filas con un desplazamiento.
+     *
+     * <p>Para recorrer todos los tickets se inicia con {@code despuesDeId = 0}
+     * y en cada llamada siguiente se envía el id del último ticket de la
+     * página anterior, hasta recibir una página vacía.</p>
+     *
+     * @param despuesDeId  identificador a partir del cual se listan los tickets (exclusivo)
+     * @param tamanoPagina cantidad máxima de tickets a devolver (mayor que cero)
+     * @return tickets de la página, ordenados por identificador
+     * @throws IllegalArgumentException si {@code tamanoPagina} no es mayor que cero
+     */
+    @Override
+    public List<Ticket> listarTicketsPagina(int despuesDeId, int tamanoPagina) {
+        if (tamanoPagina <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        List<Ticket> lista = new ArrayList<>(Math.min(tamanoPagina, 1000));
 
-                Ticket t = new Ticket(
-                        rs.getString("asunto"),
-                        rs.getString("descripcion"),
-                        rs.getString("estado"),
-                        u,
-                        d
-                );
+        String sql = SELECT_TICKETS_TOP + " WHERE t.idTicket > ? ORDER BY t.idTicket";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, tamanoPagina);
+            ps.setInt(2, despuesDeId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearTicket(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return lista;
+    }
+
+    /**
+     * Obtiene los tickets que se encuentran en un estado.
+     *
+     * @param estado estado a buscar
+     * @return tickets en ese estado, ordenados por identificador
+     */
+    @Override
+    public List<Ticket> listarTicketsPorEstado(String estado) {
+        List<Ticket> lista = new ArrayList<>();
 
-                lista.add(t);
+        String sql = SELECT_TICKETS + " WHERE t.estado = ? ORDER BY t.idTicket";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, estado);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearTicket(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -439,12 +713,46 @@ public class HelpDeskDao {
         return lista;
     }
 
+    /**
+     * Obtiene todos los tickets como un flujo perezoso: las filas se leen de
+     * la base de datos a medida que se consumen, de {@link #TAMANO_FETCH_TICKETS}
+     * en {@link #TAMANO_FETCH_TICKETS}, sin cargar el resultado completo en memoria.
+     *
+     * <p>El flujo mantiene una conexión prestada hasta que se cierra, por lo
+     * que debe utilizarse dentro de un try-with-resources. La conexión también
+     * se libera al terminar de recorrer todas las filas.</p>
+     *
+     * @return flujo de tickets ordenados por identificador
+     */
+    @Override
+    public Stream<Ticket> streamTickets() {
+        String sql = SELECT_TICKETS + " ORDER BY t.idTicket";
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = ConexionSQLServer.obtenerConexion();
+            ps = conn.prepareStatement(sql);
+            ps.setFetchSize(TAMANO_FETCH_TICKETS);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            cerrar(rs, ps, conn);
+            return Stream.empty();
+        }
+
+        RecorridoTickets recorrido = new RecorridoTickets(conn, ps, rs);
+        return StreamSupport.stream(recorrido, false).onClose(recorrido::cerrar);
+    }
+
     /**
      * Actualiza el estado de un ticket.
      *
      * @param idTicket   identificador del ticket
      * @param nuevoEstado nuevo estado a asignar
      */
+    @Override
     public void actualizarEstadoTicket(int idTicket, String nuevoEstado) {
         String sql = "UPDATE Tickets SET estado = ? WHERE idTicket = ?";
 
@@ -464,6 +772,7 @@ public class HelpDeskDao {
      *
      * @param idTicket identificador del ticket
      */
+    @Override
     public void eliminarTicket(int idTicket) {
         String sql = "DELETE FROM Tickets WHERE idTicket = ?";
 
@@ -483,17 +792,29 @@ public class HelpDeskDao {
      * Inserta un nuevo diccionario.
      *
      * @param d diccionario a registrar
+     * @return {@code true} si el diccionario se insertó
      */
-    public void insertarDiccionario(Diccionario d) {
+    @Override
+    public boolean insertarDiccionario(Diccionario d) {
         String sql = "INSERT INTO Diccionarios (tipo) VALUES (?)";
 
         try (Connection conn = ConexionSQLServer.obtenerConexion();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, d.getTipo());
-            ps.executeUpdate();
+            conn.setAutoCommit(false);
+            try {
+                ps.setString(1, d.getTipo());
+                ps.executeUpdate();
+                incrementarVersionDiccionarios(conn);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -502,6 +823,7 @@ public class HelpDeskDao {
      *
      * @return lista de diccionarios
      */
+    @Override
     public List<Diccionario> listarDiccionarios() {
         List<Diccionario> lista = new ArrayList<>();
 
@@ -523,12 +845,54 @@ public class HelpDeskDao {
         return lista;
     }
 
+    /**
+     * Obtiene todos los diccionarios con sus palabras ya cargadas. Utiliza
+     * una única consulta con {@code LEFT JOIN} y agrupa las filas por
+     * diccionario, en lugar de una consulta por diccionario.
+     *
+     * @return lista de diccionarios con sus palabras
+     */
+    @Override
+    public List<Diccionario> listarDiccionariosConPalabras() {
+        Map<Integer, Diccionario> porId = new LinkedHashMap<>();
+
+        String sql = "SELECT d.idDiccionario, d.tipo, p.texto, p.categoria " +
+                "FROM Diccionarios d " +
+                "LEFT JOIN Palabras p ON p.idDiccionario = d.idDiccionario " +
+                "ORDER BY d.idDiccionario";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                int id = rs.getInt("idDiccionario");
+                Diccionario d = porId.get(id);
+                if (d == null) {
+                    d = new Diccionario(rs.getString("tipo"));
+                    d.setId(id);
+                    porId.put(id, d);
+                }
+
+                String texto = rs.getString("texto");
+                if (texto != null) {
+                    d.getPalabras().add(new Palabra(texto, rs.getString("categoria")));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return new ArrayList<>(porId.values());
+    }
+
     /**
      * Busca un diccionario por su identificador.
      *
      * @param idDiccionario identificador del diccionario
      * @return diccionario encontrado o {@code null} si no existe
      */
+    @Override
     public Diccionario buscarDiccionarioPorId(int idDiccionario) {
         String sql = "SELECT idDiccionario, tipo FROM Diccionarios WHERE idDiccionario = ?";
 
@@ -555,43 +919,75 @@ public class HelpDeskDao {
      * Actualiza el tipo de un diccionario.
      *
      * @param d diccionario con la información actualizada
+     * @return {@code true} si el diccionario existe y se actualizó
      */
-    public void actualizarDiccionario(Diccionario d) {
+    @Override
+    public boolean actualizarDiccionario(Diccionario d) {
         String sql = "UPDATE Diccionarios SET tipo = ? WHERE idDiccionario = ?";
 
         try (Connection conn = ConexionSQLServer.obtenerConexion();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, d.getTipo());
-            ps.setInt(2, d.getId());
-            ps.executeUpdate();
+            conn.setAutoCommit(false);
+            try {
+                ps.setString(1, d.getTipo());
+                ps.setInt(2, d.getId());
+                boolean actualizado = ps.executeUpdate() > 0;
+                if (actualizado) {
+                    incrementarVersionDiccionarios(conn);
+                }
+                conn.commit();
+                return actualizado;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
     /**
-     * Elimina un diccionario y sus palabras asociadas.
+     * Elimina un diccionario y sus palabras asociadas en una sola
+     * transacción.
      *
      * @param idDiccionario identificador del diccionario
+     * @return {@code true} si el diccionario existía y se eliminó
      */
-    public void eliminarDiccionario(int idDiccionario) {
+    @Override
+    public boolean eliminarDiccionario(int idDiccionario) {
         String sqlPalabras = "DELETE FROM Palabras WHERE idDiccionario = ?";
         String sqlDic      = "DELETE FROM Diccionarios WHERE idDiccionario = ?";
 
         try (Connection conn = ConexionSQLServer.obtenerConexion()) {
 
-            try (PreparedStatement psP = conn.prepareStatement(sqlPalabras)) {
-                psP.setInt(1, idDiccionario);
-                psP.executeUpdate();
-            }
+            conn.setAutoCommit(false);
+            try {
+                int filas;
+                try (PreparedStatement psP = conn.prepareStatement(sqlPalabras)) {
+                    psP.setInt(1, idDiccionario);
+                    filas = psP.executeUpdate();
+                }
 
-            try (PreparedStatement psD = conn.prepareStatement(sqlDic)) {
-                psD.setInt(1, idDiccionario);
-                psD.executeUpdate();
+                boolean eliminado;
+                try (PreparedStatement psD = conn.prepareStatement(sqlDic)) {
+                    psD.setInt(1, idDiccionario);
+                    eliminado = psD.executeUpdate() > 0;
+                }
+
+                if (eliminado || filas > 0) {
+                    incrementarVersionDiccionarios(conn);
+                }
+                conn.commit();
+                return eliminado;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -602,30 +998,61 @@ public class HelpDeskDao {
      *
      * @param p             palabra a registrar
      * @param idDiccionario identificador del diccionario
+     * @return {@code true} si la palabra se insertó
      */
-    public void insertarPalabra(Palabra p, int idDiccionario) {
+    @Override
+    public boolean insertarPalabra(Palabra p, int idDiccionario) {
         String sql = "INSERT INTO Palabras (texto, categoria, idDiccionario) " +
                 "VALUES (?, ?, ?)";
 
         try (Connection conn = ConexionSQLServer.obtenerConexion();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, p.getTexto());
-            ps.setString(2, p.getCategoria());
-            ps.setInt(3, idDiccionario);
-
-            ps.executeUpdate();
+            conn.setAutoCommit(false);
+            try {
+                ps.setString(1, p.getTexto());
+                ps.setString(2, p.getCategoria());
+                ps.setInt(3, idDiccionario);
+                ps.executeUpdate();
+                incrementarVersionDiccionarios(conn);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
+    /**
+     * Inserta varias palabras en un diccionario utilizando lotes.
+     *
+     * @param palabras      palabras a registrar
+     * @param idDiccionario identificador del diccionario
+     * @return resultado con las filas insertadas y las rechazadas
+     */
+    @Override
+    public ResultadoLote insertarPalabras(List<Palabra> palabras, int idDiccionario) {
+        String sql = "INSERT INTO Palabras (texto, categoria, idDiccionario) " +
+                "VALUES (?, ?, ?)";
+
+        return insertarEnLotes(sql, palabras, true, (ps, p) -> {
+            ps.setString(1, p.getTexto());
+            ps.setString(2, p.getCategoria());
+            ps.setInt(3, idDiccionario);
+        });
+    }
+
     /**
      * Lista las palabras asociadas a un diccionario.
      *
      * @param idDiccionario identificador del diccionario
      * @return lista de palabras
      */
+    @Override
     public List<Palabra> listarPalabrasPorDiccionario(int idDiccionario) {
         List<Palabra> lista = new ArrayList<>();
 
@@ -659,6 +1086,7 @@ public class HelpDeskDao {
      * @param texto         texto de la palabra
      * @return palabra encontrada o {@code null} si no existe
      */
+    @Override
     public Palabra buscarPalabraEnDiccionario(int idDiccionario, String texto) {
         String sql = "SELECT texto, categoria FROM Palabras " +
                 "WHERE idDiccionario = ? AND texto = ?";
@@ -693,6 +1121,7 @@ public class HelpDeskDao {
      * @param nuevaCategoria nueva categoría
      * @return {@code true} si se actualizó alguna fila; {@code false} en caso contrario
      */
+    @Override
     public boolean actualizarPalabraEnDiccionario(int idDiccionario,
                                                   String textoOriginal,
                                                   String nuevoTexto,
@@ -705,13 +1134,23 @@ public class HelpDeskDao {
         try (Connection conn = ConexionSQLServer.obtenerConexion();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, nuevoTexto);
-            ps.setString(2, nuevaCategoria);
-            ps.setInt(3, idDiccionario);
-            ps.setString(4, textoOriginal);
+            conn.setAutoCommit(false);
+            try {
+                ps.setString(1, nuevoTexto);
+                ps.setString(2, nuevaCategoria);
+                ps.setInt(3, idDiccionario);
+                ps.setString(4, textoOriginal);
 
-            int filas = ps.executeUpdate();
-            return filas > 0;
+                int filas = ps.executeUpdate();
+                if (filas > 0) {
+                    incrementarVersionDiccionarios(conn);
+                }
+                conn.commit();
+                return filas > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -725,19 +1164,467 @@ public class HelpDeskDao {
      * @param texto         texto de la palabra
      * @return {@code true} si la palabra fue eliminada; {@code false} en caso contrario
      */
+    @Override
     public boolean eliminarPalabraDeDiccionario(int idDiccionario, String texto) {
         String sql = "DELETE FROM Palabras WHERE idDiccionario = ? AND texto = ?";
 
         try (Connection conn = ConexionSQLServer.obtenerConexion();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setInt(1, idDiccionario);
-            ps.setString(2, texto);
-            int filas = ps.executeUpdate();
-            return filas > 0;
+            conn.setAutoCommit(false);
+            try {
+                ps.setInt(1, idDiccionario);
+                ps.setString(2, texto);
+
+                int filas = ps.executeUpdate();
+                if (filas > 0) {
+                    incrementarVersionDiccionarios(conn);
+                }
+                conn.commit();
+                return filas > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ------------ VERSIÓN DE DICCIONARIOS ------------
+
+    /**
+     * Incrementa la versión de los diccionarios, creando su fila si todavía
+     * no existe. {@code HOLDLOCK} evita que dos transacciones concurrentes
+     * inserten la fila a la vez.
+     */
+    private static final String SQL_INCREMENTAR_VERSION =
+            "MERGE VersionDiccionarios WITH (HOLDLOCK) AS v " +
+            "USING (VALUES (1)) AS s (id) ON v.id = s.id " +
+            "WHEN MATCHED THEN UPDATE SET version = v.version + 1 " +
+            "WHEN NOT MATCHED THEN INSERT (id, version) VALUES (1, 1);";
+
+    /**
+     * Obtiene la versión de los diccionarios de la tabla
+     * {@code VersionDiccionarios}.
+     *
+     * @return versión de los diccionarios, 0 si aún no se registran cambios
+     *         o -1 si no se pudo leer
+     */
+    @Override
+    public long obtenerVersionDiccionarios() {
+        String sql = "SELECT version FROM VersionDiccionarios WHERE id = 1";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getLong("version") : 0L;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1L;
+        }
+    }
+
+    /**
+     * Incrementa la versión de los diccionarios dentro de la transacción
+     * abierta en la conexión, para que se confirme junto con el cambio.
+     *
+     * @param conn conexión con la transacción en curso
+     * @throws SQLException si ocurre un error al actualizar
+     */
+    private void incrementarVersionDiccionarios(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INCREMENTAR_VERSION)) {
+            ps.executeUpdate();
+        }
+    }
+
+    // ------------ STOPWORDS ------------
+
+    /**
+     * Inserta una stopword para un idioma o inquilino.
+     *
+     * @param idioma  idioma o inquilino al que pertenece la stopword
+     * @param palabra palabra a registrar, ya normalizada
+     */
+    @Override
+    public void insertarStopword(String idioma, String palabra) {
+        String sql = "INSERT INTO Stopwords (idioma, palabra) VALUES (?, ?)";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, idioma);
+            ps.setString(2, palabra);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lista las stopwords registradas para un idioma o inquilino.
+     *
+     * @param idioma idioma o inquilino
+     * @return lista de stopwords, vacía si no hay registradas
+     */
+    @Override
+    public List<String> listarStopwords(String idioma) {
+        List<String> lista = new ArrayList<>();
+
+        String sql = "SELECT palabra FROM Stopwords WHERE idioma = ?";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, idioma);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(rs.getString("palabra"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return lista;
+    }
+
+    // ------------ ESTADÍSTICAS DEL CORPUS ------------
+
+    /**
+     * Término reservado de la tabla {@code FrecuenciaDocumentos} cuya fila
+     * guarda la cantidad total de documentos. Ningún término normalizado es
+     * vacío, así que no choca con las demás filas.
+     */
+    private static final String TERMINO_TOTAL = "";
+
+    /**
+     * Suma estadísticas del corpus a las guardadas en la tabla
+     * {@code FrecuenciaDocumentos} con {@code MERGE}, en lotes y en una
+     * sola transacción.
+     *
+     * @param documentos  descripciones registradas desde el último guardado
+     * @param frecuencias término normalizado -&gt; descripciones que lo
+     *                    contienen registradas desde el último guardado
+     * @return {@code true} si se guardaron
+     */
+    @Override
+    public boolean guardarEstadisticasCorpus(long documentos, Map<String, Long> frecuencias) {
+        String sql = "MERGE FrecuenciaDocumentos WITH (HOLDLOCK) AS f " +
+                "USING (VALUES (?, ?)) AS v (termino, documentos) ON f.termino = v.termino " +
+                "WHEN MATCHED THEN UPDATE SET documentos = f.documentos + v.documentos " +
+                "WHEN NOT MATCHED THEN INSERT (termino, documentos) VALUES (v.termino, v.documentos);";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            conn.setAutoCommit(false);
+            try {
+                ps.setString(1, TERMINO_TOTAL);
+                ps.setLong(2, documentos);
+                ps.addBatch();
+
+                int enLote = 1;
+                for (Map.Entry<String, Long> e : frecuencias.entrySet()) {
+                    ps.setString(1, e.getKey());
+                    ps.setLong(2, e.getValue());
+                    ps.addBatch();
+                    if (++enLote == tamanoLote) {
+                        ps.executeBatch();
+                        enLote = 0;
+                    }
+                }
+                if (enLote > 0) {
+                    ps.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
+        return true;
+    }
+
+    /**
+     * Obtiene la cantidad de documentos del corpus guardada.
+     *
+     * @return cantidad de documentos, 0 si no hay estadísticas guardadas
+     */
+    @Override
+    public long contarDocumentosCorpus() {
+        String sql = "SELECT documentos FROM FrecuenciaDocumentos WHERE termino = ?";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, TERMINO_TOTAL);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("documentos");
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return 0L;
+    }
+
+    /**
+     * Lista la frecuencia de documento guardada de cada término.
+     *
+     * @return mapa término -&gt; cantidad de descripciones que lo contienen
+     */
+    @Override
+    public Map<String, Long> listarFrecuenciasDocumento() {
+        Map<String, Long> frecuencias = new HashMap<>();
+
+        String sql = "SELECT termino, documentos FROM FrecuenciaDocumentos WHERE termino <> ?";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, TERMINO_TOTAL);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    frecuencias.put(rs.getString("termino"), rs.getLong("documentos"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return frecuencias;
+    }
+
+    // ------------ COINCIDENCIAS DE DICCIONARIOS ------------
+
+    /**
+     * Suma coincidencias a las guardadas en las tablas
+     * {@code CoincidenciasTermino} y {@code CoincidenciasCategoria} con
+     * {@code MERGE}, en lotes y en una sola transacción.
+     *
+     * @param tipo       tipo de diccionario, en minúsculas
+     * @param terminos   término normalizado -&gt; coincidencias a sumar
+     * @param categorias categoría -&gt; coincidencias a sumar
+     */
+    @Override
+    public void guardarCoincidencias(String tipo, Map<String, Long> terminos, Map<String, Long> categorias) {
+        String sqlTerminos = "MERGE CoincidenciasTermino WITH (HOLDLOCK) AS c " +
+                "USING (VALUES (?, ?, ?)) AS v (tipo, termino, coincidencias) " +
+                "ON c.tipo = v.tipo AND c.termino = v.termino " +
+                "WHEN MATCHED THEN UPDATE SET coincidencias = c.coincidencias + v.coincidencias " +
+                "WHEN NOT MATCHED THEN INSERT (tipo, termino, coincidencias) " +
+                "VALUES (v.tipo, v.termino, v.coincidencias);";
+        String sqlCategorias = "MERGE CoincidenciasCategoria WITH (HOLDLOCK) AS c " +
+                "USING (VALUES (?, ?, ?)) AS v (tipo, categoria, coincidencias) " +
+                "ON c.tipo = v.tipo AND c.categoria = v.categoria " +
+                "WHEN MATCHED THEN UPDATE SET coincidencias = c.coincidencias + v.coincidencias " +
+                "WHEN NOT MATCHED THEN INSERT (tipo, categoria, coincidencias) " +
+                "VALUES (v.tipo, v.categoria, v.coincidencias);";
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion()) {
+
+            conn.setAutoCommit(false);
+            try {
+                sumarCoincidencias(conn, sqlTerminos, tipo, terminos);
+                sumarCoincidencias(conn, sqlCategorias, tipo, categorias);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lista las coincidencias guardadas de cada palabra de un tipo de
+     * diccionario.
+     *
+     * @param tipo tipo de diccionario, en minúsculas
+     * @return mapa término -&gt; coincidencias
+     */
+    @Override
+    public Map<String, Long> listarCoincidenciasPorTermino(String tipo) {
+        return listarCoincidencias("SELECT termino, coincidencias FROM CoincidenciasTermino WHERE tipo = ?", tipo);
+    }
+
+    /**
+     * Lista las coincidencias guardadas de cada categoría de un tipo de
+     * diccionario.
+     *
+     * @param tipo tipo de diccionario, en minúsculas
+     * @return mapa categoría -&gt; coincidencias
+     */
+    @Override
+    public Map<String, Long> listarCoincidenciasPorCategoria(String tipo) {
+        return listarCoincidencias("SELECT categoria, coincidencias FROM CoincidenciasCategoria WHERE tipo = ?", tipo);
+    }
+
+    /**
+     * Ejecuta en lotes un {@code MERGE} de coincidencias dentro de la
+     * transacción abierta en la conexión.
+     */
+    private void sumarCoincidencias(Connection conn, String sql, String tipo, Map<String, Long> conteo)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int enLote = 0;
+            for (Map.Entry<String, Long> e : conteo.entrySet()) {
+                ps.setString(1, tipo);
+                ps.setString(2, e.getKey());
+                ps.setLong(3, e.getValue());
+                ps.addBatch();
+                if (++enLote == tamanoLote) {
+                    ps.executeBatch();
+                    enLote = 0;
+                }
+            }
+            if (enLote > 0) {
+                ps.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Lee pares (clave, coincidencias) de una consulta filtrada por tipo.
+     */
+    private Map<String, Long> listarCoincidencias(String sql, String tipo) {
+        Map<String, Long> conteo = new HashMap<>();
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, tipo);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    conteo.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return conteo;
+    }
+
+    // ------------ CARGAS MASIVAS ------------
+
+    /**
+     * Asigna los parámetros de una fila a una sentencia de inserción.
+     *
+     * @param <T> tipo de la fila
+     */
+    private interface AsignadorParametros<T> {
+        void asignar(PreparedStatement ps, T fila) throws SQLException;
+    }
+
+    /**
+     * Inserta filas en lotes de {@link #tamanoLote}, cada lote en su propia
+     * transacción. Si un lote falla se deshace y sus filas se reintentan una
+     * por una, de modo que solo las filas con error quedan fuera. Si la
+     * conexión falla a mitad de la carga, se reportan como rechazadas solo
+     * las filas que no llegaron a confirmarse.
+     *
+     * @param sql                sentencia de inserción
+     * @param filas              filas a insertar
+     * @param versionDiccionarios {@code true} para incrementar la versión de
+     *                           los diccionarios en cada transacción que
+     *                           inserta filas
+     * @param asignador          asigna los parámetros de cada fila
+     * @param <T>                tipo de la fila
+     * @return resultado con las filas insertadas y las rechazadas
+     */
+    private <T> ResultadoLote insertarEnLotes(String sql, List<T> filas, boolean versionDiccionarios,
+                                              AsignadorParametros<T> asignador) {
+        ResultadoLote resultado = new ResultadoLote(filas.size());
+        boolean[] confirmadas = new boolean[filas.size()];
+        int siguiente = 0;
+
+        try (Connection conn = ConexionSQLServer.obtenerConexion();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            conn.setAutoCommit(false);
+
+            while (siguiente < filas.size()) {
+                int fin = Math.min(filas.size(), siguiente + tamanoLote);
+                List<Integer> enLote = new ArrayList<>(fin - siguiente);
+
+                for (int i = siguiente; i < fin; i++) {
+                    try {
+                        asignador.asignar(ps, filas.get(i));
+                        ps.addBatch();
+                        enLote.add(i);
+                    } catch (SQLException | RuntimeException e) {
+                        resultado.registrarFallo(i, String.valueOf(e.getMessage()));
+                    }
+                }
+
+                try {
+                    ps.executeBatch();
+                    if (versionDiccionarios && !enLote.isEmpty()) {
+                        incrementarVersionDiccionarios(conn);
+                    }
+                    conn.commit();
+                    for (int i : enLote) {
+                        confirmadas[i] = true;
+                    }
+                    resultado.sumarInsertadas(enLote.size());
+                } catch (SQLException e) {
+                    conn.rollback();
+                    ps.clearBatch();
+                    insertarUnaPorUna(conn, ps, filas, enLote, versionDiccionarios, asignador,
+                            resultado, confirmadas);
+                }
+                siguiente = fin;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            for (int i = siguiente; i < filas.size(); i++) {
+                if (!confirmadas[i] && !resultado.getErrores().containsKey(i)) {
+                    resultado.registrarFallo(i, String.valueOf(e.getMessage()));
+                }
+            }
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Inserta individualmente las filas de un lote que falló, confirmando
+     * cada una por separado para aislar las filas con error. Marca en
+     * {@code confirmadas} cada fila confirmada.
+     */
+    private <T> void insertarUnaPorUna(Connection conn, PreparedStatement ps, List<T> filas,
+                                       List<Integer> posiciones, boolean versionDiccionarios,
+                                       AsignadorParametros<T> asignador,
+                                       ResultadoLote resultado,
+                                       boolean[] confirmadas) throws SQLException {
+        for (int i : posiciones) {
+            try {
+                asignador.asignar(ps, filas.get(i));
+                ps.executeUpdate();
+                if (versionDiccionarios) {
+                    incrementarVersionDiccionarios(conn);
+                }
+                conn.commit();
+                confirmadas[i] = true;
+                resultado.sumarInsertadas(1);
+            } catch (SQLException e) {
+                conn.rollback();
+                resultado.registrarFallo(i, String.valueOf(e.getMessage()));
+            }
+        }
     }
 }
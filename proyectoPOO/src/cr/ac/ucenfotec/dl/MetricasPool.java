@@ -0,0 +1,173 @@
+package cr.ac.ucenfotec.dl;
+
+/**
+ * Fotografía de las métricas del pool de conexiones en un instante dado.
+ * Los valores no cambian después de creada la instancia.
+ */
+public class MetricasPool {
+
+    /** Conexiones prestadas actualmente. */
+    private final int activas;
+
+    /** Conexiones abiertas disponibles en el pool. */
+    private final int inactivas;
+
+    /** Hilos esperando por una conexión. */
+    private final int esperando;
+
+    /** Cantidad total de préstamos realizados. */
+    private final long prestamos;
+
+    /** Cantidad de solicitudes que agotaron el tiempo de espera. */
+    private final long tiemposAgotados;
+
+    /** Tiempo promedio de obtención de una conexión, en microsegundos. */
+    private final double latenciaPromedioMicros;
+
+    /** Tiempo máximo de obtención de una conexión, en microsegundos. */
+    private final double latenciaMaximaMicros;
+
+    /** Sentencias preparadas obtenidas del cache. */
+    private final long aciertosSentencias;
+
+    /** Sentencias preparadas que no estaban en el cache. */
+    private final long fallosSentencias;
+
+    /**
+     * Crea una nueva fotografía de métricas.
+     *
+     * @param activas                conexiones prestadas
+     * @param inactivas              conexiones disponibles
+     * @param esperando              hilos en espera
+     * @param prestamos              préstamos realizados
+     * @param tiemposAgotados        solicitudes que agotaron el tiempo de espera
+     * @param latenciaPromedioMicros latencia promedio de obtención
+     * @param latenciaMaximaMicros   latencia máxima de obtención
+     * @param aciertosSentencias     sentencias obtenidas del cache
+     * @param fallosSentencias       sentencias que no estaban en el cache
+     */
+    public MetricasPool(int activas, int inactivas, int esperando, long prestamos,
+                        long tiemposAgotados, double latenciaPromedioMicros,
+                        double latenciaMaximaMicros, long aciertosSentencias,
+                        long fallosSentencias) {
+        this.activas = activas;
+        this.inactivas = inactivas;
+        this.esperando = esperando;
+        this.prestamos = prestamos;
+        this.tiemposAgotados = tiemposAgotados;
+        this.latenciaPromedioMicros = latenciaPromedioMicros;
+        this.latenciaMaximaMicros = latenciaMaximaMicros;
+        this.aciertosSentencias = aciertosSentencias;
+        this.fallosSentencias = fallosSentencias;
+    }
+
+    /**
+     * Obtiene la cantidad de conexiones prestadas.
+     *
+     * @return conexiones activas
+     */
+    public int getActivas() {
+        return activas;
+    }
+
+    /**
+     * Obtiene la cantidad de conexiones disponibles en el pool.
+     *
+     * @return conexiones inactivas
+     */
+    public int getInactivas() {
+        return inactivas;
+    }
+
+    /**
+     * Obtiene la cantidad de hilos esperando una conexión.
+     *
+     * @return hilos en espera
+     */
+    public int getEsperando() {
+        return esperando;
+    }
+
+    /**
+     * Obtiene la cantidad total de préstamos realizados.
+     *
+     * @return préstamos realizados
+     */
+    public long getPrestamos() {
+        return prestamos;
+    }
+
+    /**
+     * Obtiene la cantidad de solicitudes que agotaron el tiempo de espera.
+     *
+     * @return solicitudes sin conexión
+     */
+    public long getTiemposAgotados() {
+        return tiemposAgotados;
+    }
+
+    /**
+     * Obtiene el tiempo promedio para obtener una conexión.
+     *
+     * @return latencia promedio en microsegundos
+     */
+    public double getLatenciaPromedioMicros() {
+        return latenciaPromedioMicros;
+    }
+
+    /**
+     * Obtiene el tiempo máximo registrado para obtener una conexión.
+     *
+     * @return latencia máxima en microsegundos
+     */
+    public double getLatenciaMaximaMicros() {
+        return latenciaMaximaMicros;
+    }
+
+    /**
+     * Obtiene la cantidad de sentencias preparadas obtenidas del cache.
+     *
+     * @return aciertos del cache de sentencias
+     */
+    public long getAciertosSentencias() {
+        return aciertosSentencias;
+    }
+
+    /**
+     * Obtiene la cantidad de sentencias preparadas que no estaban en el cache.
+     *
+     * @return fallos del cache de sentencias
+     */
+    public long getFallosSentencias() {
+        return fallosSentencias;
+    }
+
+    /**
+     * Calcula la proporción de sentencias obtenidas del cache.
+     *
+     * @return valor entre 0 y 1, o 0 si aún no se han preparado sentencias
+     */
+    public double getTasaAciertosSentencias() {
+        long total = aciertosSentencias + fallosSentencias;
+        return total == 0 ? 0 : (double) aciertosSentencias / total;
+    }
+
+    /**
+     * Devuelve una representación textual de las métricas.
+     *
+     * @return cadena con los valores principales del pool
+     */
+    @Override
+    public String toString() {
+        return "MetricasPool{activas=" + activas +
+                ", inactivas=" + inactivas +
+                ", esperando=" + esperando +
+                ", prestamos=" + prestamos +
+                ", tiemposAgotados=" + tiemposAgotados +
+                ", latenciaPromedioMicros=" + String.format("%.1f", latenciaPromedioMicros) +
+                ", latenciaMaximaMicros=" + String.format("%.1f", latenciaMaximaMicros) +
+                ", aciertosSentencias=" + aciertosSentencias +
+                ", fallosSentencias=" + fallosSentencias +
+                '}';
+    }
+}
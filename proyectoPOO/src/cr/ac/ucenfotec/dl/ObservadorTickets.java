@@ -0,0 +1,22 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Ticket;
+
+/**
+ * Recibe los tickets que un {@link RepositorioHelpDesk} insertó
+ * correctamente, tanto uno a uno como en cargas masivas. Los tickets
+ * rechazados o cuya inserción falló no se notifican.
+ *
+ * <p>{@code Gestor} lo usa para mantener las estadísticas del corpus al día
+ * sin importar quién inserte los tickets.</p>
+ */
+@FunctionalInterface
+public interface ObservadorTickets {
+
+    /**
+     * Se llama después de confirmar la inserción de un ticket.
+     *
+     * @param t ticket insertado
+     */
+    void ticketInsertado(Ticket t);
+}
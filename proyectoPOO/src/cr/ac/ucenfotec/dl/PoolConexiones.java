@@ -0,0 +1,582 @@
+package cr.ac.ucenfotec.dl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ *
+ * <p>Las conexiones físicas se abren una sola vez y se reutilizan entre
+ * llamadas. Cada préstamo entrega un envoltorio de {@link Connection}
+ * cuyo método {@code close()} devuelve la conexión al pool en lugar de
+ * cerrarla, por lo que el código existente que usa
+ * try-with-resources sigue funcionando sin cambios.</p>
+ *
+ * <p>Cada conexión física mantiene además un {@link CacheSentencias}: las
+ * llamadas a {@code prepareStatement(String)} reutilizan la sentencia ya
+ * preparada para el mismo SQL y su {@code close()} la devuelve al cache.</p>
+ *
+ * <p>Una tarea en segundo plano cierra las conexiones que superan el tiempo
+ * máximo de inactividad y repone el mínimo configurado.</p>
+ */
+public class PoolConexiones {
+
+    /** Parámetros del pool. */
+    private final ConfiguracionPool config;
+
+    /** URL JDBC de la base de datos. */
+    private final String url;
+
+    /** Usuario de la base de datos. */
+    private final String usuario;
+
+    /** Contraseña de la base de datos. */
+    private final String clave;
+
+    /** Conexiones disponibles; la más reciente queda al inicio. */
+    private final Deque<ConexionFisica> libres = new ArrayDeque<>();
+
+    /**
+     * Protege el estado del pool. Es justo para que un hilo que llega no le
+     * gane la conexión liberada a uno que ya estaba esperando.
+     */
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    /** Se señala cada vez que una conexión queda disponible o se libera un cupo. */
+    private final Condition disponible = lock.newCondition();
+
+    /** Tarea periódica de mantenimiento. */
+    private final ScheduledExecutorService mantenimiento;
+
+    /** Conexiones físicas abiertas o en proceso de apertura. */
+    private int total;
+
+    /** Conexiones prestadas actualmente. */
+    private int activas;
+
+    /** Hilos esperando una conexión. */
+    private int esperando;
+
+    /** Indica si el pool fue cerrado. */
+    private boolean cerrado;
+
+    /** Cantidad de préstamos realizados. */
+    private final LongAdder prestamos = new LongAdder();
+
+    /** Suma de los tiempos de obtención, en nanosegundos. */
+    private final LongAdder nanosAdquisicion = new LongAdder();
+
+    /** Tiempo máximo de obtención, en nanosegundos. */
+    private final AtomicLong maxNanosAdquisicion = new AtomicLong();
+
+    /** Solicitudes que agotaron el tiempo de espera. */
+    private final LongAdder tiemposAgotados = new LongAdder();
+
+    /** Sentencias obtenidas del cache. */
+    private final LongAdder aciertosSentencias = new LongAdder();
+
+    /** Sentencias que tuvieron que prepararse en la base de datos. */
+    private final LongAdder fallosSentencias = new LongAdder();
+
+    /**
+     * Crea un nuevo pool de conexiones e inicia su tarea de mantenimiento.
+     *
+     * @param config  parámetros del pool
+     * @param url     URL JDBC de la base de datos
+     * @param usuario usuario de la base de datos
+     * @param clave   contraseña de la base de datos
+     */
+    public PoolConexiones(ConfiguracionPool config, String url, String usuario, String clave) {
+        if (config.getMinimoConexiones() > config.getMaximoConexiones()) {
+            throw new IllegalArgumentException("El mínimo de conexiones supera el máximo");
+        }
+        this.config = config;
+        this.url = url;
+        this.usuario = usuario;
+        this.clave = clave;
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexiones-mantenimiento");
+            t.setDaemon(true);
+            return t;
+        });
+        this.mantenimiento.scheduleWithFixedDelay(this::revisar, 0,
+                config.getIntervaloRevisionMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtiene una conexión del pool, esperando como máximo el tiempo
+     * configurado si todas están ocupadas.
+     *
+     * @return conexión prestada; al cerrarla vuelve al pool
+     * @throws SQLException si no se puede abrir una conexión o se agota el tiempo de espera
+     */
+    public Connection obtenerConexion() throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(config.getTiempoEsperaMs());
+
+        while (true) {
+            ConexionFisica c = null;
+            boolean crear = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (cerrado) {
+                        throw new SQLException("El pool de conexiones está cerrado");
+                    }
+                    c = libres.pollFirst();
+                    if (c != null) {
+                        break;
+                    }
+                    if (total < config.getMaximoConexiones()) {
+                        total++;
+                        crear = true;
+                        break;
+                    }
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        tiemposAgotados.increment();
+                        throw new SQLTimeoutException("No hay conexiones disponibles después de "
+                                + config.getTiempoEsperaMs() + " ms");
+                    }
+                    esperando++;
+                    try {
+                        disponible.awaitNanos(restante);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrumpido mientras esperaba una conexión", e);
+                    } finally {
+                        esperando--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (crear) {
+                try {
+                    c = abrir();
+                } catch (SQLException e) {
+                    liberarCupo();
+                    throw e;
+                }
+            } else if (config.isValidarAlPrestar() && !esValida(c)) {
+                descartar(c);
+                continue;
+            }
+
+            lock.lock();
+            try {
+                activas++;
+            } finally {
+                lock.unlock();
+            }
+            registrarLatencia(System.nanoTime() - inicio);
+            return envolver(c);
+        }
+    }
+
+    /**
+     * Obtiene las métricas actuales del pool.
+     *
+     * @return fotografía de las métricas
+     */
+    public MetricasPool obtenerMetricas() {
+        int act;
+        int inact;
+        int esp;
+        lock.lock();
+        try {
+            act = activas;
+            inact = libres.size();
+            esp = esperando;
+        } finally {
+            lock.unlock();
+        }
+
+        long cantidad = prestamos.sum();
+        double promedio = cantidad == 0 ? 0 : nanosAdquisicion.sum() / (cantidad * 1000.0);
+        return new MetricasPool(act, inact, esp, cantidad, tiemposAgotados.sum(),
+                promedio, maxNanosAdquisicion.get() / 1000.0,
+                aciertosSentencias.sum(), fallosSentencias.sum());
+    }
+
+    /**
+     * Cierra el pool y todas las conexiones disponibles. Las conexiones
+     * prestadas se cierran cuando sus usuarios las devuelven.
+     */
+    public void cerrar() {
+        List<ConexionFisica> aCerrar;
+        lock.lock();
+        try {
+            if (cerrado) return;
+            cerrado = true;
+            aCerrar = new ArrayList<>(libres);
+            total -= libres.size();
+            libres.clear();
+            disponible.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        mantenimiento.shutdownNow();
+        for (ConexionFisica c : aCerrar) {
+            c.cerrarSilenciosamente();
+        }
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Abre una nueva conexión física con la base de datos.
+     */
+    private ConexionFisica abrir() throws SQLException {
+        return new ConexionFisica(DriverManager.getConnection(url, usuario, clave),
+                config.getTamanoCacheSentencias());
+    }
+
+    /**
+     * Comprueba que la conexión siga respondiendo.
+     */
+    private boolean esValida(ConexionFisica c) {
+        try {
+            return c.fisica.isValid(config.getTiempoValidacionSegundos());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cierra una conexión física y libera su cupo en el pool.
+     */
+    private void descartar(ConexionFisica c) {
+        c.cerrarSilenciosamente();
+        liberarCupo();
+    }
+
+    /**
+     * Resta una conexión del total y despierta a un hilo en espera.
+     */
+    private void liberarCupo() {
+        lock.lock();
+        try {
+            total--;
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve una conexión prestada al pool, restaurando su estado.
+     */
+    private void devolver(ConexionFisica c) {
+        boolean sana = true;
+        try {
+            if (!c.fisica.getAutoCommit()) {
+                c.fisica.rollback();
+                c.fisica.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            sana = false;
+        }
+
+        lock.lock();
+        try {
+            activas--;
+            if (sana && !cerrado) {
+                c.ultimoUso = System.nanoTime();
+                libres.addFirst(c);
+                disponible.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        descartar(c);
+    }
+
+    /**
+     * Registra el tiempo que tomó obtener una conexión.
+     */
+    private void registrarLatencia(long nanos) {
+        prestamos.increment();
+        nanosAdquisicion.add(nanos);
+        maxNanosAdquisicion.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Tarea de mantenimiento: cierra conexiones inactivas por encima del
+     * mínimo y abre las necesarias para alcanzarlo.
+     */
+    private void revisar() {
+        long limiteInactividad = TimeUnit.MILLISECONDS.toNanos(config.getTiempoMaximoInactivaMs());
+        long ahora = System.nanoTime();
+        List<ConexionFisica> vencidas = new ArrayList<>();
+        int faltantes;
+
+        lock.lock();
+        try {
+            if (cerrado) return;
+            Iterator<ConexionFisica> it = libres.descendingIterator();
+            while (it.hasNext() && total - vencidas.size() > config.getMinimoConexiones()) {
+                ConexionFisica c = it.next();
+                if (ahora - c.ultimoUso > limiteInactividad) {
+                    it.remove();
+                    vencidas.add(c);
+                }
+            }
+            total -= vencidas.size();
+            faltantes = Math.max(0, config.getMinimoConexiones() - total);
+            total += faltantes;
+        } finally {
+            lock.unlock();
+        }
+
+        for (ConexionFisica c : vencidas) {
+            c.cerrarSilenciosamente();
+        }
+
+        for (int i = 0; i < faltantes; i++) {
+            ConexionFisica c;
+            try {
+                c = abrir();
+            } catch (SQLException e) {
+                // La base de datos no está disponible; se reintenta en la próxima revisión.
+                lock.lock();
+                try {
+                    total -= faltantes - i;
+                    disponible.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                if (cerrado) {
+                    total--;
+                    c.cerrarSilenciosamente();
+                } else {
+                    libres.addLast(c);
+                    disponible.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Crea el envoltorio que se entrega al usuario del pool.
+     */
+    private Connection envolver(ConexionFisica c) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionPrestada(c));
+    }
+
+    /**
+     * Conexión física administrada por el pool.
+     */
+    private static final class ConexionFisica {
+
+        /** Conexión abierta con la base de datos. */
+        final Connection fisica;
+
+        /** Sentencias preparadas disponibles para esta conexión. */
+        final CacheSentencias sentencias;
+
+        /** Momento de la última devolución, según {@link System#nanoTime()}. */
+        long ultimoUso;
+
+        ConexionFisica(Connection fisica, int tamanoCache) {
+            this.fisica = fisica;
+            this.sentencias = new CacheSentencias(tamanoCache);
+            this.ultimoUso = System.nanoTime();
+        }
+
+        void cerrarSilenciosamente() {
+            try {
+                fisica.close();
+            } catch (SQLException e) {
+                // La conexión ya no es utilizable; no hay nada más que hacer.
+            }
+        }
+    }
+
+    /**
+     * Intercepta las llamadas sobre una conexión prestada para que
+     * {@code close()} la devuelva al pool y {@code prepareStatement(String)}
+     * use el cache de sentencias.
+     */
+    private final class ConexionPrestada implements InvocationHandler {
+
+        /** Conexión física prestada; {@code null} una vez devuelta. */
+        private ConexionFisica conexion;
+
+        ConexionPrestada(ConexionFisica conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+
+            switch (nombre) {
+                case "close":
+                    if (conexion != null) {
+                        ConexionFisica c = conexion;
+                        conexion = null;
+                        devolver(c);
+                    }
+                    return null;
+                case "isClosed":
+                    return conexion == null || conexion.fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + (conexion == null ? "devuelta" : conexion.fisica) + "]";
+                default:
+                    break;
+            }
+
+            if (conexion == null) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            if ("prepareStatement".equals(nombre) && args.length == 1) {
+                return preparar((Connection) proxy, (String) args[0]);
+            }
+            try {
+                return method.invoke(conexion.fisica, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Obtiene la sentencia del cache de la conexión o la prepara si no
+         * hay una disponible.
+         */
+        private PreparedStatement preparar(Connection proxy, String sql) throws SQLException {
+            ConexionFisica c = conexion;
+            PreparedStatement ps = c.sentencias.tomar(sql);
+            if (ps != null) {
+                aciertosSentencias.increment();
+            } else {
+                fallosSentencias.increment();
+                ps = c.fisica.prepareStatement(sql);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new SentenciaPrestada(c, proxy, sql, ps));
+        }
+    }
+
+    /**
+     * Intercepta las llamadas sobre una sentencia obtenida del cache para
+     * que {@code close()} la devuelva al cache en lugar de cerrarla.
+     */
+    private static final class SentenciaPrestada implements InvocationHandler {
+
+        /** Conexión física dueña de la sentencia. */
+        private final ConexionFisica duena;
+
+        /** Conexión prestada que creó la sentencia. */
+        private final Connection conexion;
+
+        /** Texto SQL de la sentencia. */
+        private final String sql;
+
+        /** Sentencia real; {@code null} una vez devuelta. */
+        private PreparedStatement sentencia;
+
+        SentenciaPrestada(ConexionFisica duena, Connection conexion, String sql, PreparedStatement sentencia) {
+            this.duena = duena;
+            this.conexion = conexion;
+            this.sql = sql;
+            this.sentencia = sentencia;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (sentencia != null) {
+                        PreparedStatement ps = sentencia;
+                        sentencia = null;
+                        devolverAlCache(ps);
+                    }
+                    return null;
+                case "isClosed":
+                    return sentencia == null || sentencia.isClosed();
+                case "getConnection":
+                    return conexion;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaPrestada[" + sql + "]";
+                default:
+                    break;
+            }
+
+            if (sentencia == null) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+            try {
+                return method.invoke(sentencia, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Limpia el estado de la sentencia y la guarda en el cache de su
+         * conexión; si algo falla la cierra definitivamente. El tamaño de
+         * fetch vuelve al del driver, porque la misma sentencia puede
+         * usarse después para una consulta que no lee por tramos.
+         */
+        private void devolverAlCache(PreparedStatement ps) {
+            try {
+                if (ps.isClosed()) return;
+                ps.clearParameters();
+                ps.clearBatch();
+                ps.clearWarnings();
+                ps.setFetchSize(0);
+                duena.sentencias.devolver(sql, ps);
+            } catch (SQLException e) {
+                try {
+                    ps.close();
+                } catch (SQLException ignorada) {
+                    // La sentencia ya no es utilizable; no hay nada más que hacer.
+                }
+            }
+        }
+    }
+}
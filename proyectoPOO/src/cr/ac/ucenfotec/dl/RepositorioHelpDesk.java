@@ -0,0 +1,392 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Departamento;
+import cr.ac.ucenfotec.bl.entities.Diccionario;
+import cr.ac.ucenfotec.bl.entities.Palabra;
+import cr.ac.ucenfotec.bl.entities.Ticket;
+import cr.ac.ucenfotec.bl.entities.Usuario;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Contrato de almacenamiento del sistema HelpDesk U.
+ *
+ * <p>Define las operaciones de persistencia que utiliza la capa de lógica,
+ * de modo que {@code Gestor} pueda trabajar con la base de datos SQL Server
+ * ({@link HelpDeskDao}) o con un motor en memoria ({@link RepositorioMemoria})
+ * sin cambiar su código.</p>
+ */
+public interface RepositorioHelpDesk {
+
+    // ------------ USUARIOS ------------
+
+    /**
+     * Inserta un nuevo usuario.
+     *
+     * @param u usuario a registrar
+     */
+    void insertarUsuario(Usuario u);
+
+    /**
+     * Inserta varios usuarios en una carga masiva.
+     *
+     * @param usuarios usuarios a registrar
+     * @return resultado con las filas insertadas y las rechazadas
+     */
+    ResultadoLote insertarUsuarios(List<Usuario> usuarios);
+
+    /**
+     * Obtiene todos los usuarios registrados.
+     *
+     * @return lista de usuarios
+     */
+    List<Usuario> listarUsuarios();
+
+    /**
+     * Busca un usuario por su identificador.
+     *
+     * @param id identificador del usuario
+     * @return usuario encontrado o {@code null} si no existe
+     */
+    Usuario buscarUsuarioPorId(int id);
+
+    /**
+     * Busca un usuario por su correo y contraseña (ya hasheada).
+     *
+     * @param correo           correo electrónico
+     * @param passwordHasheado contraseña en formato hash
+     * @return usuario encontrado o {@code null} si las credenciales no coinciden
+     */
+    Usuario buscarUsuarioPorCredenciales(String correo, String passwordHasheado);
+
+    /**
+     * Busca un usuario por su correo electrónico.
+     *
+     * @param correo correo a buscar
+     * @return usuario encontrado o {@code null} si no existe
+     */
+    Usuario buscarUsuarioPorCorreo(String correo);
+
+    /**
+     * Actualiza los datos de un usuario.
+     *
+     * @param u usuario con la información actualizada
+     */
+    void actualizarUsuario(Usuario u);
+
+    /**
+     * Elimina un usuario por su identificador.
+     *
+     * @param idUsuario identificador del usuario
+     */
+    void eliminarUsuario(int idUsuario);
+
+    // ------------ DEPARTAMENTOS ------------
+
+    /**
+     * Inserta un nuevo departamento.
+     *
+     * @param d departamento a registrar
+     */
+    void insertarDepartamento(Departamento d);
+
+    /**
+     * Obtiene todos los departamentos registrados.
+     *
+     * @return lista de departamentos
+     */
+    List<Departamento> listarDepartamentos();
+
+    /**
+     * Busca un departamento por su identificador.
+     *
+     * @param id identificador del departamento
+     * @return departamento encontrado o {@code null} si no existe
+     */
+    Departamento buscarDepartamentoPorId(int id);
+
+    /**
+     * Actualiza los datos de un departamento.
+     *
+     * @param d departamento con la información actualizada
+     */
+    void actualizarDepartamento(Departamento d);
+
+    /**
+     * Elimina un departamento por su identificador.
+     *
+     * @param idDepartamento identificador del departamento
+     */
+    void eliminarDepartamento(int idDepartamento);
+
+    // ------------ TICKETS ------------
+
+    /**
+     * Inserta un nuevo ticket.
+     *
+     * @param t ticket a registrar
+     * @return {@code true} si el ticket se insertó
+     */
+    boolean insertarTicket(Ticket t);
+
+    /**
+     * Inserta varios tickets en una carga masiva.
+     *
+     * @param tickets tickets a registrar
+     * @return resultado con las filas insertadas y las rechazadas
+     */
+    ResultadoLote insertarTickets(List<Ticket> tickets);
+
+    /**
+     * Agrega un observador que recibe los tickets insertados correctamente
+     * por {@link #insertarTicket(Ticket)} e {@link #insertarTickets(List)}.
+     *
+     * @param observador observador a notificar
+     */
+    void agregarObservadorTickets(ObservadorTickets observador);
+
+    /**
+     * Obtiene todos los tickets con su usuario y departamento.
+     *
+     * @return lista de tickets
+     */
+    List<Ticket> listarTickets();
+
+    /**
+     * Obtiene una página de tickets ordenados por identificador.
+     *
+     * @param despuesDeId  identificador a partir del cual se listan los tickets (exclusivo)
+     * @param tamanoPagina cantidad máxima de tickets a devolver (mayor que cero)
+     * @return tickets de la página
+     * @throws IllegalArgumentException si {@code tamanoPagina} no es mayor que cero
+     */
+    List<Ticket> listarTicketsPagina(int despuesDeId, int tamanoPagina);
+
+    /**
+     * Obtiene los tickets que se encuentran en un estado.
+     *
+     * @param estado estado a buscar
+     * @return tickets en ese estado, ordenados por identificador
+     */
+    List<Ticket> listarTicketsPorEstado(String estado);
+
+    /**
+     * Obtiene todos los tickets como un flujo que debe cerrarse al terminar.
+     *
+     * @return flujo de tickets ordenados por identificador
+     */
+    Stream<Ticket> streamTickets();
+
+    /**
+     * Actualiza el estado de un ticket.
+     *
+     * @param idTicket    identificador del ticket
+     * @param nuevoEstado nuevo estado a asignar
+     */
+    void actualizarEstadoTicket(int idTicket, String nuevoEstado);
+
+    /**
+     * Elimina un ticket por su identificador.
+     *
+     * @param idTicket identificador del ticket
+     */
+    void eliminarTicket(int idTicket);
+
+    // ------------ DICCIONARIOS ------------
+
+    /**
+     * Inserta un nuevo diccionario.
+     *
+     * @param d diccionario a registrar
+     * @return {@code true} si el diccionario se insertó
+     */
+    boolean insertarDiccionario(Diccionario d);
+
+    /**
+     * Obtiene todos los diccionarios registrados, sin sus palabras.
+     *
+     * @return lista de diccionarios
+     */
+    List<Diccionario> listarDiccionarios();
+
+    /**
+     * Obtiene todos los diccionarios con sus palabras ya cargadas, en una
+     * sola consulta.
+     *
+     * @return lista de diccionarios con sus palabras
+     */
+    List<Diccionario> listarDiccionariosConPalabras();
+
+    /**
+     * Busca un diccionario por su identificador.
+     *
+     * @param idDiccionario identificador del diccionario
+     * @return diccionario encontrado o {@code null} si no existe
+     */
+    Diccionario buscarDiccionarioPorId(int idDiccionario);
+
+    /**
+     * Actualiza el tipo de un diccionario.
+     *
+     * @param d diccionario con la información actualizada
+     * @return {@code true} si el diccionario existe y se actualizó
+     */
+    boolean actualizarDiccionario(Diccionario d);
+
+    /**
+     * Elimina un diccionario y sus palabras asociadas.
+     *
+     * @param idDiccionario identificador del diccionario
+     * @return {@code true} si el diccionario existía y se eliminó
+     */
+    boolean eliminarDiccionario(int idDiccionario);
+
+    // ------------ PALABRAS ------------
+
+    /**
+     * Inserta una palabra asociada a un diccionario.
+     *
+     * @param p             palabra a registrar
+     * @param idDiccionario identificador del diccionario
+     * @return {@code true} si la palabra se insertó
+     */
+    boolean insertarPalabra(Palabra p, int idDiccionario);
+
+    /**
+     * Inserta varias palabras en un diccionario en una carga masiva.
+     *
+     * @param palabras      palabras a registrar
+     * @param idDiccionario identificador del diccionario
+     * @return resultado con las filas insertadas y las rechazadas
+     */
+    ResultadoLote insertarPalabras(List<Palabra> palabras, int idDiccionario);
+
+    /**
+     * Lista las palabras asociadas a un diccionario.
+     *
+     * @param idDiccionario identificador del diccionario
+     * @return lista de palabras
+     */
+    List<Palabra> listarPalabrasPorDiccionario(int idDiccionario);
+
+    /**
+     * Busca una palabra específica dentro de un diccionario.
+     *
+     * @param idDiccionario identificador del diccionario
+     * @param texto         texto de la palabra
+     * @return palabra encontrada o {@code null} si no existe
+     */
+    Palabra buscarPalabraEnDiccionario(int idDiccionario, String texto);
+
+    /**
+     * Actualiza una palabra dentro de un diccionario.
+     *
+     * @param idDiccionario  identificador del diccionario
+     * @param textoOriginal  texto actual de la palabra
+     * @param nuevoTexto     nuevo texto
+     * @param nuevaCategoria nueva categoría
+     * @return {@code true} si se actualizó la palabra; {@code false} en caso contrario
+     */
+    boolean actualizarPalabraEnDiccionario(int idDiccionario, String textoOriginal,
+                                           String nuevoTexto, String nuevaCategoria);
+
+    /**
+     * Elimina una palabra de un diccionario.
+     *
+     * @param idDiccionario identificador del diccionario
+     * @param texto         texto de la palabra
+     * @return {@code true} si la palabra fue eliminada; {@code false} en caso contrario
+     */
+    boolean eliminarPalabraDeDiccionario(int idDiccionario, String texto);
+
+    /**
+     * Obtiene la versión guardada de los diccionarios. Cada escritura en
+     * diccionarios o palabras la incrementa en la misma transacción, de modo
+     * que otra instancia de la aplicación que comparte el almacenamiento
+     * detecta los cambios comparando este número.
+     *
+     * @return versión de los diccionarios, 0 si aún no se registran cambios
+     *         o -1 si no se pudo leer
+     */
+    long obtenerVersionDiccionarios();
+
+    // ------------ STOPWORDS ------------
+
+    /**
+     * Inserta una stopword para un idioma o inquilino.
+     *
+     * @param idioma  idioma o inquilino al que pertenece la stopword
+     * @param palabra palabra a registrar, ya normalizada
+     */
+    void insertarStopword(String idioma, String palabra);
+
+    /**
+     * Lista las stopwords registradas para un idioma o inquilino.
+     *
+     * @param idioma idioma o inquilino
+     * @return lista de stopwords, vacía si no hay registradas
+     */
+    List<String> listarStopwords(String idioma);
+
+    // ------------ ESTADÍSTICAS DEL CORPUS ------------
+
+    /**
+     * Suma documentos y frecuencias de documento a las estadísticas del
+     * corpus guardadas. Los valores se suman en lugar de reemplazarse, para
+     * que varias instancias de la aplicación puedan guardar las suyas.
+     *
+     * @param documentos  descripciones registradas desde el último guardado
+     * @param frecuencias término normalizado -&gt; descripciones que lo
+     *                    contienen registradas desde el último guardado
+     * @return {@code true} si se guardaron
+     */
+    boolean guardarEstadisticasCorpus(long documentos, Map<String, Long> frecuencias);
+
+    /**
+     * Obtiene la cantidad de documentos del corpus guardada.
+     *
+     * @return cantidad de documentos, 0 si no hay estadísticas guardadas
+     */
+    long contarDocumentosCorpus();
+
+    /**
+     * Lista la frecuencia de documento guardada de cada término.
+     *
+     * @return mapa término -&gt; cantidad de descripciones que lo contienen
+     */
+    Map<String, Long> listarFrecuenciasDocumento();
+
+    // ------------ COINCIDENCIAS DE DICCIONARIOS ------------
+
+    /**
+     * Suma coincidencias a las guardadas de las palabras y categorías de un
+     * tipo de diccionario. Las coincidencias se suman en lugar de
+     * reemplazarse, para que varias instancias de la aplicación puedan
+     * guardar las suyas.
+     *
+     * @param tipo       tipo de diccionario, en minúsculas
+     * @param terminos   término normalizado -&gt; coincidencias a sumar
+     * @param categorias categoría -&gt; coincidencias a sumar
+     */
+    void guardarCoincidencias(String tipo, Map<String, Long> terminos, Map<String, Long> categorias);
+
+    /**
+     * Lista las coincidencias guardadas de cada palabra de un tipo de
+     * diccionario.
+     *
+     * @param tipo tipo de diccionario, en minúsculas
+     * @return mapa término -&gt; coincidencias
+     */
+    Map<String, Long> listarCoincidenciasPorTermino(String tipo);
+
+    /**
+     * Lista las coincidencias guardadas de cada categoría de un tipo de
+     * diccionario.
+     *
+     * @param tipo tipo de diccionario, en minúsculas
+     * @return mapa categoría -&gt; coincidencias
+     */
+    Map<String, Long> listarCoincidenciasPorCategoria(String tipo);
+}
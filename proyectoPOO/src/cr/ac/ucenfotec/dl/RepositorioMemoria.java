@@ -0,0 +1,772 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Departamento;
+import cr.ac.ucenfotec.bl.entities.Diccionario;
+import cr.ac.ucenfotec.bl.entities.Palabra;
+import cr.ac.ucenfotec.bl.entities.Ticket;
+import cr.ac.ucenfotec.bl.entities.Usuario;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de {@link RepositorioHelpDesk} que mantiene los datos en
+ * memoria, pensada para pruebas de carga, integración continua y
+ * benchmarks que no deben depender de una base de datos.
+ *
+ * <p>Es segura para uso concurrente: las lecturas se ejecutan en paralelo y
+ * las escrituras son exclusivas. Mantiene índices hash por correo de
+ * usuario, identificador de departamento, {@code (idDiccionario, texto)} de
+ * palabra y estado de ticket.</p>
+ *
+ * <p>Al igual que la base de datos, guarda y devuelve copias de las
+ * entidades, por lo que modificar un objeto obtenido no altera los datos
+ * almacenados hasta que se llama al método de actualización respectivo.</p>
+ */
+public class RepositorioMemoria implements RepositorioHelpDesk {
+
+    /** Protege todas las colecciones del repositorio. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Usuarios por identificador. */
+    private final Map<Integer, Usuario> usuarios = new HashMap<>();
+
+    /** Índice de usuarios: correo -&gt; identificador. */
+    private final Map<String, Integer> usuariosPorCorreo = new HashMap<>();
+
+    /** Departamentos por identificador. */
+    private final Map<Integer, Departamento> departamentos = new HashMap<>();
+
+    /** Tickets por identificador, ordenados para la paginación por llave. */
+    private final TreeMap<Integer, FilaTicket> tickets = new TreeMap<>();
+
+    /** Índice de tickets: estado -&gt; identificadores. */
+    private final Map<String, TreeSet<Integer>> ticketsPorEstado = new HashMap<>();
+
+    /** Diccionarios por identificador. */
+    private final Map<Integer, Diccionario> diccionarios = new HashMap<>();
+
+    /** Índice de palabras: idDiccionario -&gt; (texto -&gt; palabra). */
+    private final Map<Integer, LinkedHashMap<String, Palabra>> palabras = new HashMap<>();
+
+    /** Stopwords por idioma o inquilino. */
+    private final Map<String, LinkedHashSet<String>> stopwords = new HashMap<>();
+
+    /** Frecuencia de documento guardada por término. */
+    private final Map<String, Long> frecuenciasDocumento = new HashMap<>();
+
+    /** Cantidad de documentos del corpus guardada. */
+    private long documentosCorpus;
+
+    /** Versión de los diccionarios; aumenta con cada escritura en diccionarios o palabras. */
+    private long versionDiccionarios;
+
+    /** Coincidencias guardadas por tipo de diccionario y término. */
+    private final Map<String, Map<String, Long>> coincidenciasTermino = new HashMap<>();
+
+    /** Coincidencias guardadas por tipo de diccionario y categoría. */
+    private final Map<String, Map<String, Long>> coincidenciasCategoria = new HashMap<>();
+
+    /** Reciben los tickets insertados correctamente. */
+    private final List<ObservadorTickets> observadoresTickets = new CopyOnWriteArrayList<>();
+
+    /** Últimos identificadores asignados. */
+    private int seqUsuario;
+    private int seqDepartamento;
+    private int seqTicket;
+    private int seqDiccionario;
+
+    // ------------ USUARIOS ------------
+
+    @Override
+    public void insertarUsuario(Usuario u) {
+        lock.writeLock().lock();
+        try {
+            agregarUsuario(u);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ResultadoLote insertarUsuarios(List<Usuario> lista) {
+        ResultadoLote resultado = new ResultadoLote(lista.size());
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < lista.size(); i++) {
+                if (agregarUsuario(lista.get(i))) {
+                    resultado.sumarInsertadas(1);
+                } else {
+                    resultado.registrarFallo(i, "El correo ya está registrado");
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Usuario> listarUsuarios() {
+        lock.readLock().lock();
+        try {
+            List<Usuario> lista = new ArrayList<>(usuarios.size());
+            for (Usuario u : new TreeMap<>(usuarios).values()) {
+                lista.add(copiar(u));
+            }
+            return lista;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Usuario buscarUsuarioPorId(int id) {
+        lock.readLock().lock();
+        try {
+            return copiar(usuarios.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Usuario buscarUsuarioPorCredenciales(String correo, String passwordHasheado) {
+        lock.readLock().lock();
+        try {
+            Integer id = usuariosPorCorreo.get(correo.trim());
+            if (id == null) return null;
+            Usuario u = usuarios.get(id);
+            return passwordHasheado.trim().equals(u.getPassword()) ? copiar(u) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Usuario buscarUsuarioPorCorreo(String correo) {
+        lock.readLock().lock();
+        try {
+            Integer id = usuariosPorCorreo.get(correo);
+            return id == null ? null : copiar(usuarios.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void actualizarUsuario(Usuario u) {
+        lock.writeLock().lock();
+        try {
+            Usuario actual = usuarios.get(u.getId());
+            if (actual == null) return;
+            Integer duenoCorreo = usuariosPorCorreo.get(u.getCorreo());
+            if (duenoCorreo != null && duenoCorreo != u.getId()) return;
+
+            usuariosPorCorreo.remove(actual.getCorreo());
+            usuarios.put(u.getId(), copiar(u));
+            usuariosPorCorreo.put(u.getCorreo(), u.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminarUsuario(int idUsuario) {
+        lock.writeLock().lock();
+        try {
+            Usuario u = usuarios.remove(idUsuario);
+            if (u != null) {
+                usuariosPorCorreo.remove(u.getCorreo());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ------------ DEPARTAMENTOS ------------
+
+    @Override
+    public void insertarDepartamento(Departamento d) {
+        lock.writeLock().lock();
+        try {
+            Departamento copia = copiar(d);
+            copia.setId(++seqDepartamento);
+            departamentos.put(copia.getId(), copia);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Departamento> listarDepartamentos() {
+        lock.readLock().lock();
+        try {
+            List<Departamento> lista = new ArrayList<>(departamentos.size());
+            for (Departamento d : new TreeMap<>(departamentos).values()) {
+                lista.add(copiar(d));
+            }
+            return lista;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Departamento buscarDepartamentoPorId(int id) {
+        lock.readLock().lock();
+        try {
+            return copiar(departamentos.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void actualizarDepartamento(Departamento d) {
+        lock.writeLock().lock();
+        try {
+            if (departamentos.containsKey(d.getId())) {
+                departamentos.put(d.getId(), copiar(d));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminarDepartamento(int idDepartamento) {
+        lock.writeLock().lock();
+        try {
+            departamentos.remove(idDepartamento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ------------ TICKETS ------------
+
+    @Override
+    public boolean insertarTicket(Ticket t) {
+        boolean insertado;
+        lock.writeLock().lock();
+        try {
+            insertado = agregarTicket(t);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (insertado) {
+            for (ObservadorTickets observador : observadoresTickets) {
+                observador.ticketInsertado(t);
+            }
+        }
+        return insertado;
+    }
+
+    @Override
+    public ResultadoLote insertarTickets(List<Ticket> lista) {
+        ResultadoLote resultado = new ResultadoLote(lista.size());
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < lista.size(); i++) {
+                if (agregarTicket(lista.get(i))) {
+                    resultado.sumarInsertadas(1);
+                } else {
+                    resultado.registrarFallo(i, "El usuario o el departamento no existen");
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (ObservadorTickets observador : observadoresTickets) {
+            for (int i = 0; i < lista.size(); i++) {
+                if (!resultado.getErrores().containsKey(i)) {
+                    observador.ticketInsertado(lista.get(i));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public void agregarObservadorTickets(ObservadorTickets observador) {
+        if (observador == null) {
+            throw new IllegalArgumentException("El observador no puede ser nulo");
+        }
+        observadoresTickets.add(observador);
+    }
+
+    @Override
+    public List<Ticket> listarTickets() {
+        return listarTicketsPagina(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Ticket> listarTicketsPagina(int despuesDeId, int tamanoPagina) {
+        if (tamanoPagina <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        lock.readLock().lock();
+        try {
+            List<Ticket> lista = new ArrayList<>();
+            for (FilaTicket f : tickets.tailMap(despuesDeId, false).values()) {
+                if (lista.size() >= tamanoPagina) break;
+                Ticket t = unir(f);
+                if (t != null) lista.add(t);
+            }
+            return lista;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Ticket> listarTicketsPorEstado(String estado) {
+        lock.readLock().lock();
+        try {
+            List<Ticket> lista = new ArrayList<>();
+            TreeSet<Integer> ids = ticketsPorEstado.get(estado);
+            if (ids != null) {
+                for (int id : ids) {
+                    Ticket t = unir(tickets.get(id));
+                    if (t != null) lista.add(t);
+                }
+            }
+            return lista;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Ticket> streamTickets() {
+        return listarTickets().stream();
+    }
+
+    @Override
+    public void actualizarEstadoTicket(int idTicket, String nuevoEstado) {
+        lock.writeLock().lock();
+        try {
+            FilaTicket f = tickets.get(idTicket);
+            if (f == null) return;
+            quitarDeIndiceEstado(f);
+            f.estado = nuevoEstado;
+            ticketsPorEstado.computeIfAbsent(nuevoEstado, k -> new TreeSet<>()).add(f.id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminarTicket(int idTicket) {
+        lock.writeLock().lock();
+        try {
+            FilaTicket f = tickets.remove(idTicket);
+            if (f != null) {
+                quitarDeIndiceEstado(f);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ------------ DICCIONARIOS ------------
+
+    @Override
+    public boolean insertarDiccionario(Diccionario d) {
+        lock.writeLock().lock();
+        try {
+            Diccionario copia = new Diccionario(d.getTipo());
+            copia.setId(++seqDiccionario);
+            diccionarios.put(copia.getId(), copia);
+            palabras.put(copia.getId(), new LinkedHashMap<>());
+            versionDiccionarios++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Diccionario> listarDiccionarios() {
+        lock.readLock().lock();
+        try {
+            List<Diccionario> lista = new ArrayList<>(diccionarios.size());
+            for (Diccionario d : new TreeMap<>(diccionarios).values()) {
+                lista.add(copiar(d));
+            }
+            return lista;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Diccionario> listarDiccionariosConPalabras() {
+        lock.readLock().lock();
+        try {
+            List<Diccionario> lista = new ArrayList<>(diccionarios.size());
+            for (Diccionario d : new TreeMap<>(diccionarios).values()) {
+                Diccionario copia = copiar(d);
+                copia.setPalabras(new ArrayList<>(palabras.get(d.getId()).values()));
+                lista.add(copia);
+            }
+            return lista;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Diccionario buscarDiccionarioPorId(int idDiccionario) {
+        lock.readLock().lock();
+        try {
+            return copiar(diccionarios.get(idDiccionario));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean actualizarDiccionario(Diccionario d) {
+        lock.writeLock().lock();
+        try {
+            Diccionario actual = diccionarios.get(d.getId());
+            if (actual == null) return false;
+            actual.setTipo(d.getTipo());
+            versionDiccionarios++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean eliminarDiccionario(int idDiccionario) {
+        lock.writeLock().lock();
+        try {
+            if (diccionarios.remove(idDiccionario) == null) return false;
+            palabras.remove(idDiccionario);
+            versionDiccionarios++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ------------ PALABRAS ------------
+
+    @Override
+    public boolean insertarPalabra(Palabra p, int idDiccionario) {
+        lock.writeLock().lock();
+        try {
+            if (!agregarPalabra(p, idDiccionario)) return false;
+            versionDiccionarios++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ResultadoLote insertarPalabras(List<Palabra> lista, int idDiccionario) {
+        ResultadoLote resultado = new ResultadoLote(lista.size());
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < lista.size(); i++) {
+                if (agregarPalabra(lista.get(i), idDiccionario)) {
+                    resultado.sumarInsertadas(1);
+                } else {
+                    resultado.registrarFallo(i, "El diccionario no existe o la palabra ya está registrada");
+                }
+            }
+            if (resultado.getInsertadas() > 0) {
+                versionDiccionarios++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Palabra> listarPalabrasPorDiccionario(int idDiccionario) {
+        lock.readLock().lock();
+        try {
+            Map<String, Palabra> delDiccionario = palabras.get(idDiccionario);
+            return delDiccionario == null ? new ArrayList<>() : new ArrayList<>(delDiccionario.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Palabra buscarPalabraEnDiccionario(int idDiccionario, String texto) {
+        lock.readLock().lock();
+        try {
+            Map<String, Palabra> delDiccionario = palabras.get(idDiccionario);
+            return delDiccionario == null ? null : delDiccionario.get(texto);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean actualizarPalabraEnDiccionario(int idDiccionario, String textoOriginal,
+                                                  String nuevoTexto, String nuevaCategoria) {
+        lock.writeLock().lock();
+        try {
+            Map<String, Palabra> delDiccionario = palabras.get(idDiccionario);
+            if (delDiccionario == null || delDiccionario.remove(textoOriginal) == null) {
+                return false;
+            }
+            delDiccionario.put(nuevoTexto, new Palabra(nuevoTexto, nuevaCategoria));
+            versionDiccionarios++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean eliminarPalabraDeDiccionario(int idDiccionario, String texto) {
+        lock.writeLock().lock();
+        try {
+            Map<String, Palabra> delDiccionario = palabras.get(idDiccionario);
+            if (delDiccionario == null || delDiccionario.remove(texto) == null) {
+                return false;
+            }
+            versionDiccionarios++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long obtenerVersionDiccionarios() {
+        lock.readLock().lock();
+        try {
+            return versionDiccionarios;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------ STOPWORDS ------------
+
+    @Override
+    public void insertarStopword(String idioma, String palabra) {
+        lock.writeLock().lock();
+        try {
+            stopwords.computeIfAbsent(idioma, k -> new LinkedHashSet<>()).add(palabra);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> listarStopwords(String idioma) {
+        lock.readLock().lock();
+        try {
+            LinkedHashSet<String> delIdioma = stopwords.get(idioma);
+            return delIdioma == null ? new ArrayList<>() : new ArrayList<>(delIdioma);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------ ESTADÍSTICAS DEL CORPUS ------------
+
+    @Override
+    public boolean guardarEstadisticasCorpus(long documentos, Map<String, Long> frecuencias) {
+        lock.writeLock().lock();
+        try {
+            documentosCorpus += documentos;
+            frecuencias.forEach((termino, n) -> frecuenciasDocumento.merge(termino, n, Long::sum));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long contarDocumentosCorpus() {
+        lock.readLock().lock();
+        try {
+            return documentosCorpus;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Long> listarFrecuenciasDocumento() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(frecuenciasDocumento);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------ COINCIDENCIAS DE DICCIONARIOS ------------
+
+    @Override
+    public void guardarCoincidencias(String tipo, Map<String, Long> terminos, Map<String, Long> categorias) {
+        lock.writeLock().lock();
+        try {
+            Map<String, Long> delTipo = coincidenciasTermino.computeIfAbsent(tipo, k -> new HashMap<>());
+            terminos.forEach((termino, n) -> delTipo.merge(termino, n, Long::sum));
+            Map<String, Long> porCategoria = coincidenciasCategoria.computeIfAbsent(tipo, k -> new HashMap<>());
+            categorias.forEach((categoria, n) -> porCategoria.merge(categoria, n, Long::sum));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Long> listarCoincidenciasPorTermino(String tipo) {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(coincidenciasTermino.getOrDefault(tipo, Collections.emptyMap()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Long> listarCoincidenciasPorCategoria(String tipo) {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(coincidenciasCategoria.getOrDefault(tipo, Collections.emptyMap()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------ INTERNOS ------------
+
+    /**
+     * Fila de la tabla de tickets: guarda las llaves del usuario y el
+     * departamento, que se unen al leer como lo hace la consulta SQL.
+     */
+    private static final class FilaTicket {
+        int id;
+        String asunto;
+        String descripcion;
+        String estado;
+        int idUsuario;
+        int idDepartamento;
+    }
+
+    /**
+     * Agrega un usuario si su correo no está registrado. Debe llamarse con
+     * el candado de escritura tomado.
+     */
+    private boolean agregarUsuario(Usuario u) {
+        if (u.getCorreo() == null || usuariosPorCorreo.containsKey(u.getCorreo())) {
+            return false;
+        }
+        Usuario copia = copiar(u);
+        copia.setId(++seqUsuario);
+        usuarios.put(copia.getId(), copia);
+        usuariosPorCorreo.put(copia.getCorreo(), copia.getId());
+        return true;
+    }
+
+    /**
+     * Agrega un ticket si su usuario y departamento existen. Debe llamarse
+     * con el candado de escritura tomado.
+     */
+    private boolean agregarTicket(Ticket t) {
+        if (t.getUsuario() == null || t.getDepartamento() == null
+                || !usuarios.containsKey(t.getUsuario().getId())
+                || !departamentos.containsKey(t.getDepartamento().getId())) {
+            return false;
+        }
+        FilaTicket f = new FilaTicket();
+        f.id = ++seqTicket;
+        f.asunto = t.getAsunto();
+        f.descripcion = t.getDescripcion();
+        f.estado = t.getEstado();
+        f.idUsuario = t.getUsuario().getId();
+        f.idDepartamento = t.getDepartamento().getId();
+        tickets.put(f.id, f);
+        ticketsPorEstado.computeIfAbsent(f.estado, k -> new TreeSet<>()).add(f.id);
+        return true;
+    }
+
+    /**
+     * Agrega una palabra si el diccionario existe y no contiene ya el mismo
+     * texto. Debe llamarse con el candado de escritura tomado.
+     */
+    private boolean agregarPalabra(Palabra p, int idDiccionario) {
+        Map<String, Palabra> delDiccionario = palabras.get(idDiccionario);
+        if (delDiccionario == null || p.getTexto() == null || delDiccionario.containsKey(p.getTexto())) {
+            return false;
+        }
+        delDiccionario.put(p.getTexto(), new Palabra(p.getTexto(), p.getCategoria()));
+        return true;
+    }
+
+    /**
+     * Retira un ticket del índice por estado.
+     */
+    private void quitarDeIndiceEstado(FilaTicket f) {
+        TreeSet<Integer> ids = ticketsPorEstado.get(f.estado);
+        if (ids != null) {
+            ids.remove(f.id);
+            if (ids.isEmpty()) {
+                ticketsPorEstado.remove(f.estado);
+            }
+        }
+    }
+
+    /**
+     * Construye el ticket de una fila con copias de su usuario y
+     * departamento; devuelve {@code null} si alguno ya no existe.
+     */
+    private Ticket unir(FilaTicket f) {
+        Usuario u = usuarios.get(f.idUsuario);
+        Departamento d = departamentos.get(f.idDepartamento);
+        if (u == null || d == null) return null;
+
+        Ticket t = new Ticket(f.asunto, f.descripcion, f.estado, copiar(u), copiar(d));
+        t.setId(f.id);
+        return t;
+    }
+
+    private static Usuario copiar(Usuario u) {
+        if (u == null) return null;
+        return new Usuario(u.getId(), u.getNombre(), u.getCorreo(), u.getPassword(),
+                u.getTelefono(), u.getRol());
+    }
+
+    private static Departamento copiar(Departamento d) {
+        if (d == null) return null;
+        Departamento copia = new Departamento(d.getNombre(), d.getDescripcion(), d.getCorreoContacto());
+        copia.setId(d.getId());
+        return copia;
+    }
+
+    private static Diccionario copiar(Diccionario d) {
+        if (d == null) return null;
+        Diccionario copia = new Diccionario(d.getTipo());
+        copia.setId(d.getId());
+        return copia;
+    }
+}
@@ -0,0 +1,99 @@
+package cr.ac.ucenfotec.dl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de una inserción masiva. Indica cuántas filas se insertaron y,
+ * para cada fila rechazada, su posición en la lista original y el motivo.
+ */
+public class ResultadoLote {
+
+    /** Cantidad de filas recibidas. */
+    private final int total;
+
+    /** Cantidad de filas insertadas correctamente. */
+    private int insertadas;
+
+    /** Motivo del rechazo por posición de la fila en la lista original. */
+    private final Map<Integer, String> errores = new TreeMap<>();
+
+    /**
+     * Crea un resultado vacío para una carga de la cantidad indicada de filas.
+     *
+     * @param total cantidad de filas recibidas
+     */
+    ResultadoLote(int total) {
+        this.total = total;
+    }
+
+    /**
+     * Suma filas insertadas correctamente.
+     *
+     * @param cantidad filas insertadas
+     */
+    void sumarInsertadas(int cantidad) {
+        insertadas += cantidad;
+    }
+
+    /**
+     * Registra el rechazo de una fila.
+     *
+     * @param posicion posición de la fila en la lista original
+     * @param motivo   descripción del error
+     */
+    void registrarFallo(int posicion, String motivo) {
+        errores.put(posicion, motivo);
+    }
+
+    /**
+     * Obtiene la cantidad de filas recibidas.
+     *
+     * @return total de filas
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtiene la cantidad de filas insertadas correctamente.
+     *
+     * @return filas insertadas
+     */
+    public int getInsertadas() {
+        return insertadas;
+    }
+
+    /**
+     * Obtiene la cantidad de filas rechazadas.
+     *
+     * @return filas con error
+     */
+    public int getFallidas() {
+        return errores.size();
+    }
+
+    /**
+     * Obtiene los errores por posición de la fila en la lista original,
+     * ordenados por posición.
+     *
+     * @return mapa posición -&gt; motivo del rechazo
+     */
+    public Map<Integer, String> getErrores() {
+        return Collections.unmodifiableMap(errores);
+    }
+
+    /**
+     * Devuelve una representación textual del resultado.
+     *
+     * @return cadena con el total, las filas insertadas y las rechazadas
+     */
+    @Override
+    public String toString() {
+        return "ResultadoLote{total=" + total +
+                ", insertadas=" + insertadas +
+                ", fallidas=" + errores.size() +
+                '}';
+    }
+}